@@ -0,0 +1,138 @@
+package com.saas.platform.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.middleware.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Conditional GET and pre-serialized bodies for tenant list endpoints.
+ *
+ * The ETag is the tenant's {@link TenantVersions} version: a matching If-None-Match gets a 304 before the
+ * handler runs, so neither the database nor Jackson is touched. Otherwise the gzip-compressed JSON is
+ * cached per (tenant, path and query, version) and sent as is to clients that accept gzip, inflated for
+ * the rest. Error responses and requests without a tenant (super admin) are not cached.
+ */
+@Component
+public class ResponseCache {
+
+    // Version is part of the key: a bump makes every old body unreachable and it ages out
+    // Browsers keep the body but ask again every time, sending the ETag back as If-None-Match
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private record Key(String path, String query, long version) {}
+
+    private final TenantVersions tenantVersions;
+    private final ObjectMapper objectMapper;
+    private final TenantCache<Key, byte[]> bodies;
+    private final Counter notModified;
+
+    public ResponseCache(TenantVersions tenantVersions, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${cache.response.max-bytes:67108864}") long maxBytes,
+                         @Value("${cache.tenant-max-bytes:4194304}") long tenantMaxBytes,
+                         @Value("${cache.expire-after-access-ms:300000}") long expireAfterAccessMs) {
+        this.tenantVersions = tenantVersions;
+        this.objectMapper = objectMapper;
+        // Bodies never go stale under their version, so expiry only reclaims memory
+        Duration expiry = Duration.ofMillis(expireAfterAccessMs);
+        this.bodies = new TenantCache<>("responses", maxBytes, tenantMaxBytes, expiry, expiry,
+                (key, gzip) -> 64 + gzip.length, meterRegistry);
+        this.notModified = Counter.builder("http.not.modified")
+                .description("Conditional list requests answered with 304 from the tenant version")
+                .register(meterRegistry);
+    }
+
+    public ResponseEntity<?> respond(HttpServletRequest request, Supplier<ApiResponse<?>> handler) {
+        String tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
+            return ResponseEntity.ok(handler.get());
+        }
+
+        // Read before the handler runs: content written after this point is at least as new as the ETag says
+        long version = tenantVersions.current(tenantId);
+        String etag = tenantVersions.etag(version);
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+
+        // Errors are returned as they are; the loader's null keeps them out of the cache
+        ApiResponse<?>[] uncached = new ApiResponse<?>[1];
+        byte[] gzip = bodies.get(tenantId, new Key(request.getRequestURI(), request.getQueryString(), version), () -> {
+            ApiResponse<?> response = handler.get();
+            if (!response.isSuccess()) {
+                uncached[0] = response;
+                return null;
+            }
+            return gzip(response);
+        });
+        if (gzip == null) {
+            return ResponseEntity.ok(uncached[0]);
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return ok.body(gunzip(gzip));
+    }
+
+    // If-None-Match is a comma-separated list; weak comparison, so W/ prefixes are ignored
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(opaque) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] gzip(ApiResponse<?> response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] gzip) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.saas.platform.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * One read-through cache region whose entries belong to tenants.
+ *
+ * Entries live in a single Caffeine cache bounded by estimated bytes, so which entries survive across
+ * tenants is decided by its W-TinyLFU policy (frequency-based admission plus LRU windows). On top of that
+ * each tenant has its own byte budget: a put that would take a tenant over it first evicts that tenant's
+ * least recently read entries (sampled), so one busy tenant cannot push everybody else out.
+ *
+ * Loads are guarded by a per-tenant stamp: a value loaded while an invalidation of the same tenant ran
+ * is returned but not kept, so an entry can never outlive the write that made it stale. Entries also
+ * expire after a fixed time, which bounds staleness for writes made by other instances.
+ *
+ * Hits, misses and evictions are published as the standard cache.* meters tagged cache=&lt;name&gt;,
+ * plus cache.hit.ratio and cache.tenant.evictions.
+ */
+public final class TenantCache<K, V> {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private record Key<K>(String tenantId, K key) {}
+
+    // Weight is kept with the value so the removal listener gives back exactly what the put took
+    private record Entry<V>(V value, int weight) {}
+
+    private static final class Partition<K, V> {
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicLong stamp = new AtomicLong();
+        final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    }
+
+    private final Cache<Key<K>, Entry<V>> cache;
+    private final Map<String, Partition<K, V>> partitions = new ConcurrentHashMap<>();
+    private final ToIntBiFunction<K, V> weigher;
+    private final long tenantMaxBytes;
+    private final Counter tenantEvictions;
+
+    public TenantCache(String name, long maxBytes, long tenantMaxBytes, Duration expireAfterAccess,
+                       Duration expireAfterWrite, ToIntBiFunction<K, V> weigher, MeterRegistry meterRegistry) {
+        this.weigher = weigher;
+        this.tenantMaxBytes = tenantMaxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key<K> key, Entry<V> entry) -> entry.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .expireAfterWrite(expireAfterWrite)
+                // Listener and maintenance on the calling thread, so tenant byte counts never lag behind
+                .executor(Runnable::run)
+                .removalListener((Key<K> key, Entry<V> entry, RemovalCause cause) -> released(key, entry))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.tenantEvictions = Counter.builder("cache.tenant.evictions")
+                .description("Entries evicted because their tenant reached its byte budget")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached value, or the loader's result, which is cached unless it is null.
+     * Without a tenant (super admin requests) the loader is always called.
+     */
+    public V get(String tenantId, K key, Supplier<V> loader) {
+        if (tenantId == null) {
+            return loader.get();
+        }
+        Key<K> cacheKey = new Key<>(tenantId, key);
+        Entry<V> cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached.value();
+        }
+
+        Partition<K, V> partition = partitions.computeIfAbsent(tenantId, id -> new Partition<>());
+        long stamp = partition.stamp.get();
+        V value = loader.get();
+        if (value != null) {
+            put(partition, cacheKey, value, stamp);
+        }
+        return value;
+    }
+
+    public void invalidate(String tenantId, K key) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition != null) {
+            partition.stamp.incrementAndGet();
+            cache.invalidate(new Key<>(tenantId, key));
+        }
+    }
+
+    public void invalidateIf(String tenantId, Predicate<K> matches) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition != null) {
+            partition.stamp.incrementAndGet();
+            for (K key : partition.entries.keySet()) {
+                if (matches.test(key)) {
+                    cache.invalidate(new Key<>(tenantId, key));
+                }
+            }
+        }
+    }
+
+    public void invalidateTenant(String tenantId) {
+        invalidateIf(tenantId, key -> true);
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /** Estimated bytes currently held for the tenant. */
+    public long tenantBytes(String tenantId) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        return partition == null ? 0 : partition.bytes.get();
+    }
+
+    private void put(Partition<K, V> partition, Key<K> cacheKey, V value, long stamp) {
+        int weight = Math.max(1, weigher.applyAsInt(cacheKey.key(), value));
+        if (weight > tenantMaxBytes) {
+            return;
+        }
+        makeRoom(partition, cacheKey.tenantId(), weight);
+
+        Entry<V> entry = new Entry<>(value, weight);
+        partition.bytes.addAndGet(weight);
+        Entry<V> previous = partition.entries.put(cacheKey.key(), entry);
+        if (previous != null) {
+            partition.bytes.addAndGet(-previous.weight());
+        }
+        cache.put(cacheKey, entry);
+
+        // An invalidation ran while this value was loaded: it may predate the write, so do not keep it
+        if (partition.stamp.get() != stamp) {
+            cache.asMap().remove(cacheKey, entry);
+        }
+    }
+
+    // Evicts the least recently read of a few sampled entries until the new one fits the tenant's budget
+    private void makeRoom(Partition<K, V> partition, String tenantId, int weight) {
+        while (partition.bytes.get() + weight > tenantMaxBytes && !partition.entries.isEmpty()) {
+            K victim = null;
+            long oldest = -1;
+            Iterator<K> keys = partition.entries.keySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLE && keys.hasNext(); i++) {
+                K key = keys.next();
+                long age = ageOf(new Key<>(tenantId, key));
+                if (age > oldest) {
+                    oldest = age;
+                    victim = key;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            Key<K> victimKey = new Key<>(tenantId, victim);
+            if (cache.asMap().remove(victimKey) != null) {
+                tenantEvictions.increment();
+            } else {
+                // Already gone from the cache (expired, evicted); drop the stale bookkeeping
+                Entry<V> stale = partition.entries.remove(victim);
+                if (stale != null) {
+                    partition.bytes.addAndGet(-stale.weight());
+                }
+            }
+        }
+    }
+
+    private long ageOf(Key<K> key) {
+        return cache.policy().expireAfterAccess()
+                .map(policy -> policy.ageOf(key, TimeUnit.NANOSECONDS))
+                .orElse(OptionalLong.empty())
+                .orElse(Long.MAX_VALUE);
+    }
+
+    private void released(Key<K> key, Entry<V> entry) {
+        if (key == null || entry == null) {
+            return;
+        }
+        Partition<K, V> partition = partitions.get(key.tenantId());
+        // Conditional on the entry: a replacement put under the same key keeps its own bookkeeping
+        if (partition != null && partition.entries.remove(key.key(), entry)) {
+            partition.bytes.addAndGet(-entry.weight());
+        }
+    }
+}
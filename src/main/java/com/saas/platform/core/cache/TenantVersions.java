@@ -0,0 +1,71 @@
+package com.saas.platform.core.cache;
+
+import com.saas.platform.core.common.EntityChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-tenant data version of this instance, bumped after every committed project/task write and every
+ * audit batch. List responses use it as their ETag, so an unchanged version means an unchanged list.
+ *
+ * The counter only sees writes made through this instance. A version therefore also moves on once it is
+ * older than max-age, which bounds how long writes from elsewhere (other instances, imports,
+ * reconciliation) can hide behind a 304, and ETags carry an instance epoch so that one instance never
+ * confirms an ETag issued by another.
+ */
+@Component
+public class TenantVersions {
+
+    private record Version(long value, long sinceMillis) {}
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<String, AtomicReference<Version>> versions = new ConcurrentHashMap<>();
+
+    private final long maxAgeMillis;
+
+    public TenantVersions(@Value("${cache.response.version-max-age-ms:30000}") long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /** The tenant's current version, moved on first if it has grown older than max-age. */
+    public long current(String tenantId) {
+        AtomicReference<Version> ref = versions.computeIfAbsent(tenantId,
+                id -> new AtomicReference<>(new Version(0, System.currentTimeMillis())));
+        Version version = ref.get();
+        long now = System.currentTimeMillis();
+        if (now - version.sinceMillis() >= maxAgeMillis) {
+            ref.compareAndSet(version, new Version(version.value() + 1, now));
+            version = ref.get();
+        }
+        return version.value();
+    }
+
+    public void bump(String tenantId) {
+        if (tenantId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        versions.computeIfAbsent(tenantId, id -> new AtomicReference<>(new Version(0, now)))
+                .updateAndGet(version -> new Version(version.value() + 1, now));
+    }
+
+    /** Weak ETag for the tenant's lists at the given version; the representation may be gzip or identity. */
+    public String etag(long version) {
+        return "W/\"" + epoch + "-" + version + "\"";
+    }
+
+    // After the data caches have dropped the changed entries, or a body could be rebuilt from them
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChange change) {
+        bump(change.tenantId());
+    }
+}
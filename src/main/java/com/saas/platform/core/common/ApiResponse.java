@@ -1,9 +1,12 @@
 package com.saas.platform.core.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -12,11 +15,19 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
+    // Only present on paginated list responses; pass it back as ?cursor= to get the next page
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static <T> ApiResponse<T> success(String message, T data) {
-        return new ApiResponse<>(true, message, data);
+        return new ApiResponse<>(true, message, data, null);
+    }
+
+    public static <T> ApiResponse<List<T>> page(String message, CursorPage<T> page) {
+        return new ApiResponse<>(true, message, page.items(), page.nextCursor());
     }
 
     public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(false, message, null);
+        return new ApiResponse<>(false, message, null, null);
     }
-}
\ No newline at end of file
+}
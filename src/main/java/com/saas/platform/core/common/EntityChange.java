@@ -0,0 +1,30 @@
+package com.saas.platform.core.common;
+
+/**
+ * Application event published by the project and task services for every entity they write, plus one
+ * column-level event ({@link Action#REORDERED}, id null) when a board column's rank keys are rewritten.
+ * Components that mirror this data in memory listen with {@code @TransactionalEventListener}, so they
+ * only see changes that committed.
+ *
+ * {@code data} is what the write returned: the saved entity, or {id, status[, version]} for the
+ * single-statement status update; null on delete. {@code projectId} is null where the write did not load it.
+ */
+public record EntityChange(String tenantId, Kind kind, Action action, String id, String projectId, Object data) {
+
+    public enum Kind { PROJECT, TASK }
+
+    public enum Action { CREATED, UPDATED, STATUS_CHANGED, DELETED, REORDERED }
+
+    public static EntityChange project(Action action, String tenantId, String projectId, Object data) {
+        return new EntityChange(tenantId, Kind.PROJECT, action, projectId, projectId, data);
+    }
+
+    public static EntityChange task(Action action, String tenantId, String taskId, String projectId, Object data) {
+        return new EntityChange(tenantId, Kind.TASK, action, taskId, projectId, data);
+    }
+
+    /** The tasks of one board column (project + status) got new rank keys; their order did not change. */
+    public static EntityChange taskColumn(String tenantId, String projectId, Object data) {
+        return new EntityChange(tenantId, Kind.TASK, Action.REORDERED, null, projectId, data);
+    }
+}
@@ -0,0 +1,46 @@
+package com.saas.platform.core.common;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Primary key generator: time-ordered UUIDs in the version 7 layout (RFC 9562).
+ *   bits 127..80  unix epoch milliseconds
+ *   bits 79..76   version (7)
+ *   bits 75..64   sequence within the millisecond
+ *   bits 63..62   variant
+ *   bits 61..0    random
+ * New rows therefore land at the right edge of the clustered index instead of at random pages.
+ * Stored as BINARY(16) through {@link UuidBinaryConverter}.
+ *
+ * Ids from one instance are strictly increasing (the sequence borrows from the next millisecond when
+ * more than 4096 are taken in one). The random part comes from ThreadLocalRandom, which never blocks
+ * on the entropy pool like UUID.randomUUID()'s SecureRandom can; ids are identifiers, not secrets.
+ */
+public final class Ids {
+
+    // Last (millis << 12 | sequence) handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private Ids() {
+    }
+
+    public static String next() {
+        return nextUuid().toString();
+    }
+
+    public static UUID nextUuid() {
+        long now = System.currentTimeMillis() << 12;
+        long previous;
+        long next;
+        do {
+            previous = LAST.get();
+            next = Math.max(previous + 1, now);
+        } while (!LAST.compareAndSet(previous, next));
+
+        long msb = ((next >>> 12) << 16) | 0x7000L | (next & 0xFFFL);
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,139 @@
+package com.saas.platform.core.common;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams large result sets straight from a forward-only JDBC cursor to the response, one row at a time,
+ * so heap use does not grow with the result size. Two formats:
+ *   json   - the usual ApiResponse envelope, {"success":true,"message":...,"data":[...]}, written incrementally
+ *   ndjson - one JSON object per line (application/x-ndjson), no envelope
+ * Rows are serialized with the application ObjectMapper, so they look exactly like in the paged endpoints.
+ *
+ * The body runs on an MVC async thread; the caller's tenant is bound there for routing (shard, replica).
+ * An error halfway through can no longer change the status code: the stream is cut off and the client sees
+ * a truncated document.
+ */
+@Component
+public class JsonRowStreamer {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowSerializer;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readOnly;
+    private final ShardScatterGather shardScatterGather;
+
+    public JsonRowStreamer(ObjectMapper objectMapper, @Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbc,
+                           PlatformTransactionManager transactionManager, ShardScatterGather shardScatterGather) {
+        this.objectMapper = objectMapper;
+        // Flushing is batched below, not done after every row
+        this.rowSerializer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.streamingJdbc = streamingJdbc;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.shardScatterGather = shardScatterGather;
+    }
+
+    /**
+     * @param format    "ndjson", anything else means the JSON envelope
+     * @param allShards run the query on every shard in turn (super admin listings), else on the tenant's shard
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String message, String format, boolean allShards,
+                                                            String sql, RowMapper<T> rowMapper, Object... args) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        String tenantId = TenantContext.getCurrentTenant();
+
+        StreamingResponseBody body = out -> {
+            try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
+                RowWriter writer = new RowWriter(out, message, ndjson);
+                if (allShards) {
+                    shardScatterGather.forEachShard(shardId -> query(sql, rowMapper, args, writer));
+                } else {
+                    query(sql, rowMapper, args, writer);
+                }
+                // Only a complete result gets its closing brackets, so a cut-off JSON document never parses
+                writer.finish();
+            } catch (RuntimeException e) {
+                System.err.println("Streaming response aborted: " + e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private <T> void query(String sql, RowMapper<T> rowMapper, Object[] args, RowWriter writer) {
+        readOnly.executeWithoutResult(tx -> streamingJdbc.query(sql, rs -> {
+            writer.write(rowMapper.mapRow(rs, writer.count));
+        }, args));
+    }
+
+    private final class RowWriter {
+
+        private final OutputStream out;
+        private final JsonGenerator generator;
+        private final boolean ndjson;
+        private int count;
+
+        RowWriter(OutputStream out, String message, boolean ndjson) throws IOException {
+            this.out = out;
+            this.ndjson = ndjson;
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            if (ndjson) {
+                generator.setRootValueSeparator(null); // lines are separated below, not by a space
+            } else {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart("data");
+            }
+        }
+
+        void write(Object row) {
+            try {
+                rowSerializer.writeValue(generator, row);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush(); // hand the bytes to the client instead of buffering the document
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (!ndjson) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.flush();
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.saas.platform.core.common;
+
+import com.saas.platform.core.exception.BadRequestException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset (cursor) pagination over one sort attribute with the entity id as tiebreaker.
+ * Pages are fetched with "WHERE (key, id) > (last key, last id) ORDER BY key, id LIMIT n + 1",
+ * so the cost of a page does not depend on how deep into the list it is.
+ * Null keys follow MySQL ordering: first when ascending, last when descending.
+ */
+public final class Keyset<T> {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private final String attribute;
+    private final Function<T, ?> keyOf;
+    private final Function<T, String> idOf;
+    private final boolean ascending;
+
+    private Keyset(String attribute, Function<T, ?> keyOf, Function<T, String> idOf, boolean ascending) {
+        this.attribute = attribute;
+        this.keyOf = keyOf;
+        this.idOf = idOf;
+        this.ascending = ascending;
+    }
+
+    public static <T> Keyset<T> of(String attribute, Function<T, ?> keyOf, Function<T, String> idOf, String order) {
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            throw new BadRequestException("Invalid order '" + order + "', expected asc or desc");
+        }
+        return new Keyset<>(attribute, keyOf, idOf, "asc".equalsIgnoreCase(order));
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null) return DEFAULT_LIMIT;
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public Sort sort() {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Predicate selecting rows strictly after the cursor position, or null for the first page.
+     */
+    public Specification<T> after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        Position position = decode(cursor);
+
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(attribute);
+            Path<String> id = root.get("id");
+            Comparable lastKey = position.key() == null ? null : parse(position.key(), key.getJavaType());
+            return ascending
+                    ? afterAscending(cb, key, id, lastKey, position.id())
+                    : afterDescending(cb, key, id, lastKey, position.id());
+        };
+    }
+
+    /**
+     * Same position test as {@link #after(String)}, applied in memory to rows that do not come from JPA
+     * (e.g. archived audit segments merged into a page).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public java.util.function.Predicate<T> afterInMemory(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return row -> true;
+        }
+        Position position = decode(cursor);
+
+        return row -> {
+            Comparable key = (Comparable) keyOf.apply(row);
+            Comparable lastKey = position.key() == null || key == null ? null : parse(position.key(), key.getClass());
+            int cmp;
+            if (key == null || lastKey == null) {
+                cmp = Boolean.compare(key != null, lastKey != null); // MySQL: nulls sort lowest
+            } else {
+                cmp = key.compareTo(lastKey);
+            }
+            if (cmp == 0) {
+                cmp = idOf.apply(row).compareTo(position.id());
+            }
+            return ascending ? cmp > 0 : cmp < 0;
+        };
+    }
+
+    /**
+     * The sort order in memory, for merging pages fetched from several sources (e.g. one per shard).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<T> comparator() {
+        Comparator<T> byKey = Comparator.comparing(row -> (Comparable) keyOf.apply(row),
+                Comparator.nullsFirst(Comparator.naturalOrder())); // MySQL: nulls sort lowest
+        Comparator<T> order = byKey.thenComparing(idOf);
+        return ascending ? order : order.reversed();
+    }
+
+    /**
+     * Trims a result fetched with limit + 1 rows and derives the next cursor from the last row kept.
+     */
+    public CursorPage<T> page(List<T> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        Object key = keyOf.apply(last);
+        return new CursorPage<>(items, encode(key == null ? null : key.toString(), idOf.apply(last)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate afterAscending(CriteriaBuilder cb, Path<Comparable> key, Path<String> id,
+                                            Comparable lastKey, String lastId) {
+        if (lastKey == null) {
+            return cb.or(cb.and(cb.isNull(key), cb.greaterThan(id, lastId)), cb.isNotNull(key));
+        }
+        return cb.or(cb.greaterThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.greaterThan(id, lastId)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate afterDescending(CriteriaBuilder cb, Path<Comparable> key, Path<String> id,
+                                             Comparable lastKey, String lastId) {
+        if (lastKey == null) {
+            return cb.and(cb.isNull(key), cb.lessThan(id, lastId));
+        }
+        return cb.or(cb.lessThan(key, lastKey),
+                cb.and(cb.equal(key, lastKey), cb.lessThan(id, lastId)),
+                cb.isNull(key));
+    }
+
+    // Cursor layout (Base64url): attribute \n direction \n id \n [key]  -- key last since it may contain anything
+    private record Position(String id, String key) {}
+
+    private String encode(String key, String id) {
+        String raw = attribute + "\n" + (ascending ? "a" : "d") + "\n" + id + "\n" + (key == null ? "" : "v" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Position decode(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(attribute) || !parts[1].equals(ascending ? "a" : "d")) {
+            throw new BadRequestException("Cursor does not match the requested sort order");
+        }
+        return new Position(parts[2], parts[3].isEmpty() ? null : parts[3].substring(1));
+    }
+
+    private static Comparable<?> parse(String value, Class<?> type) {
+        try {
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == Instant.class) return Instant.parse(value);
+            if (type == Long.class || type == long.class) return Long.valueOf(value);
+            if (type == Integer.class || type == int.class) return Integer.valueOf(value);
+            return value;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.saas.platform.core.common;
+
+import com.saas.platform.core.exception.BadRequestException;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Entities keep ids as canonical UUID strings; the columns are BINARY(16) (see V7__binary_uuid_keys.sql).
+ * Byte order is the string's order, so sorting and keyset cursors by id behave exactly as before,
+ * and the layout matches MySQL's UUID_TO_BIN(x) / BIN_TO_UUID(x) without the swap flag.
+ *
+ * A value that is not a UUID is rejected with a {@link BadRequestException} instead of being stored as raw
+ * bytes (which BINARY(16) would truncate or zero-pad). That covers bad ids in URLs too: they fail with a 400
+ * rather than matching no row. Bulk endpoints drop them with {@link #isUuid} before querying, so they are
+ * reported per item.
+ */
+@Converter
+public class UuidBinaryConverter implements AttributeConverter<String, byte[]> {
+
+    private static final int UUID_LENGTH = 36;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String id) {
+        return id == null ? null : toBytes(id);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : fromBytes(bytes);
+    }
+
+    public static boolean isUuid(String id) {
+        return parse(id) != null;
+    }
+
+    public static byte[] toBytes(String id) {
+        UUID uuid = parse(id);
+        if (uuid == null) {
+            throw new BadRequestException("Invalid id: " + id);
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    // UUID.fromString also accepts short forms like "1-2-3-4-5", hence the length check
+    private static UUID parse(String id) {
+        if (id == null || id.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        if (bytes.length != 16) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
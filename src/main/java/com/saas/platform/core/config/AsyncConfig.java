@@ -0,0 +1,21 @@
+package com.saas.platform.core.config;
+
+import com.saas.platform.core.middleware.TenantContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class AsyncConfig {
+
+    // Applied by Boot to the application task executor in both thread modes (pooled platform threads, or
+    // one virtual thread per task with spring.threads.virtual.enabled): the submitter's tenant is bound
+    // for the duration of the task and released with it, instead of being inherited or left behind.
+    @Bean
+    public TaskDecorator tenantTaskDecorator() {
+        return task -> {
+            String tenantId = TenantContext.getCurrentTenant();
+            return () -> TenantContext.runWhere(tenantId, task);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.saas.platform.core.config;
 
+import com.saas.platform.core.common.Ids;
 import com.saas.platform.modules.project.Project;
 import com.saas.platform.modules.project.ProjectRepository;
 import com.saas.platform.modules.task.Task;
@@ -15,7 +16,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.UUID;
 import java.util.Optional;
 
 @Component
@@ -35,7 +35,7 @@ public class DataSeeder implements CommandLineRunner {
         if (userRepository.findByEmail("superadmin@system.com").isEmpty()) {
             System.out.println("Seeding Super Admin...");
             User superAdmin = new User();
-            superAdmin.setId(UUID.randomUUID().toString());
+            superAdmin.setId(Ids.next());
             superAdmin.setEmail("superadmin@system.com");
             superAdmin.setPasswordHash(passwordEncoder.encode("Admin@123"));
             superAdmin.setFullName("System Super Admin");
@@ -51,7 +51,7 @@ public class DataSeeder implements CommandLineRunner {
             System.out.println("Seeding Demo Tenant...");
 
             demoTenant = new Tenant();
-            demoTenant.setId(UUID.randomUUID().toString());
+            demoTenant.setId(Ids.next());
             demoTenant.setName("Demo Company");
             demoTenant.setSubdomain("demo");
             demoTenant.setStatus("active");
@@ -62,7 +62,7 @@ public class DataSeeder implements CommandLineRunner {
 
             // 3. Create Tenant Admin
             User tenantAdmin = new User();
-            tenantAdmin.setId(UUID.randomUUID().toString());
+            tenantAdmin.setId(Ids.next());
             tenantAdmin.setTenantId(demoTenant.getId());
             tenantAdmin.setEmail("admin@demo.com");
             tenantAdmin.setFullName("Demo Admin");
@@ -92,7 +92,7 @@ public class DataSeeder implements CommandLineRunner {
 
     private User createUser(String tenantId, String email, String fullName) {
         User user = new User();
-        user.setId(UUID.randomUUID().toString());
+        user.setId(Ids.next());
         user.setTenantId(tenantId);
         user.setEmail(email);
         user.setFullName(fullName);
@@ -104,7 +104,7 @@ public class DataSeeder implements CommandLineRunner {
 
     private Project createProject(String tenantId, String createdBy, String name, String description) {
         Project project = new Project();
-        project.setId(UUID.randomUUID().toString());
+        project.setId(Ids.next());
         project.setTenantId(tenantId);
         project.setName(name);
         project.setDescription(description);
@@ -117,7 +117,7 @@ public class DataSeeder implements CommandLineRunner {
 
     private void createTask(Project project, String tenantId, String title, String priority, String assignedTo) {
         Task task = new Task();
-        task.setId(UUID.randomUUID().toString());
+        task.setId(Ids.next());
         task.setProjectId(project.getId());
         task.setTenantId(tenantId);
         task.setTitle(title);
@@ -127,5 +127,6 @@ public class DataSeeder implements CommandLineRunner {
         task.setAssignedTo(assignedTo);
         task.setDueDate(LocalDate.now().plusDays(7));
         taskRepository.save(task);
+        projectRepository.adjustTaskCounts(project.getId(), 1, 0);
     }
 }
@@ -0,0 +1,44 @@
+package com.saas.platform.core.config;
+
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * The two JdbcTemplates of the application. Declaring any JdbcTemplate makes Spring Boot's auto-configured
+ * one back off, so the regular template is declared here too, configured from spring.jdbc.template.* as Boot
+ * would, and marked primary: plain JdbcTemplate injection points keep getting it.
+ */
+@Configuration
+public class JdbcConfig {
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        JdbcProperties.Template template = properties.getTemplate();
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        return jdbcTemplate;
+    }
+
+    /**
+     * For reads that walk a whole table, partition or export, inject with @Qualifier("streamingJdbcTemplate").
+     * Integer.MIN_VALUE makes Connector/J stream rows instead of buffering the whole result, so heap use does
+     * not grow with the result. While such a result is open its connection can run no other statement:
+     * consume it within the callback and issue nothing else on that connection meanwhile.
+     */
+    @Bean
+    public JdbcTemplate streamingJdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,87 @@
+package com.saas.platform.core.config;
+
+import com.saas.platform.core.middleware.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends connections for @Transactional(readOnly = true) work to the replica and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy so the physical connection is only fetched once the
+ * transaction's read-only flag is known.
+ *
+ * Reads still go to the primary when
+ *   - the replica is lagging or unreachable ({@link ReplicaLagMonitor}), or
+ *   - the current tenant committed a write within the read-your-writes window, so a user never
+ *     reads a list that is missing what they just saved.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final String NO_TENANT = "";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesNanos;
+    private final Map<String, Long> lastWriteByTenant = new ConcurrentHashMap<>();
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      long readYourWritesMs, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMs);
+        this.primaryRoutes = Counter.builder("datasource.routing").tag("target", "primary").register(meterRegistry);
+        this.replicaRoutes = Counter.builder("datasource.routing").tag("target", "replica").register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenant = TenantContext.getCurrentTenant() == null ? NO_TENANT : TenantContext.getCurrentTenant();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                trackWrite(tenant);
+            }
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+
+        Long lastWrite = lastWriteByTenant.get(tenant);
+        boolean recentWrite = lastWrite != null && System.nanoTime() - lastWrite < readYourWritesNanos;
+        if (recentWrite || !lagMonitor.isReplicaUsable()) {
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Target.REPLICA;
+    }
+
+    // Read-write transactions may write; the window starts when they commit. Connections outside a
+    // transaction (plain JdbcTemplate reads, open-in-view lazy loads) are not tracked, or every such read
+    // would pin the tenant to the primary.
+    private void trackWrite(String tenant) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteByTenant.put(tenant, System.nanoTime());
+            }
+        });
+        if (lastWriteByTenant.size() > 100_000) {
+            long cutoff = System.nanoTime() - readYourWritesNanos;
+            lastWriteByTenant.values().removeIf(time -> time < cutoff);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.saas.platform.core.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Polls the replica's replication delay. The replica is only used while the last probe succeeded
+ * and reported a lag within datasource.replica.max-lag-ms.
+ * A server that is not configured as a replica at all (empty SHOW REPLICA STATUS, e.g. a second local
+ * MySQL used for testing) counts as lag 0; a stopped or broken replication thread does not.
+ */
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbc;
+    private final long maxLagMs;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagMs, MeterRegistry meterRegistry) {
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.replicaJdbc.setQueryTimeout(2);
+        this.maxLagMs = maxLagMs;
+        Gauge.builder("datasource.replica.lag", this, m -> m.lagSeconds).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, m -> m.usable ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:1000}")
+    public void probe() {
+        try {
+            List<Long> lag = replicaJdbc.query("SHOW REPLICA STATUS", (rs, rowNum) -> {
+                long seconds = rs.getLong("Seconds_Behind_Source");
+                return rs.wasNull() ? null : seconds;
+            });
+            if (lag.isEmpty()) {
+                lagSeconds = 0;
+                usable = true;
+            } else if (lag.get(0) == null) {
+                lagSeconds = -1; // replication stopped or broken
+                usable = false;
+            } else {
+                lagSeconds = lag.get(0);
+                usable = lag.get(0) * 1000 <= maxLagMs;
+            }
+        } catch (RuntimeException e) {
+            if (usable) {
+                System.err.println("Replica unavailable, reading from primary: " + e.getMessage());
+            }
+            lagSeconds = -1;
+            usable = false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.saas.platform.core.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Background refresh / reconciliation jobs (@Scheduled)
+public class SchedulingConfig {
+}
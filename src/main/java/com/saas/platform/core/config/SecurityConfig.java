@@ -1,5 +1,6 @@
 package com.saas.platform.core.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,6 +19,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.saas.platform.core.middleware.TenantFilter;
+import com.saas.platform.core.middleware.TenantRateLimitFilter;
 import com.saas.platform.core.security.JwtAuthFilter;
 
 import lombok.RequiredArgsConstructor;
@@ -31,6 +33,7 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final TenantFilter tenantFilter;
+    private final TenantRateLimitFilter tenantRateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -39,12 +42,16 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Fixes Chrome Block
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses (StreamingResponseBody, SSE) finish in an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Mandatory public access for Health Check and Auth
-                .requestMatchers("/api/health").permitAll()
+                .requestMatchers("/api/health", "/actuator/health").permitAll()
                 .requestMatchers("/api/auth/register-tenant", "/api/auth/login").permitAll()
                 
                 // RBAC: Super Admin
                 .requestMatchers(HttpMethod.GET, "/api/tenants").hasRole("super_admin")
+                .requestMatchers("/actuator/**").hasRole("super_admin")
                 
                 // RBAC: Tenant Admin / User Management
                 .requestMatchers(HttpMethod.POST, "/api/tenants/*/users").hasRole("tenant_admin")
@@ -58,7 +65,9 @@ public class SecurityConfig {
 
         // Correct Filter Order: Auth Context must be established before Tenant check
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
-        http.addFilterAfter(tenantFilter, JwtAuthFilter.class);
+        // Per-tenant admission as soon as the JWT tenant is known
+        http.addFilterAfter(tenantRateLimitFilter, JwtAuthFilter.class);
+        http.addFilterAfter(tenantFilter, TenantRateLimitFilter.class);
 
         return http.build();
     }
@@ -69,7 +78,9 @@ public class SecurityConfig {
         // Allow the React frontend origin
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://frontend:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Tenant-ID"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Tenant-ID", "If-None-Match", "Last-Event-ID"));
+        // List endpoints answer If-None-Match with 304, so the frontend needs to read their ETag
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
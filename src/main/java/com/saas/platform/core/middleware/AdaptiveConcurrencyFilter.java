@@ -0,0 +1,180 @@
+package com.saas.platform.core.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptive in-flight limit in front of the controllers (registered as a plain servlet filter, so it runs
+ * after the security chain and only sees authenticated, rate-admitted requests).
+ *
+ * The limit comes from {@link GradientLimit}. Priority classes get a decreasing share of it, so that
+ * under pressure list endpoints are shed first and login and writes last:
+ *   CRITICAL  - POST /api/auth/login and all writes    100% of the limit
+ *   NORMAL    - other reads                            90%
+ *   BULK      - list endpoints                         75%
+ * A request over its share is rejected immediately with 503 instead of queueing behind a saturated pool.
+ *
+ * Async requests (streamed exports) keep their slot until the response completes, and that is when their
+ * latency is sampled. The change feed is not limited at all: its streams stay open for as long as the client
+ * keeps them, mostly idle, so their duration says nothing about the server's load.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyFilter extends OncePerRequestFilter {
+
+    enum Priority {
+        CRITICAL(1.0), NORMAL(0.9), BULK(0.75);
+
+        final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    private static final Pattern LIST_ENDPOINTS = Pattern.compile(
+            "/api/(projects|tasks|audit-logs|tenants|projects/[^/]+/tasks|tenants/[^/]+/users)/?");
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${concurrency-limit.initial:50}")
+    private int initialLimit;
+
+    @Value("${concurrency-limit.min:10}")
+    private int minLimit;
+
+    @Value("${concurrency-limit.max:200}")
+    private int maxLimit;
+
+    @Value("${concurrency-limit.window-ms:100}")
+    private long windowMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+    private GradientLimit gradientLimit;
+
+    @PostConstruct
+    void init() {
+        gradientLimit = new GradientLimit(initialLimit, minLimit, maxLimit, TimeUnit.MILLISECONDS.toNanos(windowMs));
+        Gauge.builder("concurrency.limit", gradientLimit, GradientLimit::limit).register(meterRegistry);
+        Gauge.builder("concurrency.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("concurrency.shed")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || path.equals("/api/health") || path.startsWith("/actuator") || path.equals("/api/changes");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Priority priority = classify(request);
+        if (!tryAcquire((int) Math.max(1, gradientLimit.limit() * priority.share))) {
+            shed.get(priority).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Called once the response is done, also after a timeout or error
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release(start);
+            }
+        }
+    }
+
+    private void release(long start) {
+        inFlight.decrementAndGet();
+        long end = System.nanoTime();
+        gradientLimit.onSample(end - start, end);
+    }
+
+    static Priority classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return Priority.CRITICAL; // writes, including POST /api/auth/login
+        }
+        return LIST_ENDPOINTS.matcher(request.getRequestURI()).matches() ? Priority.BULK : Priority.NORMAL;
+    }
+
+    private boolean tryAcquire(int allowed) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Server is busy, please retry shortly"));
+    }
+}
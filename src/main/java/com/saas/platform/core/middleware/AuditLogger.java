@@ -1,29 +1,35 @@
 package com.saas.platform.core.middleware;
 
-import com.saas.platform.modules.audit.AuditLog;
-import com.saas.platform.modules.audit.AuditLogRepository;
+import com.saas.platform.modules.audit.AuditBatchWriter;
+import com.saas.platform.modules.audit.AuditEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Component // This tells Spring to manage this bean
 @RequiredArgsConstructor
 public class AuditLogger {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditBatchWriter auditBatchWriter;
 
     public void log(String action, String details) {
-        AuditLog log = new AuditLog();
-        log.setId(UUID.randomUUID().toString());
-        
-        // Retrieve tenant ID from the context to satisfy Requirement 6
-        log.setTenantId(TenantContext.getCurrentTenant());
-        
-        log.setAction(action);
-        log.setDetails(details);
-        log.setTimestamp(LocalDateTime.now());
-        
-        auditLogRepository.save(log);
+        // Retrieve tenant ID from the context at call time to satisfy Requirement 6
+        AuditEvent event = new AuditEvent(TenantContext.getCurrentTenant(), action, details, LocalDateTime.now());
+
+        // Written asynchronously in batches. Inside a transaction the event is only handed over
+        // once it commits, so rolled-back operations are still never audited.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditBatchWriter.submit(event);
+                }
+            });
+        } else {
+            auditBatchWriter.submit(event);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.saas.platform.core.middleware;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that follows measured latency (gradient algorithm, as in Netflix concurrency-limits):
+ *
+ *   gradient  = clamp(longRtt / shortRtt, 0.5, 1.0)
+ *   newLimit  = limit * gradient + sqrt(limit)
+ *   limit     = smoothed towards newLimit, within [min, max]
+ *
+ * While latency stays at its long-term baseline the sqrt(limit) headroom lets the limit grow; when the
+ * database slows down, shortRtt rises above longRtt and the limit shrinks in proportion.
+ * Samples are aggregated per window and the limit recomputed by whichever request closes the window,
+ * so the hot path is a couple of atomic adds.
+ */
+final class GradientLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double LONG_RTT_WEIGHT = 2.0 / (600 + 1); // ~600-window EMA
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+
+    private final AtomicLong windowRttSum = new AtomicLong();
+    private final AtomicLong windowSamples = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private volatile double limit;
+    private double longRtt; // guarded by updating
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    void onSample(long rttNanos, long now) {
+        windowRttSum.addAndGet(rttNanos);
+        windowSamples.incrementAndGet();
+
+        long start = windowStart.get();
+        if (now - start < windowNanos || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!windowStart.compareAndSet(start, now)) {
+                return; // another thread already closed this window
+            }
+            long samples = windowSamples.getAndSet(0);
+            long sum = windowRttSum.getAndSet(0);
+            if (samples == 0) {
+                return;
+            }
+            update((double) sum / samples);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(double shortRtt) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_WEIGHT;
+        }
+        // Recover the baseline quickly once an incident is over, instead of treating the slow period as normal
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,41 @@
+package com.saas.platform.core.middleware;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in GCRA form: the whole state is one "theoretical arrival time" updated by CAS,
+ * so there is no refill thread and no lock even with many requests per tenant in flight.
+ * Admitting a request moves the TAT one emission interval forward; the bucket is full when the TAT is
+ * more than the burst allowance ahead of now.
+ */
+final class RateBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    RateBucket(double permitsPerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(0, burst - 1);
+    }
+
+    /**
+     * Takes a token if one is available now or within maxWaitNanos.
+     *
+     * @return nanoseconds the caller must wait before proceeding (0 = immediately),
+     *         or a negative value -(nanos until a token is available) when rejected
+     */
+    long acquire(long now, long maxWaitNanos) {
+        while (true) {
+            long current = tat.get();
+            long start = Math.max(current, now);
+            long wait = start - burstNanos - now;
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            if (tat.compareAndSet(current, start + intervalNanos)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+}
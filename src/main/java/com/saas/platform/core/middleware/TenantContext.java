@@ -1,21 +1,75 @@
 package com.saas.platform.core.middleware;
 
+import java.util.concurrent.Callable;
+
 /**
  * Thread-safe container to store and retrieve the current tenant's ID.
  * This is the backbone of our data isolation strategy.
+ *
+ * The tenant is bound for a bounded scope, in the style of {@code ScopedValue}: {@link #bind} / {@link #runWhere}
+ * set it and closing the scope restores whatever was bound before, so nested bindings (filter, JWT, interceptor,
+ * async hand-off) unwind correctly and nothing outlives the request on pooled or virtual threads.
+ * Storage is a plain, non-inheritable ThreadLocal holding one String reference - cheap even with
+ * millions of short-lived virtual threads - because ScopedValue itself is still a preview API on Java 21.
+ *
+ * {@link #setCurrentTenant} / {@link #clear} remain as the compatibility shim for code that manages the value by hand.
  */
 public class TenantContext {
     private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
 
-    public static void setCurrentTenant(String tenantId) {
+    /** An open binding; closing it restores the previous tenant of this thread. */
+    public static final class Scope implements AutoCloseable {
+        private final String previous;
+        private final Thread owner = Thread.currentThread();
+        private boolean closed;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            if (Thread.currentThread() != owner) {
+                throw new IllegalStateException("Tenant scope closed on a different thread");
+            }
+            closed = true;
+            if (previous == null) {
+                CURRENT_TENANT.remove();
+            } else {
+                CURRENT_TENANT.set(previous);
+            }
+        }
+    }
+
+    /** Binds the tenant until the returned scope is closed (use with try-with-resources). */
+    public static Scope bind(String tenantId) {
+        Scope scope = new Scope(CURRENT_TENANT.get());
         CURRENT_TENANT.set(tenantId);
+        return scope;
+    }
+
+    public static void runWhere(String tenantId, Runnable action) {
+        try (Scope ignored = bind(tenantId)) {
+            action.run();
+        }
+    }
+
+    public static <T> T callWhere(String tenantId, Callable<T> action) throws Exception {
+        try (Scope ignored = bind(tenantId)) {
+            return action.call();
+        }
     }
 
     public static String getCurrentTenant() {
         return CURRENT_TENANT.get();
     }
 
+    public static void setCurrentTenant(String tenantId) {
+        CURRENT_TENANT.set(tenantId);
+    }
+
     public static void clear() {
         CURRENT_TENANT.remove();
     }
-}
\ No newline at end of file
+}
@@ -22,17 +22,15 @@ public class TenantFilter extends OncePerRequestFilter {
         
         String tenantId = request.getHeader(TENANT_HEADER);
 
-        try {
-            if (tenantId != null && !tenantId.isEmpty()) {
-                // Set the tenant ID for the current thread
-                TenantContext.setCurrentTenant(tenantId);
-            }
-            
+        if (tenantId == null || tenantId.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Bound for this request only; the previous tenant is restored on the way out,
+        // so nothing leaks to the next request served by this thread
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId)) {
             filterChain.doFilter(request, response);
-            
-        } finally {
-            // CRITICAL: Clear context after request to prevent cross-tenant data leaking
-            TenantContext.clear();
         }
     }
 }
\ No newline at end of file
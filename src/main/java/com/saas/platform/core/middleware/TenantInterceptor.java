@@ -1,20 +1,35 @@
 package com.saas.platform.core.middleware;
 
-import com.saas.platform.modules.tenant.TenantRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.sharding.ShardDirectory;
+import com.saas.platform.modules.tenant.TenantDirectory;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 @Component
 @RequiredArgsConstructor
-public class TenantInterceptor implements HandlerInterceptor {
+public class TenantInterceptor implements AsyncHandlerInterceptor {
 
-    private final TenantRepository tenantRepository;
+    private static final String SCOPE_ATTRIBUTE = TenantInterceptor.class.getName() + ".scope";
+
+    private final TenantDirectory tenantDirectory;
+    private final ShardDirectory shardDirectory;
+    private final ObjectMapper objectMapper;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Authenticated API calls already carry the tenant from the JWT; nothing to resolve
+        String current = TenantContext.getCurrentTenant();
+        if (current != null) {
+            return allowWrite(current, request, response);
+        }
+
         // 1. Logic to identify tenant by subdomain (e.g., demo.saas.com)
         String serverName = request.getServerName();
         String subdomain = null;
@@ -27,21 +42,47 @@ public class TenantInterceptor implements HandlerInterceptor {
         // Note: For authenticated APIs, JwtAuthFilter takes priority. 
         // This is useful for public tenant-specific branding or registration checks.
         if (subdomain != null && !subdomain.equals("www") && !subdomain.equals("localhost")) {
-            final String finalSubdomain = subdomain;
-            tenantRepository.findBySubdomain(finalSubdomain).ifPresent(tenant -> {
-                // If not already set by JWT, set it here for public tenant routes
-                if (TenantContext.getCurrentTenant() == null) {
-                    TenantContext.setCurrentTenant(tenant.getId());
-                }
-            });
+            // In-memory lookup: no SQL on the request path
+            tenantDirectory.findBySubdomain(subdomain)
+                    .ifPresent(tenant -> request.setAttribute(SCOPE_ATTRIBUTE, TenantContext.bind(tenant.id())));
         }
 
         return true; // Continue request
     }
 
+    // While a tenant's final copy to another shard runs, its writes are turned away for a few seconds
+    private boolean allowWrite(String tenantId, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        String method = request.getMethod();
+        boolean read = "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+        if (read || !shardDirectory.isWriteFrozen(tenantId)) {
+            return true;
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "5");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Tenant is being moved, writes are paused for a few seconds"));
+        return false;
+    }
+
+    // Both callbacks run on the thread that ran preHandle for this dispatch. An async request (streamed export,
+    // SSE) ends its first dispatch in afterConcurrentHandlingStarted, not afterCompletion, and finishes in a
+    // later dispatch on another thread, which binds and closes its own scope.
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        closeScope(request);
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        // Safety net: Always clear context after request completion
-        TenantContext.clear();
+        closeScope(request);
+    }
+
+    // Only undo our own binding; tenants bound by the filters are restored when their scopes close
+    private void closeScope(HttpServletRequest request) {
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof TenantContext.Scope scope) {
+            request.removeAttribute(SCOPE_ATTRIBUTE);
+            scope.close();
+        }
     }
-}
\ No newline at end of file
+}
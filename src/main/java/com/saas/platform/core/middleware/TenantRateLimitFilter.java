@@ -0,0 +1,134 @@
+package com.saas.platform.core.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-tenant admission right after JwtAuthFilter has bound the tenant, so one tenant cannot
+ * take all Tomcat threads and Hikari connections from the others.
+ *
+ * Every tenant gets a read bucket (GET/HEAD/OPTIONS) and a write bucket sized by its subscription plan.
+ * A request that would fit within rate-limit.max-wait-ms waits for its token (smoothing short bursts);
+ * anything later is rejected with 429 and Retry-After. Requests without a tenant (login, super admin)
+ * are not limited here.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantRateLimitFilter extends OncePerRequestFilter {
+
+    private final TenantDirectory tenantDirectory;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    // A bucket with its meters, registered once per tenant rather than looked up on every request
+    private record Lane(RateBucket bucket, Counter rejected, Timer waits) {}
+
+    private record Limits(String plan, Lane reads, Lane writes) {}
+
+    private final Map<String, Limits> limitsByTenant = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || TenantContext.getCurrentTenant() == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String tenantId = TenantContext.getCurrentTenant();
+        Limits limits = limitsFor(tenantId);
+        Lane lane = isRead(request) ? limits.reads() : limits.writes();
+
+        long wait = lane.bucket().acquire(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+        if (wait < 0) {
+            lane.rejected().increment();
+            reject(response, -wait);
+            return;
+        }
+
+        lane.waits().record(wait, TimeUnit.NANOSECONDS);
+        if (wait > 0) {
+            // Cheap on virtual threads; on platform threads bounded by max-wait-ms
+            LockSupport.parkNanos(wait);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Limits limitsFor(String tenantId) {
+        String plan = tenantDirectory.findById(tenantId)
+                .map(TenantDirectory.Entry::subscriptionPlan)
+                .orElse("free");
+        Limits limits = limitsByTenant.computeIfAbsent(tenantId, id -> planLimits(id, plan));
+        if (!limits.plan().equalsIgnoreCase(plan)) {
+            // The plan changed: start from full buckets at the new size
+            limits = limitsByTenant.compute(tenantId, (id, current) ->
+                    current != null && current.plan().equalsIgnoreCase(plan) ? current : planLimits(id, plan));
+        }
+        return limits;
+    }
+
+    // Requests per second and burst size per plan, mirroring TenantService.updatePlanLimits
+    private Limits planLimits(String tenantId, String plan) {
+        if (plan.equalsIgnoreCase("pro")) {
+            return new Limits(plan, lane(tenantId, "read", 100, 200), lane(tenantId, "write", 25, 50));
+        } else if (plan.equalsIgnoreCase("enterprise")) {
+            return new Limits(plan, lane(tenantId, "read", 500, 1000), lane(tenantId, "write", 100, 200));
+        }
+        return new Limits(plan, lane(tenantId, "read", 20, 40), lane(tenantId, "write", 5, 10));
+    }
+
+    private Lane lane(String tenantId, String kind, double perSecond, int burst) {
+        return new Lane(new RateBucket(perSecond, burst),
+                Counter.builder("tenant.ratelimit.rejected")
+                        .tag("tenant", tenantId).tag("kind", kind)
+                        .register(meterRegistry),
+                Timer.builder("tenant.ratelimit.wait")
+                        .tag("tenant", tenantId).tag("kind", kind)
+                        .register(meterRegistry));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Rate limit exceeded for your plan, retry in " + retryAfterSeconds + "s"));
+    }
+}
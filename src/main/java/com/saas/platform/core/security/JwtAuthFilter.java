@@ -6,6 +6,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,6 +26,12 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
+
+    // "claims": principal built from the verified token + in-memory user state (no DB round-trip)
+    // "database": legacy mode, reloads the user through UserDetailsService on every request
+    @Value("${security.authentication.mode:claims}")
+    private String authenticationMode;
 
     @Override
     protected void doFilterInternal(
@@ -35,37 +42,43 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
-        final String tenantId;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        jwt = authHeader.substring(7);
+
+        // Opens a tenant scope for the rest of the request: authenticate() sets the tenant inside it
+        // (UserDetailsService needs it) and closing it restores the previous value, so nothing leaks
+        try (TenantContext.Scope ignored = TenantContext.bind(TenantContext.getCurrentTenant())) {
+            authenticate(jwt, request);
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private void authenticate(String jwt, HttpServletRequest request) {
         try {
-            jwt = authHeader.substring(7);
-            userEmail = jwtService.extractUsername(jwt);
-            tenantId = jwtService.extractTenantId(jwt);
+            // Single verification: signature, expiry and all claims in one pass (cached per token)
+            JwtPrincipal principal = jwtService.verify(jwt);
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (principal.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // 1. Set Tenant ID in Context EARLIER to allow UserDetailsService to scope lookup
-                if (tenantId != null) {
-                    TenantContext.setCurrentTenant(tenantId);
+                if (principal.tenantId() != null) {
+                    TenantContext.setCurrentTenant(principal.tenantId());
                 }
 
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                Object authPrincipal = resolvePrincipal(principal);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (authPrincipal != null) {
                     // TenantContext is already set above
 
-
-                    // 2. Extract Role and add ROLE_ prefix
-                    String role = jwtService.extractClaim(jwt, claims -> claims.get("role", String.class));
-                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+                    // 2. Role comes from the verified claims, with ROLE_ prefix
+                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.role()));
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            authPrincipal,
                             null,
                             authorities // Use prefixed authorities for hasRole checks
                     );
@@ -78,12 +91,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             System.err.println("Authentication Failed: " + e.getMessage());
             e.printStackTrace(); // Helpful for debugging Docker logs
         }
-        
-        try {
-            filterChain.doFilter(request, response);
-        } finally {
-            // CRITICAL: Clear context after request to prevent cross-tenant data leaking
-            TenantContext.clear();
+    }
+
+    // Returns null when the user behind the token must not be authenticated
+    private Object resolvePrincipal(JwtPrincipal principal) {
+        if ("database".equalsIgnoreCase(authenticationMode)) {
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(principal.subject());
+            return principal.subject().equals(userDetails.getUsername()) ? userDetails : null;
+        }
+
+        if (!userStateCache.isAuthorized(principal)) {
+            System.err.println("Authentication Rejected: user inactive, deleted or role changed: " + principal.subject());
+            return null;
         }
+        return principal;
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.saas.platform.core.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Immutable view of a verified JWT: everything the request pipeline needs,
+ * extracted in a single parse so nothing downstream has to touch the token again.
+ * Also serves as the authentication principal, so {@code Authentication.getName()} is the email.
+ */
+public record JwtPrincipal(String subject, String tenantId, String role, long expiresAtMillis)
+        implements AuthenticatedPrincipal {
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
@@ -1,15 +1,21 @@
 package com.saas.platform.core.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -21,27 +27,72 @@ public class JwtService {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Decoding the secret and building the parser are done once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache tokenCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        tokenCache = new VerifiedTokenCache(cacheMaxEntries);
+    }
+
     // Generates a token with extra claims: tenantId and role
     public String generateToken(String email, String tenantId, String role) {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("tenantId", tenantId);
         extraClaims.put("role", role);
-        
+
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(email)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 24 Hours
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifies the token once and returns everything the request pipeline needs.
+     * Repeat calls with the same token are served from the verified-token cache until it expires.
+     * Throws a {@link io.jsonwebtoken.JwtException} for tampered, malformed or expired tokens.
+     */
+    public JwtPrincipal verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+
+        JwtPrincipal cached = tokenCache.get(digest, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtPrincipal principal = parse(token);
+        tokenCache.put(digest, principal, now);
+        return principal;
+    }
+
+    // Full signature check + claim extraction, bypassing the cache
+    JwtPrincipal parse(String token) {
+        Claims claims = extractAllClaims(token);
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("tenantId", String.class),
+                claims.get("role", String.class),
+                claims.getExpiration().getTime()
+        );
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public String extractTenantId(String token) {
-        return extractAllClaims(token).get("tenantId", String.class);
+        return verify(token).tenantId();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -50,24 +101,22 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        // verify() rejects expired tokens, so only the subject needs checking here
+        return verify(token).subject().equals(userDetails.getUsername());
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    // Tokens are never kept in memory verbatim; the cache is keyed by their SHA-256
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
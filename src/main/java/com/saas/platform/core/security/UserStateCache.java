@@ -0,0 +1,107 @@
+package com.saas.platform.core.security;
+
+import com.saas.platform.modules.user.User;
+import com.saas.platform.modules.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact "is this user still active, and is their role still the one in the token" lookup,
+ * keyed by (tenantId, email). This is the only server-side check in claims-based authentication;
+ * the database is consulted once per key and then only after an invalidation or TTL expiry.
+ */
+@Component
+public class UserStateCache {
+
+    private record Key(String tenantId, String email) {}
+
+    // role == null means the user no longer exists (negative entry)
+    private record UserState(boolean active, String role, long loadedAtMillis) {}
+
+    private final UserRepository userRepository;
+    private final Map<Key, UserState> states = new ConcurrentHashMap<>();
+
+    @Value("${security.user-state-cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${security.user-state-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    public UserStateCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * True when the user behind the token still exists, is active and holds the role in the token.
+     * A role change therefore forces a fresh login rather than silently keeping old privileges.
+     */
+    public boolean isAuthorized(JwtPrincipal principal) {
+        UserState state = lookup(principal.tenantId(), principal.subject());
+        return state.active() && Objects.equals(state.role(), principal.role());
+    }
+
+    /**
+     * Drops the cached state now and again once the surrounding transaction commits,
+     * so a concurrent request cannot re-cache the pre-commit row.
+     */
+    public void invalidate(String tenantId, String email) {
+        Key key = new Key(tenantId, email);
+        states.remove(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    states.remove(key);
+                }
+            });
+        }
+    }
+
+    private UserState lookup(String tenantId, String email) {
+        Key key = new Key(tenantId, email);
+        long now = System.currentTimeMillis();
+
+        UserState state = states.get(key);
+        if (state != null && now - state.loadedAtMillis() < ttlMillis) {
+            return state;
+        }
+
+        state = load(tenantId, email, now);
+        if (states.size() >= maxEntries) {
+            evict(now);
+        }
+        states.put(key, state);
+        return state;
+    }
+
+    private UserState load(String tenantId, String email, long now) {
+        // Same scoping rules as UserDetailsServiceImpl: tenant users by (email, tenant), super admins globally
+        Optional<User> user = tenantId != null
+                ? userRepository.findByEmailAndTenantId(email, tenantId)
+                : userRepository.findByEmail(email);
+
+        return user
+                .map(u -> new UserState(!Boolean.FALSE.equals(u.getIsActive()), u.getRole(), now))
+                .orElseGet(() -> new UserState(false, null, now));
+    }
+
+    private void evict(long now) {
+        states.values().removeIf(state -> now - state.loadedAtMillis() >= ttlMillis);
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Key> it = states.keySet().iterator();
+        while (states.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
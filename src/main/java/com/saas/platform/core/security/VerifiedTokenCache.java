@@ -0,0 +1,59 @@
+package com.saas.platform.core.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map of token digest -> verified principal.
+ * Entries are dropped as soon as the token they describe expires, so a hit is always
+ * as good as a fresh signature check.
+ */
+class VerifiedTokenCache {
+
+    private final Map<String, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    JwtPrincipal get(String digest, long nowMillis) {
+        JwtPrincipal principal = entries.get(digest);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.isExpired(nowMillis)) {
+            entries.remove(digest, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(String digest, JwtPrincipal principal, long nowMillis) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(nowMillis);
+        }
+        entries.put(digest, principal);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // Expired tokens go first; if the cache is still full we shed an arbitrary tenth
+    // rather than tracking recency on the hot path.
+    private void evict(long nowMillis) {
+        entries.values().removeIf(principal -> principal.isExpired(nowMillis));
+
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
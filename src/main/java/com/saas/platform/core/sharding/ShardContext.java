@@ -0,0 +1,44 @@
+package com.saas.platform.core.sharding;
+
+import com.saas.platform.core.middleware.TenantContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Explicit shard binding for work that is not scoped to one tenant: scatter-gather queries,
+ * per-shard maintenance jobs and the shard directory itself (which lives on the main shard).
+ * Takes precedence over the tenant-based routing of {@link ShardRoutingDataSource}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String getCurrentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void runOn(String shardId, Runnable action) {
+        callOn(shardId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T callOn(String shardId, Supplier<T> action) {
+        String previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shardId);
+        // No tenant inside: the shard is chosen explicitly, not derived from whoever triggered the work
+        try (TenantContext.Scope ignored = TenantContext.bind(null)) {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+}
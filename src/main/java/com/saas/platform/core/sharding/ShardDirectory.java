@@ -0,0 +1,168 @@
+package com.saas.platform.core.sharding;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory tenant -> shard placement, backed by the tenant_shards table on the main shard.
+ * Feeds {@link ShardRoutingDataSource}, so repositories reach the tenant's shard without knowing about it.
+ * Tenants without a placement (everything created before sharding was enabled) live on "main".
+ *
+ * When sharding is disabled there is a single shard and every method answers accordingly.
+ */
+@Component
+public class ShardDirectory implements SmartInitializingSingleton {
+
+    public static final String MAIN = ShardRoutingDataSource.MAIN;
+
+    public enum Status { ACTIVE, MOVING, FROZEN }
+
+    // generation: when the placement was written locally or loaded, on this instance's refresh counter
+    public record Placement(String shardId, Status status, long generation) {}
+
+    private static final Placement ON_MAIN = new Placement(MAIN, Status.ACTIVE, 0);
+
+    private final ShardRoutingDataSource routing;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+    // Orders local updates against refreshes; the clock cannot, two of them can share a millisecond
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${sharding.directory.refresh-ms:2000}")
+    private long refreshMs;
+
+    public ShardDirectory(DataSource dataSource, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        ShardRoutingDataSource found;
+        try {
+            found = dataSource.isWrapperFor(ShardRoutingDataSource.class)
+                    ? dataSource.unwrap(ShardRoutingDataSource.class) : null;
+        } catch (SQLException e) {
+            found = null;
+        }
+        this.routing = found;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (routing != null) {
+            routing.setPlacement(this::shardFor);
+        }
+    }
+
+    public boolean isSharded() {
+        return routing != null;
+    }
+
+    public Set<String> shardIds() {
+        return routing == null ? Set.of(MAIN) : routing.shards().keySet();
+    }
+
+    public DataSource shard(String shardId) {
+        DataSource shard = routing == null ? null : routing.shards().get(shardId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shardId);
+        }
+        return shard;
+    }
+
+    public String shardFor(String tenantId) {
+        return placement(tenantId).shardId();
+    }
+
+    public Placement placement(String tenantId) {
+        return tenantId == null ? ON_MAIN : placements.getOrDefault(tenantId, ON_MAIN);
+    }
+
+    /** True while a move is taking the final copy of the tenant; writes must be turned away. */
+    public boolean isWriteFrozen(String tenantId) {
+        return placement(tenantId).status() == Status.FROZEN;
+    }
+
+    /** How long other instances may keep routing on an old placement. */
+    public long refreshIntervalMs() {
+        return refreshMs;
+    }
+
+    /**
+     * Places a new tenant on the shard holding the fewest tenants. Must be called before the tenant's
+     * first write; the placement is committed on its own so it holds even if registration continues elsewhere.
+     */
+    public String assign(String tenantId) {
+        if (routing == null) {
+            return MAIN;
+        }
+        Map<String, Long> load = new HashMap<>();
+        shardIds().forEach(id -> load.put(id, 0L));
+        placements.values().forEach(p -> load.merge(p.shardId(), 1L, Long::sum));
+        String shardId = load.entrySet().stream()
+                .min(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .orElse(MAIN);
+        update(tenantId, shardId, Status.ACTIVE);
+        return shardId;
+    }
+
+    /** Records a placement on the main shard and applies it locally right away. */
+    public void update(String tenantId, String shardId, Status status) {
+        ShardContext.runOn(MAIN, () -> newTransaction.executeWithoutResult(tx -> jdbcTemplate.update(
+                "INSERT INTO tenant_shards (tenant_id, shard_id, status) VALUES (UUID_TO_BIN(?), ?, ?) AS new " +
+                "ON DUPLICATE KEY UPDATE shard_id = new.shard_id, status = new.status",
+                tenantId, shardId, status.name().toLowerCase())));
+        placements.put(tenantId, new Placement(shardId, status, generation.incrementAndGet()));
+    }
+
+    /** Waits for this instance's open write transactions of the tenant to finish. */
+    public boolean awaitWritesDrained(String tenantId, long timeoutMs) throws InterruptedException {
+        return routing == null || routing.awaitWritesDrained(tenantId, timeoutMs);
+    }
+
+    // After Flyway (a dependency of the EntityManagerFactory) but before the web server takes requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${sharding.directory.refresh-ms:2000}",
+               initialDelayString = "${sharding.directory.refresh-ms:2000}")
+    public void refresh() {
+        if (routing == null) {
+            return;
+        }
+        long started = generation.incrementAndGet();
+        try {
+            List<Map<String, Object>> rows = ShardContext.callOn(MAIN,
+                    () -> jdbcTemplate.queryForList("SELECT BIN_TO_UUID(tenant_id) AS tenant_id, shard_id, status FROM tenant_shards"));
+            Map<String, Placement> loaded = new HashMap<>();
+            for (Map<String, Object> row : rows) {
+                String shardId = (String) row.get("shard_id");
+                if (!routing.shards().containsKey(shardId)) {
+                    System.err.println("Tenant " + row.get("tenant_id") + " is placed on unknown shard " + shardId);
+                    continue;
+                }
+                loaded.put((String) row.get("tenant_id"),
+                        new Placement(shardId, Status.valueOf(((String) row.get("status")).toUpperCase()), started));
+            }
+            // Keep anything updated locally while the query was running (a later generation)
+            loaded.forEach((tenantId, placement) -> placements.merge(tenantId, placement,
+                    (current, fresh) -> current.generation() > started ? current : fresh));
+            placements.entrySet().removeIf(e -> !loaded.containsKey(e.getKey()) && e.getValue().generation() < started);
+        } catch (RuntimeException e) {
+            System.err.println("Could not refresh shard directory: " + e.getMessage());
+        }
+    }
+}
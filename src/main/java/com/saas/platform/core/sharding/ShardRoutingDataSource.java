@@ -0,0 +1,89 @@
+package com.saas.platform.core.sharding;
+
+import com.saas.platform.core.middleware.TenantContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Picks the shard for each physical connection: an explicit {@link ShardContext} binding, otherwise the
+ * shard the {@link ShardDirectory} places the current tenant on, otherwise "main".
+ * Wrapped in a LazyConnectionDataSourceProxy, so the decision is made at the first statement of a
+ * transaction, after the tenant has been bound.
+ *
+ * Also counts open read-write transactions per tenant, which the tenant mover waits on before its final copy.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String MAIN = "main";
+
+    private final Map<String, DataSource> shards;
+    private final Map<String, AtomicInteger> openWrites = new ConcurrentHashMap<>();
+    private volatile Function<String, String> placement = tenantId -> MAIN;
+
+    public ShardRoutingDataSource(DataSource main, Map<String, DataSource> others) {
+        Map<String, DataSource> all = new LinkedHashMap<>();
+        all.put(MAIN, main);
+        all.putAll(others);
+        this.shards = Collections.unmodifiableMap(all);
+        setTargetDataSources(new HashMap<>(all));
+        setDefaultTargetDataSource(main);
+    }
+
+    public Map<String, DataSource> shards() {
+        return shards;
+    }
+
+    void setPlacement(Function<String, String> placement) {
+        this.placement = placement;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.getCurrentShard();
+        if (shard != null) {
+            return shard;
+        }
+        String tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
+            return MAIN; // tenants' shared data: super admins, the shard directory, startup seeding
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            AtomicInteger open = openWrites.computeIfAbsent(tenantId, id -> new AtomicInteger());
+            open.incrementAndGet();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    open.decrementAndGet();
+                }
+            });
+        }
+        return placement.apply(tenantId);
+    }
+
+    /**
+     * Waits until no read-write transaction of the tenant is open on this instance.
+     */
+    boolean awaitWritesDrained(String tenantId, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        AtomicInteger open = openWrites.get(tenantId);
+        while (open != null && open.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package com.saas.platform.core.sharding;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs cross-tenant work (super admin listings, maintenance jobs) against every shard.
+ * Queries fan out in parallel on the application task executor, each in its own read-only
+ * transaction bound to one shard, and the caller merges the per-shard results.
+ */
+@Component
+public class ShardScatterGather {
+
+    private final ShardDirectory shardDirectory;
+    private final AsyncTaskExecutor executor;
+    private final TransactionTemplate readOnly;
+
+    public ShardScatterGather(ShardDirectory shardDirectory,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor,
+                              PlatformTransactionManager transactionManager) {
+        this.shardDirectory = shardDirectory;
+        this.executor = applicationTaskExecutor;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /** One result per shard, in shard order. */
+    public <T> List<T> query(Supplier<T> query) {
+        if (!shardDirectory.isSharded()) {
+            T result = readOnly.execute(tx -> query.get());
+            return Collections.singletonList(result);
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        for (String shardId : shardDirectory.shardIds()) {
+            futures.add(executor.submit(() -> ShardContext.callOn(shardId, () -> readOnly.execute(tx -> query.get()))));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /** Concatenates every shard's rows. */
+    public <T> List<T> queryAll(Supplier<List<T>> query) {
+        List<T> rows = new ArrayList<>();
+        query(query).forEach(rows::addAll);
+        return rows;
+    }
+
+    /**
+     * Merges per-shard rows that are each sorted by the given order, keeping at most max rows,
+     * e.g. the first page of a cross-shard keyset listing when each shard returned its own first page.
+     */
+    public <T> List<T> queryMerged(Supplier<List<T>> query, Comparator<T> order, int max) {
+        List<T> rows = queryAll(query);
+        rows.sort(order);
+        return rows.size() > max ? new ArrayList<>(rows.subList(0, max)) : rows;
+    }
+
+    /** Sequential, writable: for maintenance that should not run on every shard at once. */
+    public void forEachShard(Consumer<String> action) {
+        for (String shardId : shardDirectory.shardIds()) {
+            if (shardDirectory.isSharded()) {
+                ShardContext.runOn(shardId, () -> action.accept(shardId));
+            } else {
+                action.accept(shardId);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.saas.platform.core.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tenant sharding (sharding.enabled=true). The application's DataSource becomes the "main" shard and is
+ * wrapped, together with one pool per entry under sharding.shards, in a {@link ShardRoutingDataSource}.
+ * JPA, JdbcTemplate and Flyway keep using the single "dataSource" bean and are routed transparently.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    public record ShardProperties(String url, String username, String password) {}
+
+    // Static: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor shardRoutingPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource main)) {
+                    return bean;
+                }
+                Map<String, ShardProperties> configured = Binder.get(environment)
+                        .bind("sharding.shards", Bindable.mapOf(String.class, ShardProperties.class))
+                        .orElse(Map.of());
+                String driver = environment.getProperty("spring.datasource.driver-class-name");
+
+                Map<String, DataSource> others = new LinkedHashMap<>();
+                configured.forEach((id, shard) -> {
+                    HikariDataSource pool = new HikariDataSource();
+                    pool.setPoolName("shard-" + id);
+                    pool.setJdbcUrl(shard.url());
+                    pool.setUsername(shard.username());
+                    pool.setPassword(shard.password());
+                    pool.setDriverClassName(driver);
+                    others.put(id, pool);
+                });
+
+                ShardRoutingDataSource routing = new ShardRoutingDataSource(main, others);
+                routing.afterPropertiesSet();
+                return new LazyConnectionDataSourceProxy(routing);
+            }
+        };
+    }
+
+    // Every shard carries the full schema
+    @Bean
+    public FlywayMigrationStrategy shardedMigrations(DataSource dataSource) {
+        return flyway -> {
+            flyway.migrate();
+            try {
+                ShardRoutingDataSource routing = dataSource.unwrap(ShardRoutingDataSource.class);
+                routing.shards().forEach((id, shard) -> {
+                    if (!ShardRoutingDataSource.MAIN.equals(id)) {
+                        Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+                    }
+                });
+            } catch (SQLException e) {
+                throw new IllegalStateException("Sharding enabled but the DataSource is not shard-routed", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,214 @@
+package com.saas.platform.modules.audit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold audit storage on local disk: one compressed {@link AuditSegment} per tenant per month,
+ * laid out as {dir}/{tenantId}/{yyyy-MM}.seg ("_system" for entries without a tenant).
+ * Segments are written once when a monthly partition leaves the hot window and are never modified.
+ */
+@Component
+public class AuditArchive {
+
+    private static final String SYSTEM_DIR = "_system";
+    private static final String SUFFIX = ".seg";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    // Newest first within each tenant, so rows can be appended to segments as they stream in.
+    // Walks idx_audit_tenant_time backwards instead of sorting the partition (ORDER BY on the table's
+    // binary columns, not the converted aliases).
+    private static final String EXPORT_SQL =
+            "SELECT BIN_TO_UUID(a.id) AS id, BIN_TO_UUID(a.tenant_id) AS tenant_id, BIN_TO_UUID(a.user_id) AS user_id, " +
+            "a.action, a.entity_type, a.entity_id, a.ip_address, a.details, a.timestamp, a.created_at " +
+            "FROM audit_logs PARTITION (%s) a ORDER BY a.tenant_id DESC, a.timestamp DESC, a.id DESC";
+
+    // Columns as selected by EXPORT_SQL (ids through BIN_TO_UUID); also used by the streaming export
+    static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> {
+        AuditLog row = new AuditLog();
+        row.setId(rs.getString("id"));
+        row.setTenantId(rs.getString("tenant_id"));
+        row.setUserId(rs.getString("user_id"));
+        row.setAction(rs.getString("action"));
+        row.setEntityType(rs.getString("entity_type"));
+        row.setEntityId(rs.getString("entity_id"));
+        row.setIpAddress(rs.getString("ip_address"));
+        row.setDetails(rs.getString("details"));
+        row.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        row.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        return row;
+    };
+
+    private final JdbcTemplate streamingJdbc;
+
+    @Value("${audit.archive.dir:./data/audit-archive}")
+    private Path root;
+
+    public AuditArchive(@Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbc) {
+        this.streamingJdbc = streamingJdbc;
+    }
+
+    /**
+     * Writes every row of the given monthly partition into per-tenant segments.
+     * Tenants whose retention no longer covers the month are skipped. Safe to repeat:
+     * an existing segment for the same tenant and month is replaced.
+     */
+    public int export(String partition, YearMonth month, Predicate<String> retainTenant) {
+        SegmentSink sink = new SegmentSink(month, retainTenant);
+        try {
+            streamingJdbc.query(String.format(EXPORT_SQL, partition), rs -> {
+                sink.accept(ROW_MAPPER.mapRow(rs, 0));
+            });
+            sink.finish();
+        } catch (RuntimeException e) {
+            sink.abandon();
+            throw e;
+        }
+        return sink.written;
+    }
+
+    /**
+     * Archived rows of one tenant with from <= timestamp < to, newest first, at most max rows.
+     */
+    public List<AuditLog> read(String tenantId, LocalDateTime from, LocalDateTime to,
+                               Predicate<AuditLog> filter, int max) {
+        List<AuditLog> rows = new ArrayList<>();
+        YearMonth first = from == null ? null : YearMonth.from(from);
+        YearMonth last = to == null ? null : YearMonth.from(to);
+
+        for (YearMonth month : months(tenantDir(tenantId))) {
+            if (rows.size() >= max) break;
+            if (last != null && month.isAfter(last)) continue;
+            if (first != null && month.isBefore(first)) break;
+            try {
+                rows.addAll(AuditSegment.read(segment(tenantId, month), tenantId, from, to, filter, max - rows.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Deletes segments older than each tenant's oldest retained month.
+     */
+    public int purge(Function<String, YearMonth> oldestRetainedMonth) {
+        int deleted = 0;
+        if (!Files.isDirectory(root)) return 0;
+        try (DirectoryStream<Path> tenants = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : tenants) {
+                String name = dir.getFileName().toString();
+                YearMonth cutoff = oldestRetainedMonth.apply(SYSTEM_DIR.equals(name) ? null : name);
+                for (YearMonth month : months(dir)) {
+                    if (month.isBefore(cutoff)) {
+                        Files.deleteIfExists(dir.resolve(MONTH.format(month) + SUFFIX));
+                        deleted++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return deleted;
+    }
+
+    // Months with a segment in the directory, newest first
+    private List<YearMonth> months(Path dir) {
+        if (!Files.isDirectory(dir)) return List.of();
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> YearMonth.parse(name.substring(0, name.length() - SUFFIX.length()), MONTH))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path tenantDir(String tenantId) {
+        return root.resolve(tenantId == null ? SYSTEM_DIR : tenantId);
+    }
+
+    private Path segment(String tenantId, YearMonth month) {
+        return tenantDir(tenantId).resolve(MONTH.format(month) + SUFFIX);
+    }
+
+    // Rows arrive grouped by tenant; one open writer at a time
+    private final class SegmentSink {
+
+        private final YearMonth month;
+        private final Predicate<String> retainTenant;
+        private AuditSegment.Writer writer;
+        private String currentTenant;
+        private boolean started;
+        private boolean retained;
+        private int written;
+
+        SegmentSink(YearMonth month, Predicate<String> retainTenant) {
+            this.month = month;
+            this.retainTenant = retainTenant;
+        }
+
+        void accept(AuditLog row) {
+            try {
+                if (!started || !Objects.equals(currentTenant, row.getTenantId())) {
+                    finish();
+                    started = true;
+                    currentTenant = row.getTenantId();
+                    retained = retainTenant.test(currentTenant);
+                    if (retained) {
+                        writer = AuditSegment.create(segment(currentTenant, month));
+                    }
+                }
+                if (retained) {
+                    writer.append(row);
+                    written++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            if (writer == null) return;
+            try (AuditSegment.Writer w = writer) {
+                writer = null;
+                w.commit();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void abandon() {
+            if (writer == null) return;
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // best effort, the temp file is replaced on the next attempt anyway
+            }
+            writer = null;
+        }
+    }
+}
@@ -1,28 +1,49 @@
 package com.saas.platform.modules.audit;
 
+import com.saas.platform.core.cache.ResponseCache;
 import com.saas.platform.core.common.ApiResponse;
 import com.saas.platform.core.middleware.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/audit-logs")
 @RequiredArgsConstructor
 public class AuditController {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditQueryService auditQueryService;
+    private final ResponseCache responseCache;
 
+    // Newest first, bounded pages: ?from=&to=&action=&limit=&cursor=; ETag / If-None-Match, see ResponseCache
     @GetMapping
-    public ApiResponse<?> getLogs() {
+    public ResponseEntity<?> getLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
         String tenantId = TenantContext.getCurrentTenant();
-        // Assuming findAllByTenantId exists or using a custom query if not.
-        // Since I can't see the Repo, I'll rely on standar JPA naming.
-        // If it fails, I'll fix it. AuditLogger uses 'save', so Repo extends JpaRepository.
-        List<AuditLog> logs = auditLogRepository.findAllByTenantIdOrderByTimestampDesc(tenantId);
-        return ApiResponse.success("Audit logs retrieved", logs);
+        return responseCache.respond(request, () -> ApiResponse.page("Audit logs retrieved",
+                auditQueryService.findLogs(tenantId, new AuditLogFilter(from, to, action, cursor, limit))));
+    }
+
+    // Streamed export of every matching hot row: ?from=&to=&action=&format=json|ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String format) {
+        return auditQueryService.streamLogs(TenantContext.getCurrentTenant(), from, to, action, format);
     }
 }
@@ -0,0 +1,9 @@
+package com.saas.platform.modules.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit entry captured on the request thread; the id is assigned by the background writer.
+ */
+public record AuditEvent(String tenantId, String action, String details, LocalDateTime timestamp) {
+}
@@ -0,0 +1,79 @@
+package com.saas.platform.modules.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer (multi-producer, single-consumer).
+ * Each slot carries a sequence number: producers claim a position with one CAS on the tail and
+ * publish by advancing the slot's sequence; the consumer only reads slots whose sequence says
+ * they have been published. Full buffers are reported to the caller instead of blocking.
+ */
+class AuditEventBuffer {
+
+    private final int mask;
+    private final AtomicReferenceArray<AuditEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AuditEventBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Returns false when the buffer is full. */
+    boolean offer(AuditEvent event) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, event);
+                    sequences.set(index, pos + 1); // publish
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // slot not yet consumed: full
+            } else {
+                pos = tail.get(); // another producer claimed it
+            }
+        }
+    }
+
+    /** Moves up to {@code max} published events into {@code sink}. Must only be called by one thread at a time. */
+    int drainTo(List<AuditEvent> sink, int max) {
+        long pos = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                break; // empty, or the next producer has claimed but not yet published
+            }
+            sink.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, pos + mask + 1); // free the slot for the next lap
+            pos++;
+            drained++;
+        }
+        head.set(pos);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.saas.platform.modules.audit;
 
+import com.saas.platform.core.common.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -9,12 +10,15 @@ import java.time.LocalDateTime;
 @Data
 public class AuditLog {
     @Id
+    @Convert(converter = UuidBinaryConverter.class)
     private String id;
 
     @Column(name = "tenant_id")
+    @Convert(converter = UuidBinaryConverter.class)
     private String tenantId;
 
     @Column(name = "user_id")
+    @Convert(converter = UuidBinaryConverter.class)
     private String userId;
 
     @Column(nullable = false)
@@ -34,7 +38,9 @@ public class AuditLog {
     
     @Column(columnDefinition = "TEXT")
     private String details;
-    
+
+    // Partitioning column (monthly ranges); part of the table's primary key together with id
+    @Column(nullable = false)
     private LocalDateTime timestamp;
     
 }
\ No newline at end of file
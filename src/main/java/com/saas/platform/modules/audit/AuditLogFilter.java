@@ -0,0 +1,16 @@
+package com.saas.platform.modules.audit;
+
+import com.saas.platform.core.common.Keyset;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters for GET /api/audit-logs: optional [from, to) time range and action,
+ * newest first, keyset-paginated on (timestamp, id).
+ */
+public record AuditLogFilter(LocalDateTime from, LocalDateTime to, String action, String cursor, Integer limit) {
+
+    public Keyset<AuditLog> keyset() {
+        return Keyset.of("timestamp", AuditLog::getTimestamp, AuditLog::getId, "desc");
+    }
+}
@@ -1,11 +1,12 @@
 package com.saas.platform.modules.audit;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, String> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, String>, JpaSpecificationExecutor<AuditLog> {
     List<AuditLog> findAllByTenantId(String tenantId);
     List<AuditLog> findAllByTenantIdOrderByTimestampDesc(String tenantId);
 }
\ No newline at end of file
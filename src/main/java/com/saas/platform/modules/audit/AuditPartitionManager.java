@@ -0,0 +1,167 @@
+package com.saas.platform.modules.audit;
+
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardDirectory;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps audit_logs partitioned by month (see V5__partition_audit_logs.sql):
+ *   - creates partitions ahead of time by splitting p_future
+ *   - exports partitions older than the hot window to the {@link AuditArchive}, then drops them
+ *   - purges archived months past each plan's retention
+ *
+ * Runs nightly on every instance, shard by shard, and on each shard only the instance holding the
+ * MySQL named lock does the work. That job is the only place the DDL runs; at startup an instance just
+ * reads the partition boundaries, so rolling restarts do not reorganize partitions under live traffic.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditPartitionManager {
+
+    private static final String LOCK_NAME = "audit_partition_maintenance";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchive auditArchive;
+    private final AuditRetentionPolicy retentionPolicy;
+    private final ShardDirectory shardDirectory;
+    private final ShardScatterGather shardScatterGather;
+
+    @Value("${audit.partitions.hot-months:3}")
+    private int hotMonths;
+
+    @Value("${audit.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    // Per shard, lower bound of the oldest partition still in MySQL: older rows can only be in the archive.
+    // Absent when the table is not partitioned.
+    private final Map<String, LocalDateTime> archivedBefore = new ConcurrentHashMap<>();
+
+    /** Boundary for the current tenant's shard. */
+    public LocalDateTime archivedBefore() {
+        return archivedBefore.get(shardDirectory.shardFor(TenantContext.getCurrentTenant()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        shardScatterGather.forEachShard(this::refreshBoundary);
+    }
+
+    @Scheduled(cron = "${audit.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        shardScatterGather.forEachShard(this::maintainShard);
+    }
+
+    private void maintainShard(String shardId) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                // DDL and the named lock must share one connection
+                JdbcTemplate locked = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+                Integer acquired = locked.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+                if (acquired == null || acquired != 1) {
+                    return null; // another instance is on it
+                }
+                try {
+                    rotate(locked);
+                } finally {
+                    locked.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Audit partition maintenance failed on shard " + shardId + ": " + e.getMessage());
+        }
+        refreshBoundary(shardId);
+    }
+
+    private void rotate(JdbcTemplate jdbc) {
+        List<String> names = jdbc.queryForList(PARTITIONS_SQL, String.class);
+        if (names.isEmpty()) {
+            return; // table not partitioned (V5 not applied), nothing to manage
+        }
+        List<YearMonth> months = monthlyPartitions(names);
+        YearMonth current = YearMonth.now();
+
+        // 1. Partitions up to monthsAhead into the future. The first run splits p_future from the oldest row.
+        YearMonth next;
+        if (months.isEmpty()) {
+            LocalDateTime oldest = jdbc.queryForObject("SELECT MIN(timestamp) FROM audit_logs", LocalDateTime.class);
+            next = oldest == null ? current : YearMonth.from(oldest);
+        } else {
+            next = months.get(months.size() - 1).plusMonths(1);
+        }
+        YearMonth until = current.plusMonths(monthsAhead);
+        if (!next.isAfter(until)) {
+            StringBuilder ddl = new StringBuilder("ALTER TABLE audit_logs REORGANIZE PARTITION p_future INTO (");
+            for (YearMonth month = next; !month.isAfter(until); month = month.plusMonths(1)) {
+                ddl.append("PARTITION ").append(PARTITION_NAME.format(month))
+                   .append(" VALUES LESS THAN (TO_DAYS('").append(month.plusMonths(1).atDay(1)).append("')), ");
+                months.add(month);
+            }
+            ddl.append("PARTITION p_future VALUES LESS THAN MAXVALUE)");
+            jdbc.execute(ddl.toString());
+        }
+
+        // 2. Rotate months past the hot window out to the archive, oldest first
+        YearMonth hotFrom = current.minusMonths(hotMonths);
+        for (YearMonth month : months) {
+            if (!month.isBefore(hotFrom)) break;
+            String partition = PARTITION_NAME.format(month);
+            int archived = auditArchive.export(partition, month, tenantId -> retentionPolicy.retains(tenantId, month));
+            // Only dropped once every segment is safely on disk
+            jdbc.execute("ALTER TABLE audit_logs DROP PARTITION " + partition);
+            System.out.println("Archived audit partition " + partition + " (" + archived + " rows)");
+        }
+
+        // 3. Retention on the archive
+        auditArchive.purge(retentionPolicy::oldestRetainedMonth);
+    }
+
+    private void refreshBoundary(String shardId) {
+        try {
+            List<YearMonth> months = monthlyPartitions(jdbcTemplate.queryForList(PARTITIONS_SQL, String.class));
+            if (months.isEmpty()) {
+                archivedBefore.remove(shardId);
+            } else {
+                archivedBefore.put(shardId, months.get(0).atDay(1).atStartOfDay());
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Could not read audit partitions: " + e.getMessage());
+        }
+    }
+
+    private static List<YearMonth> monthlyPartitions(List<String> names) {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            try {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            } catch (DateTimeParseException ignored) {
+                // p_future
+            }
+        }
+        return months;
+    }
+}
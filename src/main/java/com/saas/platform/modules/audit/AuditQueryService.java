@@ -0,0 +1,109 @@
+package com.saas.platform.modules.audit;
+
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.common.Keyset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AuditQueryService {
+
+    private static final String STREAM_SQL =
+            "SELECT BIN_TO_UUID(a.id) AS id, BIN_TO_UUID(a.tenant_id) AS tenant_id, BIN_TO_UUID(a.user_id) AS user_id, " +
+            "a.action, a.entity_type, a.entity_id, a.ip_address, a.details, a.timestamp, a.created_at " +
+            "FROM audit_logs a WHERE ";
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditArchive auditArchive;
+    private final AuditPartitionManager partitionManager;
+    private final AuditRetentionPolicy retentionPolicy;
+    private final JsonRowStreamer rowStreamer;
+
+    // One bounded range scan on idx_audit_tenant_time (tenant_id, timestamp, id) per page.
+    // Archived months are only read once the hot rows run out and the range reaches past them.
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLog> findLogs(String tenantId, AuditLogFilter filter) {
+        LocalDateTime from = retainedFrom(tenantId, filter.from());
+
+        List<Specification<AuditLog>> specs = new ArrayList<>();
+
+        // Tenant-less requests (super admin) see system-level entries, as before
+        specs.add((root, query, cb) -> tenantId == null
+                ? cb.isNull(root.get("tenantId"))
+                : cb.equal(root.get("tenantId"), tenantId));
+        specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), from));
+        if (filter.to() != null) {
+            specs.add((root, query, cb) -> cb.lessThan(root.get("timestamp"), filter.to()));
+        }
+        if (filter.action() != null) {
+            specs.add((root, query, cb) -> cb.equal(root.get("action"), filter.action()));
+        }
+
+        Keyset<AuditLog> keyset = filter.keyset();
+        int limit = Keyset.clampLimit(filter.limit());
+        Specification<AuditLog> after = keyset.after(filter.cursor());
+        if (after != null) {
+            specs.add(after);
+        }
+
+        List<AuditLog> rows = auditLogRepository.findBy(Specification.allOf(specs),
+                q -> q.sortBy(keyset.sort()).limit(limit + 1).all());
+
+        LocalDateTime archivedBefore = partitionManager.archivedBefore();
+        if (rows.size() <= limit && archivedBefore != null && from.isBefore(archivedBefore)) {
+            // Everything in the archive is older than every hot row, so it simply continues the page
+            LocalDateTime to = filter.to() == null || filter.to().isAfter(archivedBefore) ? archivedBefore : filter.to();
+            rows = new ArrayList<>(rows);
+            rows.addAll(auditArchive.read(tenantId, from, to,
+                    keyset.afterInMemory(filter.cursor())
+                            .and(row -> filter.action() == null || filter.action().equals(row.getAction())),
+                    limit + 1 - rows.size()));
+        }
+        return keyset.page(rows, limit);
+    }
+
+    /**
+     * All matching rows still in MySQL, newest first, written to the response as they are read
+     * (one range scan on idx_audit_tenant_time). Archived months are not included.
+     */
+    public ResponseEntity<StreamingResponseBody> streamLogs(String tenantId, LocalDateTime from, LocalDateTime to,
+                                                            String action, String format) {
+        StringBuilder sql = new StringBuilder(STREAM_SQL);
+        List<Object> args = new ArrayList<>();
+        if (tenantId == null) {
+            sql.append("a.tenant_id IS NULL");
+        } else {
+            sql.append("a.tenant_id = UUID_TO_BIN(?)");
+            args.add(tenantId);
+        }
+        sql.append(" AND a.timestamp >= ?");
+        args.add(retainedFrom(tenantId, from));
+        if (to != null) {
+            sql.append(" AND a.timestamp < ?");
+            args.add(to);
+        }
+        if (action != null) {
+            sql.append(" AND a.action = ?");
+            args.add(action);
+        }
+        sql.append(" ORDER BY a.tenant_id DESC, a.timestamp DESC, a.id DESC");
+        return rowStreamer.stream("Audit logs retrieved", format, false,
+                sql.toString(), AuditArchive.ROW_MAPPER, args.toArray());
+    }
+
+    // Nothing older than the plan's retention is returned, even if its partition has not been rotated yet
+    private LocalDateTime retainedFrom(String tenantId, LocalDateTime from) {
+        LocalDateTime retainedFrom = retentionPolicy.oldestRetainedMonth(tenantId).atDay(1).atStartOfDay();
+        return from == null || from.isBefore(retainedFrom) ? retainedFrom : from;
+    }
+}
@@ -0,0 +1,51 @@
+package com.saas.platform.modules.audit;
+
+import com.saas.platform.modules.tenant.TenantDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * How many months of audit history each subscription plan keeps. System entries (no tenant)
+ * and tenants no longer in the directory fall back to the free plan.
+ * Months still in a hot MySQL partition are only removed once that partition is rotated out.
+ * A plan whose retention is not longer than audit.partitions.hot-months (free, by default: 3 and 3) never
+ * reaches the archive: its rows are gone with the partition that held them, without being exported.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditRetentionPolicy {
+
+    private final TenantDirectory tenantDirectory;
+
+    @Value("${audit.retention.free-months:3}")
+    private int freeMonths;
+
+    @Value("${audit.retention.pro-months:12}")
+    private int proMonths;
+
+    @Value("${audit.retention.enterprise-months:84}")
+    private int enterpriseMonths;
+
+    public YearMonth oldestRetainedMonth(String tenantId) {
+        return YearMonth.now().minusMonths(retentionMonths(tenantId));
+    }
+
+    public boolean retains(String tenantId, YearMonth month) {
+        return !month.isBefore(oldestRetainedMonth(tenantId));
+    }
+
+    private int retentionMonths(String tenantId) {
+        String plan = tenantDirectory.findById(tenantId)
+                .map(TenantDirectory.Entry::subscriptionPlan)
+                .orElse("free");
+        if (plan.equalsIgnoreCase("pro")) {
+            return proMonths;
+        } else if (plan.equalsIgnoreCase("enterprise")) {
+            return enterpriseMonths;
+        }
+        return freeMonths;
+    }
+}
@@ -0,0 +1,285 @@
+package com.saas.platform.modules.audit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable archive file holding one tenant's audit rows for one month, newest first.
+ *
+ * Layout: [block]* [index] [footer]
+ *   block  - Deflate-compressed run of up to BLOCK_RECORDS records
+ *   index  - one entry per block: newest ts, oldest ts, offset, compressed size, raw size, record count
+ *   footer - index offset (long), block count (int), MAGIC (int)
+ *
+ * The sparse index lets a time-ranged read inflate only the blocks overlapping the range.
+ * Files are written sequentially to a temp file and moved into place when complete. Reads fetch the
+ * footer, the index and the overlapping blocks with positional reads, so archived history never passes
+ * through the InnoDB buffer pool. Nothing is memory-mapped: a mapping is only released when it is
+ * garbage collected, and until then a purged segment keeps its disk space.
+ */
+final class AuditSegment {
+
+    static final int BLOCK_RECORDS = 256;
+
+    private static final int MAGIC = 0x41554431; // "AUD1"
+    private static final int INDEX_ENTRY_BYTES = 8 + 8 + 8 + 4 + 4 + 4;
+    private static final int FOOTER_BYTES = 8 + 4 + 4;
+
+    private AuditSegment() {
+    }
+
+    static Writer create(Path target) throws IOException {
+        return new Writer(target);
+    }
+
+    /**
+     * Rows with from <= timestamp < to (either bound may be null) that pass the filter, newest first,
+     * stopping once max rows are collected.
+     */
+    static List<AuditLog> read(Path file, String tenantId, LocalDateTime from, LocalDateTime to,
+                               Predicate<AuditLog> filter, int max) throws IOException {
+        List<AuditLog> rows = new ArrayList<>();
+        Long fromSeconds = from == null ? null : toSeconds(from);
+        Long toSeconds = to == null ? null : toSeconds(to);
+
+        Inflater inflater = new Inflater();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_BYTES) {
+                throw new IOException("Not an audit segment: " + file);
+            }
+            ByteBuffer footer = readFully(channel, size - FOOTER_BYTES, FOOTER_BYTES);
+            if (footer.getInt(12) != MAGIC) {
+                throw new IOException("Not an audit segment: " + file);
+            }
+            long indexOffset = footer.getLong(0);
+            int blocks = footer.getInt(8);
+            ByteBuffer index = readFully(channel, indexOffset, blocks * INDEX_ENTRY_BYTES);
+
+            for (int b = 0; b < blocks && rows.size() < max; b++) {
+                int entry = b * INDEX_ENTRY_BYTES;
+                long newest = index.getLong(entry);
+                long oldest = index.getLong(entry + 8);
+
+                if (fromSeconds != null && newest < fromSeconds) {
+                    break; // blocks are newest first, everything after this is older still
+                }
+                if (toSeconds != null && oldest >= toSeconds) {
+                    continue;
+                }
+
+                long offset = index.getLong(entry + 16);
+                int compressed = index.getInt(entry + 24);
+                int raw = index.getInt(entry + 28);
+                int count = index.getInt(entry + 32);
+
+                byte[] block = inflate(inflater, readFully(channel, offset, compressed), raw);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+                for (int i = 0; i < count && rows.size() < max; i++) {
+                    AuditLog row = readRecord(in, tenantId);
+                    if (from != null && row.getTimestamp().isBefore(from)) break;
+                    if (to != null && !row.getTimestamp().isBefore(to)) continue;
+                    if (filter.test(row)) rows.add(row);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return rows;
+    }
+
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final DataOutputStream indexOut = new DataOutputStream(index);
+
+        private ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private DataOutputStream blockOut = new DataOutputStream(block);
+        private int blockCount;
+        private int blockRecords;
+        private long blockNewest;
+        private long blockOldest;
+        private long position;
+        private boolean committed;
+
+        private Writer(Path target) throws IOException {
+            this.target = target;
+            Files.createDirectories(target.getParent());
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /** Rows must arrive newest first (timestamp desc, id desc), the order the query API pages in. */
+        void append(AuditLog row) throws IOException {
+            long seconds = toSeconds(row.getTimestamp());
+            if (blockRecords == 0) {
+                blockNewest = seconds;
+            }
+            blockOldest = seconds;
+            writeRecord(blockOut, row);
+            if (++blockRecords == BLOCK_RECORDS) {
+                flushBlock();
+            }
+        }
+
+        /** Writes the index and footer and atomically publishes the file. */
+        void commit() throws IOException {
+            if (blockRecords > 0) {
+                flushBlock();
+            }
+            indexOut.flush();
+            ByteBuffer tail = ByteBuffer.allocate(index.size() + FOOTER_BYTES);
+            tail.put(index.toByteArray()).putLong(position).putInt(blockCount).putInt(MAGIC).flip();
+            while (tail.hasRemaining()) {
+                channel.write(tail);
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        private void flushBlock() throws IOException {
+            blockOut.flush();
+            byte[] raw = block.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+
+            ByteBuffer out = ByteBuffer.wrap(compressed.toByteArray());
+            int length = out.remaining();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+
+            indexOut.writeLong(blockNewest);
+            indexOut.writeLong(blockOldest);
+            indexOut.writeLong(position);
+            indexOut.writeInt(length);
+            indexOut.writeInt(raw.length);
+            indexOut.writeInt(blockRecords);
+
+            position += length;
+            blockCount++;
+            blockRecords = 0;
+            block = new ByteArrayOutputStream();
+            blockOut = new DataOutputStream(block);
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Truncated audit segment");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static byte[] inflate(Inflater inflater, ByteBuffer input, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(input);
+        byte[] out = new byte[rawLength];
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                n += inflater.inflate(out, n, rawLength - n);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt audit segment block", e);
+        }
+        return out;
+    }
+
+    private static void writeRecord(DataOutputStream out, AuditLog row) throws IOException {
+        writeString(out, row.getId());
+        out.writeLong(toSeconds(row.getTimestamp()));
+        out.writeInt(row.getTimestamp().getNano());
+        writeString(out, row.getAction());
+        writeString(out, row.getDetails());
+        writeString(out, row.getUserId());
+        writeString(out, row.getEntityType());
+        writeString(out, row.getEntityId());
+        writeString(out, row.getIpAddress());
+        out.writeLong(row.getCreatedAt() == null ? Long.MIN_VALUE : toSeconds(row.getCreatedAt()));
+    }
+
+    private static AuditLog readRecord(DataInputStream in, String tenantId) throws IOException {
+        AuditLog row = new AuditLog();
+        row.setTenantId(tenantId);
+        row.setId(readString(in));
+        row.setTimestamp(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+        row.setAction(readString(in));
+        row.setDetails(readString(in));
+        row.setUserId(readString(in));
+        row.setEntityType(readString(in));
+        row.setEntityId(readString(in));
+        row.setIpAddress(readString(in));
+        long createdAt = in.readLong();
+        row.setCreatedAt(createdAt == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(createdAt, 0, ZoneOffset.UTC));
+        return row;
+    }
+
+    // Stored as naive UTC seconds: the column is a DATETIME without zone, so no conversion is applied
+    private static long toSeconds(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
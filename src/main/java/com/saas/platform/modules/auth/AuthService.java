@@ -2,18 +2,21 @@ package com.saas.platform.modules.auth;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.common.Ids;
 import com.saas.platform.core.security.JwtService;
 import com.saas.platform.core.middleware.AuditLogger; // Now it will resolve
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardDirectory;
 import com.saas.platform.modules.auth.dto.LoginRequest;
 import com.saas.platform.modules.auth.dto.TentantRegisterRequest;
 import com.saas.platform.modules.tenant.Tenant;
+import com.saas.platform.modules.tenant.TenantDirectory;
 import com.saas.platform.modules.tenant.TenantRepository;
 import com.saas.platform.modules.user.User;
 import com.saas.platform.modules.user.UserRepository;
@@ -25,6 +28,8 @@ import lombok.RequiredArgsConstructor;
 public class AuthService {
 
     private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final ShardDirectory shardDirectory;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
@@ -32,29 +37,36 @@ public class AuthService {
 
     @Transactional
     public ApiResponse<?> registerTenant(TentantRegisterRequest request) {
-        if (tenantRepository.existsBySubdomain(request.getSubdomain())) {
+        // The unique index on tenants.subdomain still guards against a registration racing this check
+        if (tenantDirectory.containsSubdomain(request.getSubdomain())) {
             return ApiResponse.error("Subdomain already exists");
         }
 
         Tenant tenant = new Tenant();
-        tenant.setId(UUID.randomUUID().toString());
+        tenant.setId(Ids.next());
         tenant.setName(request.getTenantName());
         tenant.setSubdomain(request.getSubdomain());
         tenant.setSubscriptionPlan("free");
         tenant.setMaxUsers(5);
         tenant.setMaxProjects(3);
         tenant.setStatus("active");
-        tenantRepository.save(tenant);
-
-        User admin = new User();
-        admin.setId(UUID.randomUUID().toString());
-        admin.setTenantId(tenant.getId());
-        admin.setEmail(request.getAdminEmail());
-        admin.setPasswordHash(passwordEncoder.encode(request.getAdminPassword()));
-        admin.setFullName(request.getAdminFullName());
-        admin.setRole("tenant_admin");
-        admin.setIsActive(true); // Fixed by adding field to User.java
-        userRepository.save(admin);
+
+        // Placed first, so the tenant's rows are written straight to its shard
+        shardDirectory.assign(tenant.getId());
+        try (TenantContext.Scope ignored = TenantContext.bind(tenant.getId())) {
+            tenantRepository.save(tenant);
+            tenantDirectory.register(tenant);
+
+            User admin = new User();
+            admin.setId(Ids.next());
+            admin.setTenantId(tenant.getId());
+            admin.setEmail(request.getAdminEmail());
+            admin.setPasswordHash(passwordEncoder.encode(request.getAdminPassword()));
+            admin.setFullName(request.getAdminFullName());
+            admin.setRole("tenant_admin");
+            admin.setIsActive(true); // Fixed by adding field to User.java
+            userRepository.save(admin);
+        }
 
         auditLogger.log("TENANT_REGISTRATION", "Registered tenant: " + tenant.getName());
 
@@ -91,11 +103,14 @@ public class AuthService {
         }
 
         // 2. Standard Tenant-Scoped Login
-        Tenant tenant = tenantRepository.findBySubdomain(request.getTenantSubdomain())
+        TenantDirectory.Entry tenant = tenantDirectory.findBySubdomain(request.getTenantSubdomain())
                 .orElseThrow(() -> new com.saas.platform.core.exception.TenantNotFoundException("Tenant not found with subdomain: " + request.getTenantSubdomain()));
 
-        User user = userRepository.findByEmailAndTenantId(request.getEmail(), tenant.getId())
-                .orElseThrow(() -> new org.springframework.security.authentication.BadCredentialsException("Invalid credentials"));
+        User user;
+        try (TenantContext.Scope ignored = TenantContext.bind(tenant.id())) {
+            user = userRepository.findByEmailAndTenantId(request.getEmail(), tenant.id())
+                    .orElseThrow(() -> new org.springframework.security.authentication.BadCredentialsException("Invalid credentials"));
+        }
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
             throw new org.springframework.security.authentication.BadCredentialsException("Invalid credentials");
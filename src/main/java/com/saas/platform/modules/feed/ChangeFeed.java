@@ -0,0 +1,293 @@
+package com.saas.platform.modules.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.EntityChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant Server-Sent Events feed of committed project and task changes ({@link EntityChange}).
+ *
+ * A subscriber is an async {@link SseEmitter} plus a bounded queue: publishing serializes the change once,
+ * appends it to the tenant's replay window and offers it to every subscriber's queue without blocking.
+ * A subscriber whose queue is full is too slow and is closed; it reconnects and catches up from the window.
+ * Queues are drained by short-lived virtual threads, so an idle subscriber holds no thread at all, only
+ * its connection.
+ *
+ * Event ids are "&lt;instance epoch&gt;-&lt;sequence&gt;". A reconnect with Last-Event-ID gets the newer events
+ * of the window replayed; if the id comes from another instance, the window no longer reaches back
+ * that far or the replay would not fit the subscriber's queue, the subscriber gets a "reset" event instead
+ * and should reload its lists.
+ */
+@Component
+public class ChangeFeed {
+
+    static final String CHANGE = "change";
+    static final String RESET = "reset";
+
+    // id/name null: a comment line, used as heartbeat and to send the response headers right away
+    record Event(String id, long seq, String name, String data, long atMillis) {}
+
+    private static final Event HEARTBEAT = new Event(null, 0, null, null, 0);
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    // Publishing and subscribing lock the tenant feed, so a new subscriber sees every event exactly once:
+    // either in its replay or through its queue
+    private static final class TenantFeed {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final Event[] window;
+        int head;
+        int size;
+        long evictedUpTo;
+
+        TenantFeed(int capacity) {
+            this.window = new Event[capacity];
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, TenantFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService delivery = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("change-feed-", 0).factory());
+    private final Counter dropped;
+
+    private final int replaySize;
+    private final long replayMillis;
+    private final int bufferSize;
+    private final long timeoutMillis;
+
+    public ChangeFeed(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${feed.replay-size:512}") int replaySize,
+                      @Value("${feed.replay-ms:120000}") long replayMillis,
+                      @Value("${feed.subscriber-buffer:256}") int bufferSize,
+                      @Value("${feed.timeout-ms:1800000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.replayMillis = replayMillis;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        Gauge.builder("feed.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.dropped = Counter.builder("feed.dropped")
+                .description("Subscribers closed because they fell too far behind")
+                .register(meterRegistry);
+    }
+
+    /** Opens a stream for the tenant, replaying what came after lastEventId (the Last-Event-ID header). */
+    public SseEmitter subscribe(String tenantId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        TenantFeed feed = feed(tenantId);
+        emitter.onCompletion(() -> close(feed, subscriber));
+        emitter.onTimeout(() -> close(feed, subscriber));
+        emitter.onError(e -> close(feed, subscriber));
+
+        offer(subscriber, HEARTBEAT);
+        synchronized (feed) {
+            for (Event event : replay(feed, lastEventId)) {
+                offer(subscriber, event);
+            }
+            feed.subscribers.add(subscriber);
+        }
+        subscriberCount.incrementAndGet();
+        if (subscriber.closed) {
+            close(feed, subscriber); // completed before it was registered
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChange change) {
+        if (change.tenantId() == null) {
+            return;
+        }
+        String data;
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("type", change.kind().name().toLowerCase(Locale.ROOT));
+            body.put("action", change.action().name().toLowerCase(Locale.ROOT));
+            body.put("id", change.id());
+            body.put("projectId", change.projectId());
+            body.put("data", change.data());
+            data = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            System.err.println("Change feed could not serialize " + change.kind() + " " + change.id() + ": " + e.getMessage());
+            return;
+        }
+        publish(change.tenantId(), CHANGE, data);
+    }
+
+    void publish(String tenantId, String name, String data) {
+        TenantFeed feed = feed(tenantId);
+        synchronized (feed) {
+            long seq = sequence.incrementAndGet();
+            Event event = new Event(epoch + "-" + seq, seq, name, data, System.currentTimeMillis());
+            if (feed.size == feed.window.length) {
+                feed.evictedUpTo = feed.window[feed.head].seq();
+                feed.size--;
+                feed.head = (feed.head + 1) % feed.window.length;
+            }
+            feed.window[(feed.head + feed.size) % feed.window.length] = event;
+            feed.size++;
+            for (Subscriber subscriber : feed.subscribers) {
+                offer(subscriber, event);
+            }
+        }
+    }
+
+    // Keeps connections through proxies alive and notices clients that went away
+    @Scheduled(fixedDelayString = "${feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (TenantFeed feed : feeds.values()) {
+            for (Subscriber subscriber : feed.subscribers) {
+                if (subscriber.queued.get() == 0) {
+                    offer(subscriber, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    int subscribers() {
+        return subscriberCount.get();
+    }
+
+    List<Event> replay(String tenantId, String lastEventId) {
+        TenantFeed feed = feed(tenantId);
+        synchronized (feed) {
+            return replay(feed, lastEventId);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        feeds.values().forEach(feed -> feed.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        delivery.shutdown();
+    }
+
+    // Events after lastEventId still in the window; a single reset event when some may be missing, or when
+    // there are more than the subscriber's queue takes next to the opening heartbeat (it would be closed at once)
+    private List<Event> replay(TenantFeed feed, String lastEventId) {
+        List<Event> events = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return events;
+        }
+        long last = parseSeq(lastEventId);
+        long oldest = System.currentTimeMillis() - replayMillis;
+        boolean missing = last < 0 || last < feed.evictedUpTo;
+        for (int i = 0; i < feed.size && !missing; i++) {
+            Event event = feed.window[(feed.head + i) % feed.window.length];
+            if (event.seq() > last) {
+                if (event.atMillis() < oldest) {
+                    missing = true;
+                } else {
+                    events.add(event);
+                }
+            }
+        }
+        if (missing || events.size() >= bufferSize) {
+            long seq = sequence.get();
+            return List.of(new Event(epoch + "-" + seq, seq, RESET, "{}", System.currentTimeMillis()));
+        }
+        return events;
+    }
+
+    // -1 when the id was not issued by this instance
+    private long parseSeq(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (subscriber.queued.incrementAndGet() > bufferSize) {
+            // Too slow: cut it loose rather than buffer without bound; it resumes from the replay window
+            dropped.increment();
+            subscriber.closed = true;
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.queue.add(event);
+        if (subscriber.draining.compareAndSet(false, true)) {
+            delivery.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                Event event;
+                while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                    subscriber.queued.decrementAndGet();
+                    subscriber.emitter.send(event.name() == null
+                            ? SseEmitter.event().comment("")
+                            : SseEmitter.event().id(event.id()).name(event.name()).data(event.data()));
+                }
+                subscriber.draining.set(false);
+                // Re-check: an event queued after the last poll but before the flag was cleared
+            } while (!subscriber.closed && !subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or emitter already completed; the emitter callbacks unregister it
+            subscriber.closed = true;
+            subscriber.draining.set(false);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void close(TenantFeed feed, Subscriber subscriber) {
+        subscriber.closed = true;
+        if (feed.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private TenantFeed feed(String tenantId) {
+        return feeds.computeIfAbsent(tenantId, id -> new TenantFeed(replaySize));
+    }
+}
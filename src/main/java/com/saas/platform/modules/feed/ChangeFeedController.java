@@ -0,0 +1,29 @@
+package com.saas.platform.modules.feed;
+
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.middleware.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    // Server-Sent Events of the tenant's project/task changes; reconnects send Last-Event-ID to resume
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String tenantId = TenantContext.getCurrentTenant();
+        if (tenantId == null) {
+            throw new BadRequestException("The change feed is per organization");
+        }
+        return changeFeed.subscribe(tenantId, lastEventId);
+    }
+}
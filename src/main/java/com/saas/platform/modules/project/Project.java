@@ -1,5 +1,6 @@
 package com.saas.platform.modules.project;
 
+import com.saas.platform.core.common.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -11,9 +12,11 @@ import jakarta.validation.constraints.Size;
 @Data
 public class Project {
     @Id
+    @Convert(converter = UuidBinaryConverter.class)
     private String id; // UUID
 
     @Column(name = "tenant_id", nullable = false)
+    @Convert(converter = UuidBinaryConverter.class)
     private String tenantId;
 
     @NotBlank(message = "Project name is required")
@@ -28,6 +31,7 @@ public class Project {
     private String status; // active, archived, completed
 
     @Column(name = "created_by")
+    @Convert(converter = UuidBinaryConverter.class)
     private String createdBy; // User ID
 
     @Column(name = "created_at", updatable = false)
@@ -41,9 +45,11 @@ public class Project {
         updatedAt = LocalDateTime.now();
     }
 
-    @Transient
+    // Counters are only ever changed through ProjectRepository.adjustTaskCounts (same transaction as
+    // the task write), never by saving the entity, so a stale Project can't overwrite them.
+    @Column(name = "task_count", nullable = false, updatable = false)
     private long taskCount;
 
-    @Transient
+    @Column(name = "completed_task_count", nullable = false, updatable = false)
     private long completedTaskCount;
 }
\ No newline at end of file
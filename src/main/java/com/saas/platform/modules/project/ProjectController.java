@@ -1,5 +1,6 @@
 package com.saas.platform.modules.project;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -8,12 +9,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.saas.platform.core.cache.ResponseCache;
 import com.saas.platform.core.common.ApiResponse;
 
 import lombok.RequiredArgsConstructor;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -22,18 +27,34 @@ import jakarta.validation.Valid;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final ResponseCache responseCache;
 
     // API 12: Create Project
     @PostMapping
     public ApiResponse<?> create(@Valid @RequestBody Project project) {
-        String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-        return projectService.createProject(project, userId);
+        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        return projectService.createProject(project, userEmail);
     }
 
-    // API 13: List Projects
+    // API 13: List Projects (keyset-paginated, see ProjectFilter); ETag / If-None-Match, see ResponseCache
     @GetMapping
-    public ApiResponse<?> list() {
-        return ApiResponse.success("Projects fetched", projectService.listAllProjects());
+    public ResponseEntity<?> list(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        return responseCache.respond(request, () -> ApiResponse.page("Projects fetched",
+                projectService.listAllProjects(new ProjectFilter(status, sort, order, cursor, limit))));
+    }
+
+    // API 13b: Export Projects (streamed, unpaginated): ?status=&format=json|ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String format) {
+        return projectService.streamProjects(status, format);
     }
 
     // API: Get Single Project (Missing before)
@@ -0,0 +1,39 @@
+package com.saas.platform.modules.project;
+
+import com.saas.platform.core.sharding.ShardScatterGather;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Repairs drift between projects.task_count / completed_task_count and the tasks table
+ * (manual SQL, failed deployments, rows written by older versions).
+ * Detection is a non-locking read; only drifted projects are recounted, each in its own short transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectCounterReconciler {
+
+    private final ProjectRepository projectRepository;
+    private final ShardScatterGather shardScatterGather;
+
+    @Scheduled(fixedDelayString = "${projects.counters.reconcile-ms:3600000}",
+               initialDelayString = "${projects.counters.reconcile-ms:3600000}")
+    public void reconcile() {
+        shardScatterGather.forEachShard(this::reconcileShard);
+    }
+
+    private void reconcileShard(String shardId) {
+        List<String> drifted = projectRepository.findProjectIdsWithDriftedTaskCounts();
+        if (drifted.isEmpty()) {
+            return;
+        }
+
+        for (String projectId : drifted) {
+            projectRepository.recountTaskCounts(projectId);
+        }
+        System.out.println("Task counter reconciliation repaired " + drifted.size() + " project(s) on shard " + shardId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.saas.platform.modules.project;
+
+import com.saas.platform.core.common.Keyset;
+import com.saas.platform.core.exception.BadRequestException;
+
+/**
+ * Query parameters for GET /api/projects. sort: createdAt (default) or name; order: desc (default) or asc.
+ */
+public record ProjectFilter(String status, String sort, String order, String cursor, Integer limit) {
+
+    public Keyset<Project> keyset() {
+        String key = sort == null ? "createdAt" : sort;
+        return switch (key) {
+            case "createdAt" -> Keyset.of("createdAt", Project::getCreatedAt, Project::getId, order);
+            case "name" -> Keyset.of("name", Project::getName, Project::getId, order);
+            default -> throw new BadRequestException("Invalid sort '" + key + "', expected createdAt or name");
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.saas.platform.modules.project;
+
+import com.saas.platform.core.cache.TenantCache;
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.modules.task.Task;
+import com.saas.platform.modules.task.TaskFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache in front of the project and task reads the board UI repeats: single projects,
+ * project list pages and the task pages of a project. Three regions (projects, project-pages, task-pages),
+ * each a {@link TenantCache}, so hit rates show per region under /actuator/metrics/cache.gets.
+ *
+ * Invalidation follows the committed {@link EntityChange} events: a project write drops that project and
+ * the tenant's project pages, a task write drops the task pages of its project, and a task create,
+ * delete or status change also the project itself (its stored task counters move). Writes that bypass
+ * the services (counter reconciliation, snapshot imports, other instances) age out after expire-after-write.
+ */
+@Component
+public class ProjectReadCache {
+
+    public record TaskPageKey(String projectId, TaskFilter filter) {}
+
+    private final TenantCache<String, Project> projects;
+    private final TenantCache<ProjectFilter, CursorPage<Project>> projectPages;
+    private final TenantCache<TaskPageKey, CursorPage<Task>> taskPages;
+
+    public ProjectReadCache(MeterRegistry meterRegistry,
+                            @Value("${cache.projects.max-bytes:16777216}") long projectsMaxBytes,
+                            @Value("${cache.project-pages.max-bytes:33554432}") long projectPagesMaxBytes,
+                            @Value("${cache.task-pages.max-bytes:67108864}") long taskPagesMaxBytes,
+                            @Value("${cache.tenant-max-bytes:4194304}") long tenantMaxBytes,
+                            @Value("${cache.expire-after-access-ms:300000}") long expireAfterAccessMs,
+                            @Value("${cache.expire-after-write-ms:30000}") long expireAfterWriteMs) {
+        Duration access = Duration.ofMillis(expireAfterAccessMs);
+        Duration write = Duration.ofMillis(expireAfterWriteMs);
+        this.projects = new TenantCache<>("projects", projectsMaxBytes, tenantMaxBytes, access, write,
+                (id, project) -> weigh(project), meterRegistry);
+        this.projectPages = new TenantCache<>("project-pages", projectPagesMaxBytes, tenantMaxBytes, access, write,
+                (filter, page) -> 64 + page.items().stream().mapToInt(ProjectReadCache::weigh).sum(), meterRegistry);
+        this.taskPages = new TenantCache<>("task-pages", taskPagesMaxBytes, tenantMaxBytes, access, write,
+                (key, page) -> 64 + page.items().stream().mapToInt(ProjectReadCache::weigh).sum(), meterRegistry);
+    }
+
+    /** The project, loaded on a miss; a loader returning null (not found) is not cached. */
+    public Project project(String tenantId, String projectId, Supplier<Project> loader) {
+        return projects.get(tenantId, projectId, loader);
+    }
+
+    public CursorPage<Project> projectPage(String tenantId, ProjectFilter filter, Supplier<CursorPage<Project>> loader) {
+        return projectPages.get(tenantId, filter, loader);
+    }
+
+    public CursorPage<Task> taskPage(String tenantId, String projectId, TaskFilter filter,
+                                     Supplier<CursorPage<Task>> loader) {
+        return taskPages.get(tenantId, new TaskPageKey(projectId, filter), loader);
+    }
+
+    // Before TenantVersions moves the ETag on, so no response at the new version is built from a stale entry
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChange change) {
+        String tenantId = change.tenantId();
+        if (tenantId == null) {
+            return;
+        }
+
+        if (change.kind() == EntityChange.Kind.PROJECT) {
+            projectPages.invalidateTenant(tenantId);
+            projects.invalidate(tenantId, change.id());
+            if (change.action() == EntityChange.Action.DELETED) {
+                taskPages.invalidateIf(tenantId, key -> key.projectId().equals(change.id()));
+            }
+            return;
+        }
+
+        // The single-statement status update does not know the project
+        String projectId = change.projectId();
+        if (projectId == null) {
+            taskPages.invalidateTenant(tenantId);
+        } else {
+            taskPages.invalidateIf(tenantId, key -> key.projectId().equals(projectId));
+        }
+        // Edits and re-keyed columns leave the projects' task counts alone
+        if (change.action() != EntityChange.Action.UPDATED && change.action() != EntityChange.Action.REORDERED) {
+            projectPages.invalidateTenant(tenantId);
+            if (projectId == null) {
+                projects.invalidateTenant(tenantId);
+            } else {
+                projects.invalidate(tenantId, projectId);
+            }
+        }
+    }
+
+    // Rough heap footprint: object headers and fixed fields, plus two bytes per character of text
+    private static int weigh(Project project) {
+        return 256 + 2 * (length(project.getName()) + length(project.getDescription()));
+    }
+
+    private static int weigh(Task task) {
+        return 256 + 2 * (length(task.getTitle()) + length(task.getDescription()));
+    }
+
+    private static int length(String text) {
+        return Objects.requireNonNullElse(text, "").length();
+    }
+}
@@ -1,12 +1,18 @@
 package com.saas.platform.modules.project;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, String> {
+public interface ProjectRepository extends JpaRepository<Project, String>, JpaSpecificationExecutor<Project> {
     
     // Strict isolation for finding a single project
     Optional<Project> findByIdAndTenantId(String id, String tenantId);
@@ -14,9 +20,36 @@ public interface ProjectRepository extends JpaRepository<Project, String> {
     // List all projects for a specific tenant
     List<Project> findAllByTenantId(String tenantId);
 
+    // Bulk task validation: which of these ids are projects of the tenant (one IN query)
+    @Query("SELECT p.id FROM Project p WHERE p.tenantId = :tenantId AND p.id IN :ids")
+    List<String> findIdsByTenantIdAndIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<String> ids);
+
     // Count projects to enforce subscription limits
     long countByTenantId(String tenantId);
 
-    // Search by name within a tenant (Case-insensitive)
-    List<Project> findByNameContainingIgnoreCaseAndTenantId(String name, String tenantId);
+    // Maintained task counters: relative update so concurrent task writes never lose increments
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE projects SET task_count = task_count + :total, " +
+                   "completed_task_count = completed_task_count + :completed WHERE id = UUID_TO_BIN(:projectId)",
+           nativeQuery = true)
+    int adjustTaskCounts(@Param("projectId") String projectId, @Param("total") long total, @Param("completed") long completed);
+
+    // Reconciliation: consistent (non-locking) read of projects whose counters disagree with tasks
+    @Query(value = "SELECT BIN_TO_UUID(p.id) FROM projects p LEFT JOIN (" +
+                   "  SELECT project_id, COUNT(*) AS total, SUM(LOWER(status) = 'completed') AS completed" +
+                   "  FROM tasks GROUP BY project_id) c ON c.project_id = p.id " +
+                   "WHERE p.task_count <> COALESCE(c.total, 0) OR p.completed_task_count <> COALESCE(c.completed, 0)",
+           nativeQuery = true)
+    List<String> findProjectIdsWithDriftedTaskCounts();
+
+    // Reconciliation: recount a single project from its tasks
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE projects SET " +
+                   "task_count = (SELECT COUNT(*) FROM tasks WHERE project_id = UUID_TO_BIN(:projectId)), " +
+                   "completed_task_count = (SELECT COUNT(*) FROM tasks WHERE project_id = UUID_TO_BIN(:projectId) AND LOWER(status) = 'completed') " +
+                   "WHERE id = UUID_TO_BIN(:projectId)",
+           nativeQuery = true)
+    int recountTaskCounts(@Param("projectId") String projectId);
 }
\ No newline at end of file
@@ -1,93 +1,169 @@
 package com.saas.platform.modules.project;
 
 import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.common.Ids;
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.common.Keyset;
 import com.saas.platform.core.middleware.AuditLogger;
 import com.saas.platform.core.middleware.TenantContext;
-import com.saas.platform.modules.tenant.Tenant;
-import com.saas.platform.modules.tenant.TenantRepository;
-import com.saas.platform.modules.task.TaskRepository;
-import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import com.saas.platform.modules.tenant.QuotaLedger;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import com.saas.platform.modules.user.UserRepository;
 import com.saas.platform.core.security.SecurityUtils;
 import com.saas.platform.core.exception.ResourceNotFoundException;
 import com.saas.platform.core.exception.TenantNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ProjectService {
 
+    private static final String STREAM_SQL =
+            "SELECT BIN_TO_UUID(p.id) AS id, BIN_TO_UUID(p.tenant_id) AS tenant_id, p.name, p.description, p.status, " +
+            "BIN_TO_UUID(p.created_by) AS created_by, p.created_at, p.updated_at, p.task_count, p.completed_task_count " +
+            "FROM projects p WHERE 1 = 1";
+
+    private static final RowMapper<Project> ROW_MAPPER = (rs, rowNum) -> {
+        Project project = new Project();
+        project.setId(rs.getString("id"));
+        project.setTenantId(rs.getString("tenant_id"));
+        project.setName(rs.getString("name"));
+        project.setDescription(rs.getString("description"));
+        project.setStatus(rs.getString("status"));
+        project.setCreatedBy(rs.getString("created_by"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        project.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        project.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+        project.setTaskCount(rs.getLong("task_count"));
+        project.setCompletedTaskCount(rs.getLong("completed_task_count"));
+        return project;
+    };
+
     private final ProjectRepository projectRepository;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final UserRepository userRepository;
+    private final QuotaLedger quotaLedger;
     private final AuditLogger auditLogger;
-
-    private final TaskRepository taskRepository;
+    private final ShardScatterGather shardScatterGather;
+    private final JsonRowStreamer rowStreamer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectReadCache readCache;
 
     @Transactional
-    public ApiResponse<?> createProject(Project project, String userId) {
+    public ApiResponse<?> createProject(Project project, String userEmail) {
         String tenantId = TenantContext.getCurrentTenant();
         
         // 1. Fetch Tenant to check limits
-        Tenant tenant = tenantRepository.findById(tenantId)
+        TenantDirectory.Entry tenant = tenantDirectory.findById(tenantId)
                 .orElseThrow(() -> new TenantNotFoundException("Tenant not found"));
 
-        // 2. Enforce Subscription Limits
-        long currentProjectCount = projectRepository.countByTenantId(tenantId);
-        if (currentProjectCount >= tenant.getMaxProjects()) {
-            return ApiResponse.error("Project limit reached for your " + tenant.getSubscriptionPlan() + " plan.");
+        // 2. Enforce Subscription Limits (slot is given back if this transaction rolls back)
+        if (!quotaLedger.tryReserve(tenantId, QuotaLedger.Resource.PROJECTS, tenant.maxProjects())) {
+            return ApiResponse.error("Project limit reached for your " + tenant.subscriptionPlan() + " plan.");
         }
 
         // 3. Initialize Project
-        project.setId(UUID.randomUUID().toString());
+        project.setId(Ids.next());
         project.setTenantId(tenantId);
-        project.setCreatedBy(userId);
+        // created_by is BINARY(16): the caller's user id, not the email the JWT carries
+        project.setCreatedBy(userRepository.findIdsByEmailForTenant(userEmail, tenantId).stream().findFirst().orElse(null));
         if (project.getStatus() == null) project.setStatus("active");
 
+        // Initialize counts for new project (ignore anything sent by the client)
+        project.setTaskCount(0);
+        project.setCompletedTaskCount(0);
+
         Project savedProject = projectRepository.save(project);
-        
-        // Initialize counts for new project
-        savedProject.setTaskCount(0);
-        savedProject.setCompletedTaskCount(0);
 
         // 4. Audit Log
-        auditLogger.log("CREATE_PROJECT", "Project created: " + project.getName() + " by " + userId);
+        auditLogger.log("CREATE_PROJECT", "Project created: " + project.getName() + " by " + userEmail);
+        eventPublisher.publishEvent(EntityChange.project(EntityChange.Action.CREATED, tenantId, savedProject.getId(), savedProject));
 
         return ApiResponse.success("Project created successfully", savedProject);
     }
 
-    public List<Project> listAllProjects() {
-        // Super Admin: View ALL projects
+    // Task counts are stored on the project row, so a page is a single bounded query.
+    // Tenant pages go through the read cache; super admin pages span tenants and are always queried.
+    @Transactional(readOnly = true)
+    public CursorPage<Project> listAllProjects(ProjectFilter filter) {
         if (SecurityUtils.hasRole("ROLE_super_admin")) {
-             List<Project> allProjects = projectRepository.findAll();
-             allProjects.forEach(this::populateTaskCounts);
-             return allProjects;
+            return fetchProjects(filter, true);
+        }
+        return readCache.projectPage(TenantContext.getCurrentTenant(), filter, () -> fetchProjects(filter, false));
+    }
+
+    private CursorPage<Project> fetchProjects(ProjectFilter filter, boolean allTenants) {
+        List<Specification<Project>> specs = new ArrayList<>();
+
+        // Super Admin: View ALL projects; Regular User: View Tenant projects
+        if (!allTenants) {
+            String tenantId = TenantContext.getCurrentTenant();
+            specs.add((root, query, cb) -> cb.equal(root.get("tenantId"), tenantId));
+        }
+        if (filter.status() != null) {
+            specs.add((root, query, cb) -> cb.equal(root.get("status"), filter.status()));
+        }
+
+        Keyset<Project> keyset = filter.keyset();
+        int limit = Keyset.clampLimit(filter.limit());
+        Specification<Project> after = keyset.after(filter.cursor());
+        if (after != null) {
+            specs.add(after);
         }
 
-        // Regular User: View Tenant projects
-        List<Project> projects = projectRepository.findAllByTenantId(TenantContext.getCurrentTenant());
-        projects.forEach(this::populateTaskCounts);
-        return projects;
+        Specification<Project> spec = Specification.allOf(specs);
+        if (allTenants) {
+            // Every shard returns its own next page; the merged head is the global next page
+            List<Project> rows = shardScatterGather.queryMerged(
+                    () -> projectRepository.findBy(spec, q -> q.sortBy(keyset.sort()).limit(limit + 1).all()),
+                    keyset.comparator(), limit + 1);
+            return keyset.page(rows, limit);
+        }
+        List<Project> rows = projectRepository.findBy(spec, q -> q.sortBy(keyset.sort()).limit(limit + 1).all());
+        return keyset.page(rows, limit);
     }
 
-    private void populateTaskCounts(Project p) {
-        long total = taskRepository.countByProjectId(p.getId());
-        long completed = taskRepository.countByProjectIdAndStatusIgnoreCase(p.getId(), "completed");
-        p.setTaskCount(total);
-        p.setCompletedTaskCount(completed);
+    // Every matching project, streamed instead of collected into a list; super admins get each shard in turn
+    public ResponseEntity<StreamingResponseBody> streamProjects(String status, String format) {
+        boolean allTenants = SecurityUtils.hasRole("ROLE_super_admin");
+        StringBuilder sql = new StringBuilder(STREAM_SQL);
+        List<Object> args = new ArrayList<>();
+        if (!allTenants) {
+            sql.append(" AND p.tenant_id = UUID_TO_BIN(?)");
+            args.add(TenantContext.getCurrentTenant());
+        }
+        if (status != null) {
+            sql.append(" AND p.status = ?");
+            args.add(status);
+        }
+        sql.append(" ORDER BY p.tenant_id, p.created_at, p.id");
+        return rowStreamer.stream("Projects fetched", format, allTenants, sql.toString(), ROW_MAPPER, args.toArray());
     }
-    
+
+    @Transactional(readOnly = true)
     public ApiResponse<?> getProject(String id) {
         String tenantId = TenantContext.getCurrentTenant();
-        Project project = projectRepository.findByIdAndTenantId(id, tenantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
-        
-        project.setTaskCount(taskRepository.countByProjectId(id));
-        project.setCompletedTaskCount(taskRepository.countByProjectIdAndStatusIgnoreCase(id, "completed"));
-        
+        Project project = readCache.project(tenantId, id,
+                () -> projectRepository.findByIdAndTenantId(id, tenantId).orElse(null));
+        if (project == null) {
+            throw new ResourceNotFoundException("Project not found");
+        }
+
         return ApiResponse.success("Project retrieved", project);
     }
 
@@ -105,6 +181,7 @@ public class ProjectService {
         
         // FIXED: Changed from 5 arguments to 2 strings
         auditLogger.log("UPDATE_PROJECT", "Project ID " + id + " updated by user " + userId);
+        eventPublisher.publishEvent(EntityChange.project(EntityChange.Action.UPDATED, tenantId, id, updated));
         
         return ApiResponse.success("Project updated successfully", updated);
     }
@@ -116,9 +193,12 @@ public class ProjectService {
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
         
         projectRepository.delete(project);
+        quotaLedger.release(tenantId, QuotaLedger.Resource.PROJECTS);
         
         // FIXED: Changed from 5 arguments to 2 strings
         auditLogger.log("DELETE_PROJECT", "Project ID " + id + " deleted by user " + userId);
+        // Its tasks go with it (ON DELETE CASCADE); listeners drop them along with the project
+        eventPublisher.publishEvent(EntityChange.project(EntityChange.Action.DELETED, tenantId, id, null));
         
         return ApiResponse.success("Project deleted successfully", null);
     }
@@ -0,0 +1,53 @@
+package com.saas.platform.modules.search;
+
+import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.common.Keyset;
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.middleware.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndex searchIndex;
+
+    // Ranked ids of the tenant's matching projects and tasks: ?q=&type=project|task&limit=&cursor=
+    @GetMapping
+    public ApiResponse<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (q.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        return ApiResponse.page("Search results",
+                searchIndex.search(TenantContext.getCurrentTenant(), q, kind(type), offset(cursor), Keyset.clampLimit(limit)));
+    }
+
+    private static EntityChange.Kind kind(String type) {
+        if (type == null) return null;
+        return switch (type) {
+            case "project" -> EntityChange.Kind.PROJECT;
+            case "task" -> EntityChange.Kind.TASK;
+            default -> throw new BadRequestException("Invalid type: " + type);
+        };
+    }
+
+    // The cursor is the offset of the next page in the ranking
+    private static int offset(String cursor) {
+        if (cursor == null) return 0;
+        try {
+            return Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
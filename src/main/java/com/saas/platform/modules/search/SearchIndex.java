@@ -0,0 +1,154 @@
+package com.saas.platform.modules.search;
+
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import com.saas.platform.modules.project.Project;
+import com.saas.platform.modules.task.Task;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text search over project names/descriptions and task titles/descriptions, one {@link TenantIndex}
+ * per tenant. A search only ever looks at the index of the caller's tenant.
+ *
+ * Kept current from {@link EntityChange} events after commit, and rebuilt from a streaming scan of every
+ * shard at startup and periodically, which also picks up writes made by other instances or outside the
+ * services (snapshot imports, tenant moves). Changes arriving during a rebuild are replayed onto the new
+ * index before it replaces the old one.
+ */
+@Component
+public class SearchIndex {
+
+    private static final String PROJECTS_SQL =
+            "SELECT BIN_TO_UUID(id) AS id, BIN_TO_UUID(tenant_id) AS tenant_id, name, description FROM projects";
+    private static final String TASKS_SQL =
+            "SELECT BIN_TO_UUID(id) AS id, BIN_TO_UUID(tenant_id) AS tenant_id, BIN_TO_UUID(project_id) AS project_id, " +
+            "title, description FROM tasks";
+
+    public record Hit(String type, String id, int score) {}
+
+    private final JdbcTemplate streamingJdbc;
+    private final ShardScatterGather shardScatterGather;
+
+    // Changes apply under the read lock (concurrently, each TenantIndex locks itself); swapping in a rebuilt
+    // index takes the write lock so no change falls between the replay and the swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Map<String, TenantIndex> tenants = new ConcurrentHashMap<>();
+    // Non-null while a rebuild runs
+    private volatile Queue<EntityChange> changedDuringRebuild;
+
+    public SearchIndex(@Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbc, ShardScatterGather shardScatterGather) {
+        this.streamingJdbc = streamingJdbc;
+        this.shardScatterGather = shardScatterGather;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(EntityChange change) {
+        swapLock.readLock().lock();
+        try {
+            apply(tenants, change);
+            Queue<EntityChange> pending = changedDuringRebuild;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of matches in the tenant's projects and/or tasks (kind null), best first.
+     */
+    public CursorPage<Hit> search(String tenantId, String query, EntityChange.Kind kind, int offset, int limit) {
+        TenantIndex index = tenantId == null ? null : tenants.get(tenantId);
+        if (index == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+        TenantIndex.Result result = index.search(query, kind, offset, limit);
+        List<Hit> hits = result.hits().stream()
+                .map(hit -> new Hit(hit.kind().name().toLowerCase(), hit.id(), hit.score()))
+                .toList();
+        int next = offset + hits.size();
+        return new CursorPage<>(hits, next < result.total() ? String.valueOf(next) : null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.rebuild-ms:600000}",
+               initialDelayString = "${search.index.rebuild-ms:600000}")
+    public void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) return;
+            changedDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        long started = System.currentTimeMillis();
+        Map<String, TenantIndex> fresh = new ConcurrentHashMap<>();
+        try {
+            shardScatterGather.forEachShard(shardId -> {
+                streamingJdbc.query(PROJECTS_SQL, rs -> {
+                    index(fresh, rs.getString("tenant_id")).put(EntityChange.Kind.PROJECT, rs.getString("id"), null,
+                            rs.getString("name"), rs.getString("description"));
+                });
+                streamingJdbc.query(TASKS_SQL, rs -> {
+                    index(fresh, rs.getString("tenant_id")).put(EntityChange.Kind.TASK, rs.getString("id"),
+                            rs.getString("project_id"), rs.getString("title"), rs.getString("description"));
+                });
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Search index rebuild failed: " + e.getMessage());
+            changedDuringRebuild = null;
+            return;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(change -> apply(fresh, change));
+            changedDuringRebuild = null;
+            tenants = fresh;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        int documents = fresh.values().stream().mapToInt(TenantIndex::size).sum();
+        System.out.println("Search index rebuilt: " + documents + " documents of " + fresh.size() + " tenants in "
+                + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private static void apply(Map<String, TenantIndex> target, EntityChange change) {
+        if (change.tenantId() == null || change.action() == EntityChange.Action.STATUS_CHANGED
+                || change.action() == EntityChange.Action.REORDERED) {
+            return; // status and order changes do not touch the indexed text
+        }
+        TenantIndex index = index(target, change.tenantId());
+        if (change.action() == EntityChange.Action.DELETED) {
+            index.remove(change.kind(), change.id());
+        } else if (change.data() instanceof Project project) {
+            index.put(EntityChange.Kind.PROJECT, project.getId(), null, project.getName(), project.getDescription());
+        } else if (change.data() instanceof Task task) {
+            index.put(EntityChange.Kind.TASK, task.getId(), task.getProjectId(), task.getTitle(), task.getDescription());
+        }
+    }
+
+    private static TenantIndex index(Map<String, TenantIndex> target, String tenantId) {
+        return target.computeIfAbsent(tenantId, id -> new TenantIndex());
+    }
+}
@@ -0,0 +1,327 @@
+package com.saas.platform.modules.search;
+
+import com.saas.platform.core.common.EntityChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the projects and tasks of one tenant.
+ *
+ * Documents get dense int ids in insertion order. Every distinct word gets a term id with a postings
+ * list of doc ids, and every trigram of those words a postings list too, both as sorted int arrays.
+ * A query word of three or more characters is looked up by intersecting its trigram postings (substring
+ * match, like LIKE '%x%'), shorter ones by exact word. Candidates are then checked against the words of
+ * the document, which also gives the score: exact word in the name/title 4, in the description 2,
+ * substring in the name/title 2, in the description 1. All query words must match.
+ *
+ * Updates re-add the document under a new doc id and tombstone the old one; the postings are rebuilt
+ * from the live documents once tombstones outnumber them.
+ */
+final class TenantIndex {
+
+    private static final int MIN_GRAM_WORD = 3;
+    private static final int MAX_WORD = 64;
+    private static final int COMPACT_MIN_DELETED = 1024;
+
+    record Hit(EntityChange.Kind kind, String id, int score) {}
+
+    record Result(List<Hit> hits, int total) {}
+
+    // Growable sorted int array; doc ids only ever arrive in increasing order
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+            docs[size++] = doc;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    private final List<Postings> wordPostings = new ArrayList<>();
+    private final Map<String, Postings> gramPostings = new HashMap<>();
+
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private EntityChange.Kind[] docKind = new EntityChange.Kind[64];
+    private String[] docId = new String[64];
+    private String[] docProject = new String[64];
+    private int[][] docTitle = new int[64][];
+    private int[][] docBody = new int[64][];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+
+    /** Adds or replaces a project (projectId null) or task. */
+    void put(EntityChange.Kind kind, String id, String projectId, String title, String body) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(kind, id);
+            addLocked(kind, id, projectId, tokens(title), tokens(body));
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(EntityChange.Kind kind, String id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(kind, id);
+            if (kind == EntityChange.Kind.PROJECT) {
+                // The project's tasks are deleted with it
+                for (int doc = 0; doc < docCount; doc++) {
+                    if (!deleted.get(doc) && docKind[doc] == EntityChange.Kind.TASK && id.equals(docProject[doc])) {
+                        removeLocked(EntityChange.Kind.TASK, docId[doc]);
+                    }
+                }
+            }
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ranked by score, then newest first; kind null searches both. */
+    Result search(String query, EntityChange.Kind kind, int offset, int limit) {
+        List<String> terms = new ArrayList<>(tokens(query));
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            // Candidates from the most selective query word; every word is verified per document below
+            int[] candidates = null;
+            int candidateCount = Integer.MAX_VALUE;
+            for (String term : terms) {
+                Postings postings = candidatesFor(term);
+                if (postings == null) {
+                    return new Result(List.of(), 0);
+                }
+                if (postings.size < candidateCount) {
+                    candidates = Arrays.copyOf(postings.docs, postings.size);
+                    candidateCount = postings.size;
+                }
+            }
+
+            long[] scored = new long[candidateCount];
+            int matches = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int doc = candidates[i];
+                if (deleted.get(doc) || (kind != null && docKind[doc] != kind)) continue;
+                int score = score(doc, terms);
+                if (score > 0) {
+                    // score desc, then doc id desc, in one sortable long
+                    scored[matches++] = ((long) score << 32) | doc;
+                }
+            }
+            Arrays.sort(scored, 0, matches);
+
+            List<Hit> hits = new ArrayList<>();
+            for (int i = matches - 1 - offset; i >= 0 && hits.size() < limit; i--) {
+                int doc = (int) scored[i];
+                hits.add(new Hit(docKind[doc], docId[doc], (int) (scored[i] >>> 32)));
+            }
+            return new Result(hits, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower-cased words, split on anything that is not a letter or digit
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, Math.min(i, start + MAX_WORD)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Postings candidatesFor(String term) {
+        if (term.length() < MIN_GRAM_WORD) {
+            Integer wordId = wordIds.get(term);
+            return wordId == null ? null : wordPostings.get(wordId);
+        }
+        Postings result = null;
+        for (int i = 0; i + MIN_GRAM_WORD <= term.length(); i++) {
+            Postings postings = gramPostings.get(term.substring(i, i + MIN_GRAM_WORD));
+            if (postings == null) return null;
+            result = result == null ? postings : intersect(result, postings);
+            if (result.size == 0) return null;
+        }
+        return result;
+    }
+
+    private int score(int doc, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = Math.max(match(docTitle[doc], term, 4, 2), match(docBody[doc], term, 2, 1));
+            if (best == 0) return 0;
+            total += best;
+        }
+        return total;
+    }
+
+    private int match(int[] docWords, String term, int exact, int partial) {
+        int best = 0;
+        for (int wordId : docWords) {
+            String word = words.get(wordId);
+            if (word.equals(term)) return exact;
+            if (term.length() >= MIN_GRAM_WORD && word.contains(term)) best = partial;
+        }
+        return best;
+    }
+
+    private void addLocked(EntityChange.Kind kind, String id, String projectId, Set<String> title, Set<String> body) {
+        int doc = docCount++;
+        if (doc == docId.length) {
+            int capacity = doc * 2;
+            docKind = Arrays.copyOf(docKind, capacity);
+            docId = Arrays.copyOf(docId, capacity);
+            docProject = Arrays.copyOf(docProject, capacity);
+            docTitle = Arrays.copyOf(docTitle, capacity);
+            docBody = Arrays.copyOf(docBody, capacity);
+        }
+        docKind[doc] = kind;
+        docId[doc] = id;
+        docProject[doc] = projectId;
+        docTitle[doc] = indexWords(doc, title);
+        docBody[doc] = indexWords(doc, body);
+        docByKey.put(key(kind, id), doc);
+    }
+
+    private int[] indexWords(int doc, Set<String> tokens) {
+        int[] ids = new int[tokens.size()];
+        int n = 0;
+        for (String token : tokens) {
+            Integer wordId = wordIds.get(token);
+            if (wordId == null) {
+                wordId = words.size();
+                wordIds.put(token, wordId);
+                words.add(token);
+                wordPostings.add(new Postings());
+            }
+            wordPostings.get(wordId).add(doc);
+            for (int i = 0; i + MIN_GRAM_WORD <= token.length(); i++) {
+                gramPostings.computeIfAbsent(token.substring(i, i + MIN_GRAM_WORD), g -> new Postings()).add(doc);
+            }
+            ids[n++] = wordId;
+        }
+        return ids;
+    }
+
+    private void removeLocked(EntityChange.Kind kind, String id) {
+        Integer doc = docByKey.remove(key(kind, id));
+        if (doc != null) {
+            deleted.set(doc);
+            deletedCount++;
+        }
+    }
+
+    private void compactIfSparse() {
+        if (deletedCount >= COMPACT_MIN_DELETED && deletedCount > docCount - deletedCount) {
+            compactLocked();
+        }
+    }
+
+    // Re-adds the live documents in their current order; words nobody uses any more are dropped
+    private void compactLocked() {
+        int liveCount = docCount - deletedCount;
+        EntityChange.Kind[] kinds = new EntityChange.Kind[liveCount];
+        String[] ids = new String[liveCount];
+        String[] projects = new String[liveCount];
+        List<Set<String>> titles = new ArrayList<>(liveCount);
+        List<Set<String>> bodies = new ArrayList<>(liveCount);
+        int n = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) continue;
+            kinds[n] = docKind[doc];
+            ids[n] = docId[doc];
+            projects[n] = docProject[doc];
+            titles.add(wordsOf(docTitle[doc]));
+            bodies.add(wordsOf(docBody[doc]));
+            n++;
+        }
+
+        wordIds.clear();
+        words.clear();
+        wordPostings.clear();
+        gramPostings.clear();
+        docByKey.clear();
+        deleted.clear();
+        docCount = 0;
+        deletedCount = 0;
+        int capacity = Math.max(64, liveCount);
+        docKind = new EntityChange.Kind[capacity];
+        docId = new String[capacity];
+        docProject = new String[capacity];
+        docTitle = new int[capacity][];
+        docBody = new int[capacity][];
+        for (int i = 0; i < liveCount; i++) {
+            addLocked(kinds[i], ids[i], projects[i], titles.get(i), bodies.get(i));
+        }
+    }
+
+    private Set<String> wordsOf(int[] wordIdsOfDoc) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int wordId : wordIdsOfDoc) {
+            result.add(words.get(wordId));
+        }
+        return result;
+    }
+
+    private static Postings intersect(Postings a, Postings b) {
+        Postings out = new Postings();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.docs[i] < b.docs[j]) {
+                i++;
+            } else if (a.docs[i] > b.docs[j]) {
+                j++;
+            } else {
+                out.add(a.docs[i]);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    private static String key(EntityChange.Kind kind, String id) {
+        return kind == EntityChange.Kind.PROJECT ? "p:" + id : "t:" + id;
+    }
+}
@@ -0,0 +1,134 @@
+package com.saas.platform.modules.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fractional ordering keys for tasks: base-62 strings compared byte by byte (tasks.rank_key is ascii_bin),
+ * so between any two keys there is always another one and moving a task only rewrites its own key.
+ *
+ * No key ends in '0' (the lowest digit). That keeps a gap between a key and every longer key it is a prefix
+ * of: between "a" and "a0" there would be nothing.
+ */
+final class RankKeys {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private RankKeys() {
+    }
+
+    /**
+     * A key strictly between lower and upper; null lower means before everything, null upper after everything.
+     * Keys are read as base-62 fractions (0.d1d2...) and the result is their midpoint, taken with one digit more
+     * than the longer bound only when there is no room at that length. After the last key (no upper bound) the
+     * first digit that can go up is stepped instead, so that appending to a column grows keys only slowly.
+     */
+    static String between(String lower, String upper) {
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Rank keys out of order: " + lower + " >= " + upper);
+        }
+        if (lower != null && upper == null) {
+            return after(lower);
+        }
+        int length = Math.max(lower == null ? 0 : lower.length(), upper == null ? 0 : upper.length());
+        while (true) {
+            int[] low = digits(lower, length);
+            int[] high = upper == null ? null : digits(upper, length);
+
+            // low + high, right to left; a null upper is 1.0, i.e. a carry out of the first digit
+            int[] sum = new int[length];
+            int carry = high == null ? 1 : 0;
+            int spill = 0;
+            for (int i = length - 1; i >= 0; i--) {
+                int digit = low[i] + (high == null ? 0 : high[i]) + spill;
+                sum[i] = digit % BASE;
+                spill = digit / BASE;
+            }
+            carry += spill;
+
+            // Halved, left to right
+            int[] mid = new int[length];
+            int remainder = carry;
+            for (int i = 0; i < length; i++) {
+                int value = remainder * BASE + sum[i];
+                mid[i] = value / 2;
+                remainder = value % 2;
+            }
+            if (!Arrays.equals(mid, low)) {
+                return encode(mid);
+            }
+            length++; // adjacent at this length
+        }
+    }
+
+    private static String after(String lower) {
+        for (int i = 0; i < lower.length(); i++) {
+            int digit = digit(lower.charAt(i));
+            if (digit < BASE - 1) {
+                return lower.substring(0, i) + DIGITS.charAt(digit + 1);
+            }
+        }
+        return lower + DIGITS.charAt(BASE / 2);
+    }
+
+    /** Count keys of equal length, evenly spaced and ascending, leaving room for about six moves between neighbours. */
+    static List<String> spread(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(spread(i, count));
+        }
+        return keys;
+    }
+
+    /** The index-th (1-based) of {@link #spread(int) spread(count)}. */
+    static String spread(int index, int count) {
+        int width = 1;
+        long capacity = BASE;
+        while (capacity < (count + 1L) * 64) {
+            width++;
+            capacity *= BASE;
+        }
+        // Odd values end in an odd digit (the base is even), so never in '0'
+        return encode((capacity / (count + 1L) * index) | 1, width);
+    }
+
+    // Without trailing '0' digits, which do not change the fraction
+    private static String encode(int[] digits) {
+        int length = digits.length;
+        while (length > 0 && digits[length - 1] == 0) {
+            length--;
+        }
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append(DIGITS.charAt(digits[i]));
+        }
+        return key.toString();
+    }
+
+    private static int[] digits(String key, int length) {
+        int[] digits = new int[length];
+        for (int i = 0; key != null && i < key.length(); i++) {
+            digits[i] = digit(key.charAt(i));
+        }
+        return digits;
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid rank key character: " + c);
+        }
+        return digit;
+    }
+}
@@ -1,7 +1,9 @@
 package com.saas.platform.modules.task;
 
+import com.saas.platform.core.common.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import jakarta.validation.constraints.NotBlank;
@@ -9,17 +11,21 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "tasks", indexes = {
-    @Index(name = "idx_task_tenant_project", columnList = "tenant_id, project_id")
+    @Index(name = "idx_task_tenant_project_created", columnList = "tenant_id, project_id, created_at, id")
 })
 @Data
+@DynamicUpdate // UPDATEs carry only the changed columns
 public class Task {
     @Id
+    @Convert(converter = UuidBinaryConverter.class)
     private String id;
 
     @Column(name = "project_id", nullable = false)
+    @Convert(converter = UuidBinaryConverter.class)
     private String projectId;
 
     @Column(name = "tenant_id", nullable = false)
+    @Convert(converter = UuidBinaryConverter.class)
     private String tenantId;
 
     @NotBlank(message = "Task title is required")
@@ -34,17 +40,27 @@ public class Task {
     private String priority; // low, medium, high
 
     @Column(name = "assigned_to")
+    @Convert(converter = UuidBinaryConverter.class)
     private String assignedTo; // User UUID
 
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    // Position in its board column (fractional key, see RankKeys); assigned by the service, never by clients
+    @Column(name = "rank_key", length = 64)
+    private String rank;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Optimistic lock: bumped on every write (also by TaskRepository.updateStatus)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
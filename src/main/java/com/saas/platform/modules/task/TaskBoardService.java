@@ -0,0 +1,183 @@
+package com.saas.platform.modules.task;
+
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.Keyset;
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.exception.ResourceNotFoundException;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.modules.project.ProjectReadCache;
+import com.saas.platform.modules.project.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kanban board of a project: the task count and first tasks of each status bucket, plus a cursor per bucket
+ * to load the rest of it. Buckets are ordered by priority (high first), due date (undated last) and id, or
+ * with order=rank by the manual order of the tasks (see TaskRanks).
+ *
+ * The whole board is one statement over idx_task_board (idx_task_rank): a window over the index alone
+ * numbers and counts each bucket, and only the rows that make the cut are joined back to the table.
+ * A bucket's next page is a keyset range scan on the same index.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskBoardService {
+
+    public static final List<String> BUCKETS = List.of("todo", "in_progress", "completed");
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    /** Order of the tasks within a bucket: the sort key columns and the keyset condition over them. */
+    public enum Order {
+        PRIORITY("t.priority_rank, t.due_key, t.id", "(t.priority_rank, t.due_key, t.id) > (?, ?, UUID_TO_BIN(?))"),
+        RANK("t.rank_key, t.id", "(t.rank_key, t.id) > (?, UUID_TO_BIN(?))");
+
+        private final String boardSql;
+        private final String bucketSql;
+
+        Order(String orderBy, String after) {
+            this.boardSql =
+                    "WITH ranked AS (" +
+                    "  SELECT t.id, ROW_NUMBER() OVER (PARTITION BY t.status ORDER BY " + orderBy + ") AS bucket_row, " +
+                    "         COUNT(*) OVER (PARTITION BY t.status) AS bucket_count " +
+                    "  FROM tasks t WHERE t.tenant_id = UUID_TO_BIN(?) AND t.project_id = UUID_TO_BIN(?) " +
+                    "  AND t.status IN ('todo', 'in_progress', 'completed')" +
+                    ") " +
+                    "SELECT " + TaskService.COLUMNS + ", t.priority_rank, t.due_key, r.bucket_count " +
+                    "FROM ranked r JOIN tasks t ON t.id = r.id " +
+                    "WHERE r.bucket_row <= ? ORDER BY t.status, r.bucket_row";
+            this.bucketSql =
+                    "SELECT " + TaskService.COLUMNS + ", t.priority_rank, t.due_key, 0 AS bucket_count FROM tasks t " +
+                    "WHERE t.tenant_id = UUID_TO_BIN(?) AND t.project_id = UUID_TO_BIN(?) AND t.status = ? " +
+                    "AND " + after + " ORDER BY " + orderBy + " LIMIT ?";
+        }
+
+        static Order parse(String order) {
+            if (order == null || order.equalsIgnoreCase("priority")) {
+                return PRIORITY;
+            }
+            if (order.equalsIgnoreCase("rank")) {
+                return RANK;
+            }
+            throw new BadRequestException("Invalid order '" + order + "', expected priority or rank");
+        }
+    }
+
+    public record Bucket(String status, long count, List<Task> tasks, String nextCursor) {}
+
+    public record Board(String projectId, List<Bucket> buckets) {}
+
+    // A task with the sort keys the board query read for it
+    private record Row(Task task, int priorityRank, LocalDate dueKey, long bucketCount) {}
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            TaskService.ROW_MAPPER.mapRow(rs, rowNum),
+            rs.getInt("priority_rank"),
+            rs.getDate("due_key").toLocalDate(),
+            rs.getLong("bucket_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectRepository projectRepository;
+    private final ProjectReadCache readCache;
+
+    @Transactional(readOnly = true)
+    public Board getBoard(String projectId, String order, Integer limit) {
+        Order bucketOrder = Order.parse(order);
+        String tenantId = requireProject(projectId);
+        int perBucket = clampLimit(limit);
+
+        Map<String, List<Row>> rowsByStatus = new LinkedHashMap<>();
+        for (Row row : jdbcTemplate.query(bucketOrder.boardSql, ROW_MAPPER, tenantId, projectId, perBucket)) {
+            rowsByStatus.computeIfAbsent(row.task().getStatus(), status -> new ArrayList<>()).add(row);
+        }
+
+        List<Bucket> buckets = new ArrayList<>();
+        for (String status : BUCKETS) {
+            List<Row> rows = rowsByStatus.getOrDefault(status, List.of());
+            long count = rows.isEmpty() ? 0 : rows.get(0).bucketCount();
+            String next = count > rows.size() ? encode(status, bucketOrder, rows.get(rows.size() - 1)) : null;
+            buckets.add(new Bucket(status, count, rows.stream().map(Row::task).toList(), next));
+        }
+        return new Board(projectId, buckets);
+    }
+
+    /** The bucket's tasks after the cursor of a previous board or bucket page (which carries the order). */
+    @Transactional(readOnly = true)
+    public CursorPage<Task> getBucket(String projectId, String status, String cursor, Integer limit) {
+        if (!BUCKETS.contains(status)) {
+            throw new BadRequestException("Invalid status '" + status + "', expected one of " + BUCKETS);
+        }
+        if (cursor == null || cursor.isBlank()) {
+            throw new BadRequestException("cursor is required; the first tasks of each bucket come with the board");
+        }
+        String tenantId = requireProject(projectId);
+        int pageSize = clampLimit(limit);
+        String[] position = decode(cursor, status);
+        Order order = Order.valueOf(position[1]);
+
+        List<Object> args = new ArrayList<>(List.of(tenantId, projectId, status));
+        if (order == Order.PRIORITY) {
+            args.addAll(List.of(Integer.parseInt(position[2]), LocalDate.parse(position[3]), position[4]));
+        } else {
+            args.addAll(List.of(position[2], position[3]));
+        }
+        args.add(pageSize + 1);
+        List<Row> rows = jdbcTemplate.query(order.bucketSql, ROW_MAPPER, args.toArray());
+        List<Task> tasks = rows.stream().limit(pageSize).map(Row::task).toList();
+        String next = rows.size() > pageSize ? encode(status, order, rows.get(pageSize - 1)) : null;
+        return new CursorPage<>(tasks, next);
+    }
+
+    // Tenant of the caller, once the project is known to be theirs
+    private String requireProject(String projectId) {
+        String tenantId = TenantContext.getCurrentTenant();
+        if (readCache.project(tenantId, projectId,
+                () -> projectRepository.findByIdAndTenantId(projectId, tenantId).orElse(null)) == null) {
+            throw new ResourceNotFoundException("Project not found");
+        }
+        return tenantId;
+    }
+
+    private static int clampLimit(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Keyset.clampLimit(limit);
+    }
+
+    // Cursor layout (Base64url): status \n order \n sort keys (priority rank \n due key, or rank key) \n id
+    private static String encode(String status, Order order, Row last) {
+        String keys = order == Order.PRIORITY ? last.priorityRank() + "\n" + last.dueKey() : last.task().getRank();
+        String raw = status + "\n" + order.name() + "\n" + keys + "\n" + last.task().getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor, String status) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n");
+            if (parts.length < 2 || !parts[0].equals(status)) {
+                throw new BadRequestException("Cursor does not belong to the '" + status + "' bucket");
+            }
+            Order order = Order.valueOf(parts[1]);
+            if (parts.length != (order == Order.PRIORITY ? 5 : 4)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            if (order == Order.PRIORITY) {
+                Integer.parseInt(parts[2]);
+                LocalDate.parse(parts[3]);
+            }
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.saas.platform.modules.task;
 
+import com.saas.platform.core.cache.ResponseCache;
 import com.saas.platform.core.common.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBoardService taskBoardService;
+    private final ResponseCache responseCache;
 
     // API 16: Create Task
     @PostMapping("/projects/{projectId}/tasks")
@@ -20,16 +30,62 @@ public class TaskController {
         return taskService.createTask(projectId, task);
     }
 
-    // API 17: List Project Tasks
+    // API 16b: Bulk Create Tasks (each item carries its projectId; per-item results)
+    @PostMapping("/tasks/bulk")
+    public ApiResponse<?> createTasks(@RequestBody List<Task> tasks) {
+        return taskService.createTasks(tasks);
+    }
+
+    // API 17: List Project Tasks (keyset-paginated, see TaskFilter); ETag / If-None-Match, see ResponseCache
     @GetMapping("/projects/{projectId}/tasks")
-    public ApiResponse<?> getTasks(@PathVariable String projectId) {
-        return taskService.getTasksByProject(projectId);
+    public ResponseEntity<?> getTasks(
+            @PathVariable String projectId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        return responseCache.respond(request, () -> taskService.getTasksByProject(projectId,
+                new TaskFilter(status, priority, assignedTo, dueFrom, dueTo, sort, order, cursor, limit)));
+    }
+
+    // API 17b: Kanban Board - count and first ?limit= tasks of each status bucket, ?order=priority|rank;
+    // ETag / If-None-Match
+    @GetMapping("/projects/{projectId}/board")
+    public ResponseEntity<?> getBoard(
+            @PathVariable String projectId,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+        return responseCache.respond(request,
+                () -> ApiResponse.success("Board retrieved", taskBoardService.getBoard(projectId, order, limit)));
+    }
+
+    // API 17c: More tasks of one board bucket, from the bucket's nextCursor
+    @GetMapping("/projects/{projectId}/board/{status}")
+    public ApiResponse<?> getBoardBucket(
+            @PathVariable String projectId,
+            @PathVariable String status,
+            @RequestParam String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ApiResponse.page("Board tasks retrieved", taskBoardService.getBucket(projectId, status, cursor, limit));
     }
 
     // API 18: Update Task Status (PATCH)
     @PatchMapping("/tasks/{taskId}/status")
     public ApiResponse<?> updateStatus(@PathVariable String taskId, @RequestBody Task statusUpdate) {
-        return taskService.updateTaskStatus(taskId, statusUpdate.getStatus());
+        return taskService.updateTaskStatus(taskId, statusUpdate.getStatus(), statusUpdate.getVersion());
+    }
+
+    // API 18b: Bulk Update Task Status (items: { "id": ..., "status": ... })
+    @PatchMapping("/tasks/bulk/status")
+    public ApiResponse<?> updateStatuses(@RequestBody List<Task> statusUpdates) {
+        return taskService.updateTaskStatuses(statusUpdates);
     }
 
     // API 19: Update Task (PUT)
@@ -37,10 +93,36 @@ public class TaskController {
     public ApiResponse<?> updateTask(@PathVariable String taskId, @Valid @RequestBody Task task) {
         return taskService.updateTask(taskId, task);
     }
-    // API 20: List All Tasks
+
+    // API 19b: Move Task on the board ({ "status", "afterId", "beforeId", "version" }, all optional)
+    @PatchMapping("/tasks/{taskId}/move")
+    public ApiResponse<?> moveTask(@PathVariable String taskId, @RequestBody TaskMove move) {
+        return taskService.moveTask(taskId, move);
+    }
+
+    // API 20: List All Tasks (keyset-paginated, see TaskFilter)
     @GetMapping("/tasks")
-    public ApiResponse<?> getAllTasks() {
-        return taskService.getAllTasks();
+    public ApiResponse<?> getAllTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return taskService.getAllTasks(
+                new TaskFilter(status, priority, assignedTo, dueFrom, dueTo, sort, order, cursor, limit));
+    }
+
+    // API 20b: Export Tasks (streamed, unpaginated): ?projectId=&status=&format=json|ndjson
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) String projectId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String format) {
+        return taskService.streamTasks(projectId, status, format);
     }
 
     // API 11: Delete Task
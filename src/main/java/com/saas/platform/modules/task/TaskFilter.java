@@ -0,0 +1,26 @@
+package com.saas.platform.modules.task;
+
+import com.saas.platform.core.common.Keyset;
+import com.saas.platform.core.exception.BadRequestException;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters for task list endpoints. All filters are optional.
+ * sort: createdAt (default), dueDate or rank (board order within a project, use with order=asc);
+ * order: desc (default) or asc.
+ */
+public record TaskFilter(String status, String priority, String assignedTo,
+                         LocalDate dueFrom, LocalDate dueTo,
+                         String sort, String order, String cursor, Integer limit) {
+
+    public Keyset<Task> keyset() {
+        String key = sort == null ? "createdAt" : sort;
+        return switch (key) {
+            case "createdAt" -> Keyset.of("createdAt", Task::getCreatedAt, Task::getId, order);
+            case "dueDate" -> Keyset.of("dueDate", Task::getDueDate, Task::getId, order);
+            case "rank" -> Keyset.of("rank", Task::getRank, Task::getId, order);
+            default -> throw new BadRequestException("Invalid sort '" + key + "', expected createdAt, dueDate or rank");
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package com.saas.platform.modules.task;
+
+/**
+ * Body of PATCH /api/tasks/{id}/move: where the task goes on the board. All fields are optional.
+ * status: target column (default: the current one); afterId / beforeId: the tasks it lands between
+ * (one is enough, neither puts it at the top); version: optimistic lock, as for updates.
+ */
+public record TaskMove(String status, String afterId, String beforeId, Long version) {}
@@ -0,0 +1,238 @@
+package com.saas.platform.modules.task;
+
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rank keys of tasks within their board column (tenant, project, status), see {@link RankKeys}.
+ *
+ * New tasks go to the end of their column and a move takes a key between its new neighbours, read from
+ * idx_task_rank; either way only the task's own row is written. When there is no key left in between
+ * (equal keys, or keys still missing) the column is rebalanced first, inline, in the caller's transaction.
+ * Runs of moves into the same gap make keys longer; a background job re-spreads the columns whose keys
+ * grew past tasks.rank.max-length, each in its own short transaction.
+ *
+ * Concurrent creates in one column can take the same key; (rank_key, id) still orders them (by creation,
+ * ids are time-ordered) and the first move between them rebalances.
+ */
+@Component
+public class TaskRanks {
+
+    // Hard cap below the column width (64): longer keys are never written, the column is rebalanced instead
+    static final int MAX_KEY_LENGTH = 48;
+
+    private static final String COLUMN =
+            "tenant_id = UUID_TO_BIN(?) AND project_id = UUID_TO_BIN(?) AND status <=> ?";
+
+    private static final String LAST_SQL = "SELECT MAX(rank_key) FROM tasks WHERE " + COLUMN;
+
+    private static final String RANK_OF_SQL =
+            "SELECT rank_key FROM tasks WHERE id = UUID_TO_BIN(?) AND " + COLUMN;
+
+    private static final String FIRST_SQL =
+            "SELECT rank_key FROM tasks WHERE " + COLUMN + " AND id <> UUID_TO_BIN(?) ORDER BY rank_key, id LIMIT 1";
+
+    private static final String NEXT_SQL =
+            "SELECT rank_key FROM tasks WHERE " + COLUMN + " AND id <> UUID_TO_BIN(?) " +
+            "AND (rank_key, id) > (?, UUID_TO_BIN(?)) ORDER BY rank_key, id LIMIT 1";
+
+    private static final String PREVIOUS_SQL =
+            "SELECT rank_key FROM tasks WHERE " + COLUMN + " AND id <> UUID_TO_BIN(?) " +
+            "AND (rank_key, id) < (?, UUID_TO_BIN(?)) ORDER BY rank_key DESC, id DESC LIMIT 1";
+
+    // Current order, NULL keys first; the rows stay locked until the new keys are written
+    private static final String LOCK_COLUMN_SQL =
+            "SELECT BIN_TO_UUID(id) FROM tasks WHERE " + COLUMN + " AND (? IS NULL OR id <> UUID_TO_BIN(?)) " +
+            "ORDER BY rank_key, id FOR UPDATE";
+
+    // Not a user edit, so the version stays; updated_at moves so that a tenant move's delta copy
+    // (TenantShardMover, rows changed since the bulk copy) carries the new keys to the target shard
+    private static final String REKEY_SQL =
+            "UPDATE tasks SET rank_key = ?, updated_at = CURRENT_TIMESTAMP WHERE id = UUID_TO_BIN(?)";
+
+    private static final String COLUMNS_TO_COMPACT_SQL =
+            "SELECT DISTINCT BIN_TO_UUID(tenant_id) AS tenant_id, BIN_TO_UUID(project_id) AS project_id, status " +
+            "FROM tasks WHERE rank_key IS NULL OR LENGTH(rank_key) > ?";
+
+    private record Column(String tenantId, String projectId, String status) {}
+
+    // A neighbour's key; open when there is no neighbour on that side (key is then null too)
+    private record Bound(boolean open, String key) {
+
+        static final Bound OPEN = new Bound(true, null);
+
+        static Bound of(List<String> rows) {
+            return rows.isEmpty() ? OPEN : new Bound(false, rows.get(0));
+        }
+
+        boolean usable() {
+            return open || key != null;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardScatterGather shardScatterGather;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final int maxLength;
+
+    public TaskRanks(JdbcTemplate jdbcTemplate, ShardScatterGather shardScatterGather,
+                     ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                     @Value("${tasks.rank.max-length:12}") int maxLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardScatterGather = shardScatterGather;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.maxLength = maxLength;
+    }
+
+    /** Key for a new task at the end of its column. */
+    public String append(String tenantId, String projectId, String status) {
+        String last = jdbcTemplate.queryForObject(LAST_SQL, String.class, tenantId, projectId, status);
+        if (last != null && last.length() >= MAX_KEY_LENGTH) {
+            rebalance(tenantId, projectId, status, null);
+            last = jdbcTemplate.queryForObject(LAST_SQL, String.class, tenantId, projectId, status);
+        }
+        return RankKeys.between(last, null);
+    }
+
+    /**
+     * Keys for the tasks of one bulk create, at most capacity per column: the first task of a column looks up
+     * its end once, the rest get evenly spaced keys after it without another query.
+     */
+    public Appender appender(String tenantId, int capacity) {
+        return new Appender(tenantId, capacity);
+    }
+
+    public final class Appender {
+
+        private final String tenantId;
+        private final int capacity;
+        private final Map<String, String> prefixes = new HashMap<>();
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        private Appender(String tenantId, int capacity) {
+            this.tenantId = tenantId;
+            this.capacity = capacity;
+        }
+
+        public String next(String projectId, String status) {
+            String column = projectId + "\n" + status;
+            String prefix = prefixes.computeIfAbsent(column, c -> append(tenantId, projectId, status));
+            return prefix + RankKeys.spread(counts.merge(column, 1, Integer::sum), capacity);
+        }
+    }
+
+    /**
+     * Key that puts the task into the status column right after afterId and/or right before beforeId;
+     * with neither, at the top. The neighbours must be other tasks of that column.
+     */
+    public String place(Task task, String status, String afterId, String beforeId) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Bound lower;
+            Bound upper;
+            if (afterId != null) {
+                lower = rankOf(task, status, afterId, "afterId");
+                upper = beforeId != null ? rankOf(task, status, beforeId, "beforeId")
+                        : lower.key() == null ? lower : neighbour(NEXT_SQL, task, status, lower.key(), afterId);
+            } else if (beforeId != null) {
+                upper = rankOf(task, status, beforeId, "beforeId");
+                lower = upper.key() == null ? upper : neighbour(PREVIOUS_SQL, task, status, upper.key(), beforeId);
+            } else {
+                lower = Bound.OPEN;
+                upper = Bound.of(jdbcTemplate.queryForList(FIRST_SQL, String.class,
+                        task.getTenantId(), task.getProjectId(), status, task.getId()));
+            }
+
+            if (lower.usable() && upper.usable()
+                    && (lower.key() == null || upper.key() == null || lower.key().compareTo(upper.key()) < 0)) {
+                String key = RankKeys.between(lower.key(), upper.key());
+                if (key.length() <= MAX_KEY_LENGTH) {
+                    return key;
+                }
+            }
+            // No room (or keys missing): spread the column out and look again
+            if (attempt == 0) {
+                rebalance(task.getTenantId(), task.getProjectId(), status, task.getId());
+            }
+        }
+        // Rebalanced keys are distinct and spaced, so only neighbours given in the wrong order end up here
+        throw new BadRequestException("afterId must come before beforeId");
+    }
+
+    /**
+     * Gives every task of the column (except excludeId, which is about to get its own key) a fresh, evenly
+     * spaced key in the current order. Runs in the caller's transaction.
+     */
+    public int rebalance(String tenantId, String projectId, String status, String excludeId) {
+        List<String> ids = jdbcTemplate.queryForList(LOCK_COLUMN_SQL, String.class,
+                tenantId, projectId, status, excludeId, excludeId);
+        List<String> keys = RankKeys.spread(ids.size());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[] { keys.get(i), ids.get(i) });
+        }
+        jdbcTemplate.batchUpdate(REKEY_SQL, args);
+
+        // Order is unchanged, but cached pages, cursors and clients carry the old keys
+        Map<String, Object> data = new HashMap<>();
+        data.put("status", status);
+        data.put("tasks", ids.size());
+        eventPublisher.publishEvent(EntityChange.taskColumn(tenantId, projectId, data));
+        return ids.size();
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.rank.compact-ms:600000}",
+               initialDelayString = "${tasks.rank.compact-initial-ms:60000}")
+    public void compact() {
+        shardScatterGather.forEachShard(this::compactShard);
+    }
+
+    private void compactShard(String shardId) {
+        List<Column> columns = jdbcTemplate.query(COLUMNS_TO_COMPACT_SQL, (rs, rowNum) -> new Column(
+                rs.getString("tenant_id"), rs.getString("project_id"), rs.getString("status")), maxLength);
+        if (columns.isEmpty()) {
+            return;
+        }
+
+        long tasks = 0;
+        for (Column column : columns) {
+            Integer rekeyed = writeTransaction.execute(tx ->
+                    rebalance(column.tenantId(), column.projectId(), column.status(), null));
+            tasks += rekeyed == null ? 0 : rekeyed;
+        }
+        System.out.println("Task rank compaction rebalanced " + columns.size() + " column(s), " + tasks +
+                " task(s) on shard " + shardId);
+    }
+
+    // Key of a neighbour the client named; it has to be another task of the target column
+    private Bound rankOf(Task task, String status, String neighbourId, String param) {
+        if (neighbourId.equals(task.getId())) {
+            throw new BadRequestException(param + " cannot be the task itself");
+        }
+        List<String> rows = jdbcTemplate.queryForList(RANK_OF_SQL, String.class,
+                neighbourId, task.getTenantId(), task.getProjectId(), status);
+        if (rows.isEmpty()) {
+            throw new BadRequestException(param + " is not a task of this project with status '" + status + "'");
+        }
+        return new Bound(false, rows.get(0));
+    }
+
+    private Bound neighbour(String sql, Task task, String status, String key, String id) {
+        return Bound.of(jdbcTemplate.queryForList(sql, String.class,
+                task.getTenantId(), task.getProjectId(), status, task.getId(), key, id));
+    }
+}
@@ -1,17 +1,40 @@
 package com.saas.platform.modules.task;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, String> {
+public interface TaskRepository extends JpaRepository<Task, String>, JpaSpecificationExecutor<Task> {
     List<Task> findAllByProjectIdAndTenantId(String projectId, String tenantId);
     Optional<Task> findByIdAndTenantId(String id, String tenantId);
     List<Task> findByProjectId(String projectId);
     List<Task> findAllByTenantId(String tenantId);
+    List<Task> findAllByTenantIdAndIdIn(String tenantId, Collection<String> ids);
     
+    boolean existsByIdAndTenantId(String id, String tenantId);
+
+    // Status change and project completed counter in one statement, tenant-checked and optionally
+    // version-checked. The project row only joins when the task's completed state flips; the join condition
+    // reads the old status and each SET touches its own table only, so assignment order does not matter.
+    // Returns the rows matched: 0 when the task is missing or stale, 1 (task) or 2 (task + project) otherwise.
+    @Modifying
+    @Query(value = "UPDATE tasks t LEFT JOIN projects p ON p.id = t.project_id " +
+                   "AND (COALESCE(LOWER(t.status), '') = 'completed') <> :completed " +
+                   "SET t.status = :status, t.version = t.version + 1, t.updated_at = CURRENT_TIMESTAMP, " +
+                   "p.completed_task_count = p.completed_task_count + IF(:completed, 1, -1) " +
+                   "WHERE t.id = UUID_TO_BIN(:id) AND t.tenant_id = UUID_TO_BIN(:tenantId) " +
+                   "AND (:version IS NULL OR t.version = :version)",
+           nativeQuery = true)
+    int updateStatus(@Param("id") String id, @Param("tenantId") String tenantId, @Param("status") String status,
+                     @Param("version") Long version, @Param("completed") boolean completed);
+
     long countByProjectId(String projectId);
     long countByProjectIdAndStatusIgnoreCase(String projectId, String status);
 }
\ No newline at end of file
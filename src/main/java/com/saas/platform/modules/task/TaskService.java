@@ -1,29 +1,109 @@
 package com.saas.platform.modules.task;
 
 import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.common.Ids;
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.common.Keyset;
+import com.saas.platform.core.common.UuidBinaryConverter;
 import com.saas.platform.core.middleware.AuditLogger;
 import com.saas.platform.core.middleware.TenantContext;
 import com.saas.platform.modules.project.Project;
+import com.saas.platform.modules.project.ProjectReadCache;
 import com.saas.platform.modules.project.ProjectRepository;
 import com.saas.platform.modules.user.User; 
 import com.saas.platform.modules.user.UserRepository;
+import com.saas.platform.core.exception.BadRequestException;
 import com.saas.platform.core.exception.ResourceNotFoundException;
 import com.saas.platform.core.security.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    // Everything ROW_MAPPER reads, from tasks aliased t
+    static final String COLUMNS =
+            "BIN_TO_UUID(t.id) AS id, BIN_TO_UUID(t.project_id) AS project_id, BIN_TO_UUID(t.tenant_id) AS tenant_id, " +
+            "t.title, t.description, t.status, t.priority, BIN_TO_UUID(t.assigned_to) AS assigned_to, t.due_date, " +
+            "t.rank_key, t.created_at, t.updated_at, t.version";
+
+    private static final String STREAM_SQL = "SELECT " + COLUMNS + " FROM tasks t WHERE 1 = 1";
+
+    static final RowMapper<Task> ROW_MAPPER = (rs, rowNum) -> {
+        Task task = new Task();
+        task.setId(rs.getString("id"));
+        task.setProjectId(rs.getString("project_id"));
+        task.setTenantId(rs.getString("tenant_id"));
+        task.setTitle(rs.getString("title"));
+        task.setDescription(rs.getString("description"));
+        task.setStatus(rs.getString("status"));
+        task.setPriority(rs.getString("priority"));
+        task.setAssignedTo(rs.getString("assigned_to"));
+        Date dueDate = rs.getDate("due_date");
+        task.setDueDate(dueDate == null ? null : dueDate.toLocalDate());
+        task.setRank(rs.getString("rank_key"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        task.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        task.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+        task.setVersion(rs.getLong("version"));
+        return task;
+    };
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final AuditLogger auditLogger;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final JsonRowStreamer rowStreamer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectReadCache readCache;
+    private final TaskRanks taskRanks;
+
+    @Value("${tasks.bulk.max-items:5000}")
+    private int bulkMaxItems;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    /** Outcome of one item of a bulk request, by position in the request. */
+    public record BulkItemResult(int index, String id, boolean success, String error) {
+
+        static BulkItemResult ok(int index, String id) {
+            return new BulkItemResult(index, id, true, null);
+        }
+
+        static BulkItemResult rejected(int index, String id, String error) {
+            return new BulkItemResult(index, id, false, error);
+        }
+    }
 
     @Transactional
     public ApiResponse<?> createTask(String projectId, Task task) {
@@ -48,51 +128,178 @@ public class TaskService {
             }
         }
         
-        // 4. If valid, proceed to save
-        task.setId(UUID.randomUUID().toString());
+        // 4. If valid, proceed to save (null version: persisted as new, no merge SELECT)
+        task.setId(Ids.next());
+        task.setVersion(null);
         task.setProjectId(projectId);
         task.setTenantId(currentTenantId); // Enforce current tenant
+        task.setRank(taskRanks.append(currentTenantId, projectId, task.getStatus())); // end of its board column
         
         Task savedTask = taskRepository.save(task);
+        projectRepository.adjustTaskCounts(projectId, 1, isCompleted(task.getStatus()) ? 1 : 0);
         auditLogger.log("CREATE_TASK", "Task created: " + task.getTitle());
+        eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.CREATED, currentTenantId, savedTask.getId(), projectId, savedTask));
         
         return ApiResponse.success("Task created successfully", savedTask);
     }
 
-    // API 17: List Project Tasks with Isolation
-    public ApiResponse<?> getTasksByProject(String projectId) {
+    // Bulk create: every item is validated up front (bean validation, project and assignee ownership with one
+    // IN query each); valid items are inserted in one transaction through Hibernate JDBC batching, invalid ones
+    // are reported per item. Counters are adjusted once per project and the whole request is one audit entry.
+    @Transactional
+    public ApiResponse<?> createTasks(List<Task> tasks) {
+        checkBulkSize(tasks);
         String currentTenantId = TenantContext.getCurrentTenant();
-        
-        // Verify project existence and ownership
-        Project project = projectRepository.findById(projectId)
-                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
 
-        if (!project.getTenantId().equals(currentTenantId)) {
-             return ApiResponse.error("Unauthorized: Project belongs to another organization");
+        Set<String> projectIds = new HashSet<>(projectRepository.findIdsByTenantIdAndIdIn(currentTenantId,
+                distinct(tasks, Task::getProjectId)));
+        List<String> assignees = distinct(tasks, Task::getAssignedTo);
+        Set<String> userIds = assignees.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findIdsByTenantIdAndIdIn(currentTenantId, assignees));
+
+        List<BulkItemResult> results = new ArrayList<>(tasks.size());
+        Map<String, long[]> counterDeltas = new HashMap<>();
+        TaskRanks.Appender ranks = taskRanks.appender(currentTenantId, tasks.size());
+        int pending = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = violations(task);
+            if (error == null && !projectIds.contains(task.getProjectId())) {
+                error = "Project not found";
+            } else if (error == null && task.getAssignedTo() != null && !userIds.contains(task.getAssignedTo())) {
+                error = "Assigned user does not belong to your organization";
+            }
+            if (error != null) {
+                results.add(BulkItemResult.rejected(i, null, error));
+                continue;
+            }
+
+            task.setId(Ids.next());
+            task.setTenantId(currentTenantId);
+            task.setVersion(null);
+            task.setRank(ranks.next(task.getProjectId(), task.getStatus()));
+            // persist, not save: with an assigned id save() would merge and SELECT every row first
+            entityManager.persist(task);
+            long[] delta = counterDeltas.computeIfAbsent(task.getProjectId(), id -> new long[2]);
+            delta[0]++;
+            delta[1] += isCompleted(task.getStatus()) ? 1 : 0;
+            results.add(BulkItemResult.ok(i, task.getId()));
+            eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.CREATED, currentTenantId, task.getId(), task.getProjectId(), task));
+
+            // Keep the persistence context bounded: each flush is one batched multi-row INSERT
+            if (++pending == jdbcBatchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
         }
 
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return ApiResponse.success("Tasks retrieved", tasks);
+        counterDeltas.forEach((projectId, delta) -> projectRepository.adjustTaskCounts(projectId, delta[0], delta[1]));
+        int created = tasks.size() - countRejected(results);
+        if (created > 0) {
+            auditLogger.log("BULK_CREATE_TASKS", created + " tasks created in " + counterDeltas.size() + " project(s)");
+        }
+        return ApiResponse.success(created + " of " + tasks.size() + " tasks created", results);
+    }
+
+    // Bulk status change: items are { "id": ..., "status": ... }. The tenant's tasks are loaded with one
+    // IN query and the changed rows flushed as batched UPDATEs.
+    @Transactional
+    public ApiResponse<?> updateTaskStatuses(List<Task> changes) {
+        checkBulkSize(changes);
+        String currentTenantId = TenantContext.getCurrentTenant();
+
+        Map<String, Task> tasks = taskRepository.findAllByTenantIdAndIdIn(currentTenantId, distinct(changes, Task::getId))
+                .stream().collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<BulkItemResult> results = new ArrayList<>(changes.size());
+        Map<String, Long> completedDeltas = new HashMap<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Task change = changes.get(i);
+            Task task = change.getId() == null ? null : tasks.get(change.getId());
+            if (task == null) {
+                results.add(BulkItemResult.rejected(i, change.getId(), "Task not found"));
+                continue;
+            }
+            if (change.getStatus() == null || change.getStatus().isBlank()) {
+                results.add(BulkItemResult.rejected(i, change.getId(), "Status is required"));
+                continue;
+            }
+
+            boolean wasCompleted = isCompleted(task.getStatus());
+            task.setStatus(change.getStatus());
+            if (wasCompleted != isCompleted(change.getStatus())) {
+                completedDeltas.merge(task.getProjectId(), wasCompleted ? -1L : 1L, Long::sum);
+            }
+            results.add(BulkItemResult.ok(i, task.getId()));
+            eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.STATUS_CHANGED, currentTenantId, task.getId(), task.getProjectId(), task));
+        }
+
+        entityManager.flush(); // dirty tasks go out as one JDBC batch
+        completedDeltas.forEach((projectId, delta) -> {
+            if (delta != 0) {
+                projectRepository.adjustTaskCounts(projectId, 0, delta);
+            }
+        });
+        int updated = changes.size() - countRejected(results);
+        return ApiResponse.success(updated + " of " + changes.size() + " task statuses updated", results);
+    }
+
+    // API 17: List Project Tasks with Isolation
+    // Pages are cached per tenant; only pages that passed the ownership check are ever cached
+    @Transactional(readOnly = true)
+    public ApiResponse<?> getTasksByProject(String projectId, TaskFilter filter) {
+        String currentTenantId = TenantContext.getCurrentTenant();
+
+        CursorPage<Task> page = readCache.taskPage(currentTenantId, projectId, filter, () -> {
+            // Verify project existence and ownership
+            Project project = projectRepository.findById(projectId)
+                     .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
+
+            if (!project.getTenantId().equals(currentTenantId)) {
+                 return null;
+            }
+
+            List<Specification<Task>> specs = TaskSpecifications.matching(filter);
+            specs.add(TaskSpecifications.tenant(currentTenantId));
+            specs.add(TaskSpecifications.project(projectId));
+            return fetchPage(specs, filter);
+        });
+        if (page == null) {
+            return ApiResponse.error("Unauthorized: Project belongs to another organization");
+        }
+        return ApiResponse.page("Tasks retrieved", page);
     }
 
     // API 18: Update Task Status with Isolation
-    public ApiResponse<?> updateTaskStatus(String taskId, String status) {
+    // No read first: one UPDATE writes the status and, when the completed state flips, the project counter.
+    // expectedVersion, when sent, must match the stored version. The project is not known without a read,
+    // so the change event carries projectId null and listeners invalidate by tenant.
+    @Transactional
+    public ApiResponse<?> updateTaskStatus(String taskId, String status, Long expectedVersion) {
         String currentTenantId = TenantContext.getCurrentTenant();
-        
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
-        
-        if (!task.getTenantId().equals(currentTenantId)) {
-            return ApiResponse.error("Unauthorized: Task belongs to another organization");
+
+        if (taskRepository.updateStatus(taskId, currentTenantId, status, expectedVersion, isCompleted(status)) == 0) {
+            // Failure path only: tell a missing task from a stale version
+            if (!taskRepository.existsByIdAndTenantId(taskId, currentTenantId)) {
+                throw new ResourceNotFoundException("Task not found");
+            }
+            throw new OptimisticLockingFailureException("Task was changed by someone else, reload and retry");
         }
 
-        task.setStatus(status);
-        taskRepository.save(task);
-        
-        return ApiResponse.success("Status updated to " + status, task);
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", taskId);
+        data.put("status", status);
+        if (expectedVersion != null) {
+            data.put("version", expectedVersion + 1);
+        }
+        eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.STATUS_CHANGED, currentTenantId, taskId, null, data));
+        return ApiResponse.success("Status updated to " + status, data);
     }
 
     // API 19: Full Task Update with Isolation
+    // Managed entity + @DynamicUpdate: the flush writes only the columns that changed, guarded by the version
+    @Transactional
     public ApiResponse<?> updateTask(String taskId, Task updates) {
         String currentTenantId = TenantContext.getCurrentTenant();
         
@@ -102,6 +309,9 @@ public class TaskService {
         if (!existingTask.getTenantId().equals(currentTenantId)) {
             return ApiResponse.error("Unauthorized: Task belongs to another organization");
         }
+        if (updates.getVersion() != null && !updates.getVersion().equals(existingTask.getVersion())) {
+            throw new OptimisticLockingFailureException("Task was changed by someone else, reload and retry");
+        }
 
         if (updates.getTitle() != null) existingTask.setTitle(updates.getTitle());
         if (updates.getPriority() != null) existingTask.setPriority(updates.getPriority());
@@ -109,19 +319,90 @@ public class TaskService {
         
         taskRepository.save(existingTask);
         auditLogger.log("UPDATE_TASK", "Task ID " + taskId + " updated");
+        eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.UPDATED, currentTenantId, taskId, existingTask.getProjectId(), existingTask));
         
         return ApiResponse.success("Task updated successfully", existingTask);
     }
 
+    // API 19b: Move Task on the board (drag and drop): new position and optionally new status.
+    // The key comes from the neighbours' keys, so the write is the task's own row: one versioned UPDATE of
+    // rank_key (and status). A status change keeps the project's completed counter in step.
+    @Transactional
+    public ApiResponse<?> moveTask(String taskId, TaskMove move) {
+        String currentTenantId = TenantContext.getCurrentTenant();
+
+        Task task = taskRepository.findByIdAndTenantId(taskId, currentTenantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        if (move.version() != null && !move.version().equals(task.getVersion())) {
+            throw new OptimisticLockingFailureException("Task was changed by someone else, reload and retry");
+        }
+
+        String status = move.status() == null || move.status().isBlank() ? task.getStatus() : move.status();
+        String rank = taskRanks.place(task, status, move.afterId(), move.beforeId());
+        boolean statusChanged = !Objects.equals(status, task.getStatus());
+        boolean wasCompleted = isCompleted(task.getStatus());
+
+        task.setRank(rank);
+        task.setStatus(status);
+        taskRepository.saveAndFlush(task); // the response carries the new version for the next move
+        if (wasCompleted != isCompleted(status)) {
+            projectRepository.adjustTaskCounts(task.getProjectId(), 0, wasCompleted ? -1 : 1);
+        }
+        eventPublisher.publishEvent(EntityChange.task(statusChanged ? EntityChange.Action.STATUS_CHANGED
+                : EntityChange.Action.UPDATED, currentTenantId, taskId, task.getProjectId(), task));
+
+        return ApiResponse.success("Task moved", task);
+    }
+
     // API 20: List All Tasks (Global for Super Admin, Tenant-scoped for others)
-    public ApiResponse<?> getAllTasks() {
+    @Transactional(readOnly = true)
+    public ApiResponse<?> getAllTasks(TaskFilter filter) {
+        List<Specification<Task>> specs = TaskSpecifications.matching(filter);
+
         if (SecurityUtils.hasRole("ROLE_super_admin")) {
-            return ApiResponse.success("All system tasks retrieved", taskRepository.findAll());
+            return ApiResponse.page("All system tasks retrieved", fetchPage(specs, filter));
         }
 
-        String tenantId = TenantContext.getCurrentTenant();
-        List<Task> tasks = taskRepository.findAllByTenantId(tenantId);
-        return ApiResponse.success("Tenant tasks retrieved", tasks);
+        specs.add(TaskSpecifications.tenant(TenantContext.getCurrentTenant()));
+        return ApiResponse.page("Tenant tasks retrieved", fetchPage(specs, filter));
+    }
+
+    // One bounded, index-ordered query per page: fetch limit + 1 rows to know whether another page exists
+    private CursorPage<Task> fetchPage(List<Specification<Task>> specs, TaskFilter filter) {
+        Keyset<Task> keyset = filter.keyset();
+        int limit = Keyset.clampLimit(filter.limit());
+
+        Specification<Task> after = keyset.after(filter.cursor());
+        if (after != null) {
+            specs.add(after);
+        }
+
+        List<Task> rows = taskRepository.findBy(Specification.allOf(specs),
+                q -> q.sortBy(keyset.sort()).limit(limit + 1).all());
+        return keyset.page(rows, limit);
+    }
+
+    // API 20b: Export Tasks - every matching row, streamed instead of collected into a list.
+    // Ordered along idx_task_tenant_project_created; super admins get each shard in turn.
+    public ResponseEntity<StreamingResponseBody> streamTasks(String projectId, String status, String format) {
+        boolean allTenants = SecurityUtils.hasRole("ROLE_super_admin");
+        StringBuilder sql = new StringBuilder(STREAM_SQL);
+        List<Object> args = new ArrayList<>();
+        if (!allTenants) {
+            sql.append(" AND t.tenant_id = UUID_TO_BIN(?)");
+            args.add(TenantContext.getCurrentTenant());
+        }
+        if (projectId != null) {
+            sql.append(" AND t.project_id = UUID_TO_BIN(?)");
+            args.add(projectId);
+        }
+        if (status != null) {
+            sql.append(" AND t.status = ?");
+            args.add(status);
+        }
+        sql.append(" ORDER BY t.tenant_id, t.project_id, t.created_at, t.id");
+        return rowStreamer.stream(allTenants ? "All system tasks retrieved" : "Tenant tasks retrieved",
+                format, allTenants, sql.toString(), ROW_MAPPER, args.toArray());
     }
 
     // API 21: Delete Task with Isolation
@@ -137,8 +418,46 @@ public class TaskService {
         }
 
         taskRepository.delete(task);
+        projectRepository.adjustTaskCounts(task.getProjectId(), -1, isCompleted(task.getStatus()) ? -1 : 0);
         auditLogger.log("DELETE_TASK", "Task ID " + taskId + " deleted");
+        eventPublisher.publishEvent(EntityChange.task(EntityChange.Action.DELETED, currentTenantId, taskId, task.getProjectId(), null));
         
         return ApiResponse.success("Task deleted successfully", null);
     }
+
+    private void checkBulkSize(List<Task> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("At least one item is required");
+        }
+        if (items.size() > bulkMaxItems) {
+            throw new BadRequestException("At most " + bulkMaxItems + " items per request");
+        }
+    }
+
+    private String violations(Task task) {
+        if (task == null) {
+            return "Task is required";
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    // Ids for an IN lookup; values that are not UUIDs cannot match a row and would fail the whole query,
+    // so they are left out and the item is reported as not found
+    private static List<String> distinct(List<Task> tasks, Function<Task, String> attribute) {
+        return tasks.stream().filter(task -> task != null && UuidBinaryConverter.isUuid(attribute.apply(task)))
+                .map(attribute).distinct().toList();
+    }
+
+    private static int countRejected(List<BulkItemResult> results) {
+        return (int) results.stream().filter(result -> !result.success()).count();
+    }
+
+    // Mirrors the completed_task_count definition used by the reconciliation query
+    private static boolean isCompleted(String status) {
+        return "completed".equalsIgnoreCase(status);
+    }
 }
\ No newline at end of file
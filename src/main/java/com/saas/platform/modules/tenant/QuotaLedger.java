@@ -0,0 +1,144 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.modules.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory usage counters for plan limits (maxUsers / maxProjects), so a create checks its quota
+ * with one CAS instead of a COUNT query, and concurrent creates cannot both take the last slot.
+ *
+ * Each (tenant, resource) is one AtomicLong:
+ *   bits 63..32  committed  - rows known to exist
+ *   bits 31..16  reserving  - creates in flight (reserved, transaction not finished)
+ *   bits 15..0   releasing  - deletes in flight
+ * A reservation succeeds only while committed + reserving < limit, and settles when its transaction
+ * completes: commit turns it into a committed slot, rollback gives it back. Deletes only free their
+ * slot after commit.
+ *
+ * Counters are seeded lazily from the database and periodically recounted to absorb writes that
+ * bypass the ledger (tenant registration, seeding, other instances).
+ */
+@Component
+@RequiredArgsConstructor
+public class QuotaLedger {
+
+    public enum Resource { USERS, PROJECTS }
+
+    private static final long COMMITTED = 1L << 32;
+    private static final long RESERVING = 1L << 16;
+    private static final long RELEASING = 1L;
+
+    private record Key(String tenantId, Resource resource) {}
+
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final Map<Key, AtomicLong> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Takes a slot if the tenant is below its limit. Must be called inside the creating transaction,
+     * after any other validation that could still abort the create without rolling back.
+     */
+    public boolean tryReserve(String tenantId, Resource resource, int limit) {
+        AtomicLong slot = slot(tenantId, resource);
+        long current;
+        do {
+            current = slot.get();
+            if (committed(current) + reserving(current) >= limit) {
+                return false;
+            }
+        } while (!slot.compareAndSet(current, current + RESERVING));
+
+        onCompletion(committed -> slot.addAndGet(committed ? COMMITTED - RESERVING : -RESERVING));
+        return true;
+    }
+
+    /**
+     * Gives back a slot once the deleting transaction commits.
+     */
+    public void release(String tenantId, Resource resource) {
+        AtomicLong slot = slots.get(new Key(tenantId, resource));
+        if (slot == null) {
+            return; // not loaded yet: the next seed counts the table after this delete
+        }
+        slot.addAndGet(RELEASING);
+        onCompletion(committed -> slot.addAndGet(committed ? -COMMITTED - RELEASING : -RELEASING));
+    }
+
+    public long usage(String tenantId, Resource resource) {
+        return committed(slot(tenantId, resource).get());
+    }
+
+    @Scheduled(fixedDelayString = "${tenant.quota.reconcile-ms:300000}",
+               initialDelayString = "${tenant.quota.reconcile-ms:300000}")
+    public void reconcile() {
+        slots.forEach((key, slot) -> {
+            long before = slot.get();
+            if (reserving(before) != 0 || releasing(before) != 0) {
+                return; // creates or deletes in flight, the table may not match yet; next round
+            }
+            long counted = count(key);
+            // Fails if anything happened while counting, in which case we leave it for the next round
+            slot.compareAndSet(before, counted * COMMITTED);
+        });
+    }
+
+    private AtomicLong slot(String tenantId, Resource resource) {
+        Key key = new Key(tenantId, resource);
+        AtomicLong slot = slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        // Counted outside the map lock; if two threads race, both counts are equally valid
+        AtomicLong seeded = new AtomicLong(count(key) * COMMITTED);
+        AtomicLong existing = slots.putIfAbsent(key, seeded);
+        return existing != null ? existing : seeded;
+    }
+
+    private long count(Key key) {
+        // Bound so the count reaches the tenant's shard, also from the scheduler thread
+        try (TenantContext.Scope ignored = TenantContext.bind(key.tenantId())) {
+            return key.resource() == Resource.USERS
+                    ? userRepository.countByTenantId(key.tenantId())
+                    : projectRepository.countByTenantId(key.tenantId());
+        }
+    }
+
+    private interface Settlement {
+        void settle(boolean committed);
+    }
+
+    private static void onCompletion(Settlement settlement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settlement.settle(true); // no transaction: the write is already final
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settlement.settle(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static long committed(long value) {
+        return value >>> 32;
+    }
+
+    private static long reserving(long value) {
+        return (value >>> 16) & 0xFFFF;
+    }
+
+    private static long releasing(long value) {
+        return value & 0xFFFF;
+    }
+}
@@ -1,5 +1,6 @@
 package com.saas.platform.modules.tenant;
 
+import com.saas.platform.core.common.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Tenant {
     @Id
+    @Convert(converter = UuidBinaryConverter.class)
     private String id; // UUID
 
     @Column(nullable = false)
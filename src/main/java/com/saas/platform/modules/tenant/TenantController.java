@@ -6,6 +6,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.saas.platform.core.common.ApiResponse;
 import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardDirectory;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,6 +25,9 @@ import lombok.RequiredArgsConstructor;
 public class TenantController {
 
     private final TenantService tenantService;
+    private final ShardDirectory shardDirectory;
+    private final TenantShardMover tenantShardMover;
+    private final TenantSnapshotService tenantSnapshotService;
 
     // API 5: Get Tenant Details
     @GetMapping("/{id}")
@@ -32,7 +37,10 @@ public class TenantController {
         String currentTenantId = TenantContext.getCurrentTenant();
         String userRole = getRoleFromContext();
 
-        return tenantService.getTenantById(id, currentUserId, currentTenantId, userRole);
+        // Bound to the requested tenant so the lookup reaches its shard (also for super admins)
+        try (TenantContext.Scope ignored = TenantContext.bind(id)) {
+            return tenantService.getTenantById(id, currentUserId, currentTenantId, userRole);
+        }
     }
 
     // API 6: Update Tenant
@@ -45,7 +53,9 @@ public class TenantController {
         String currentTenantId = TenantContext.getCurrentTenant();
         String userRole = getRoleFromContext();
 
-        return tenantService.updateTenant(id, updates, userRole, currentTenantId);
+        try (TenantContext.Scope ignored = TenantContext.bind(id)) {
+            return tenantService.updateTenant(id, updates, userRole, currentTenantId);
+        }
     }
 
     // API 7: List All Tenants (Super Admin Only)
@@ -57,6 +67,39 @@ public class TenantController {
         return tenantService.getAllTenants(page, limit);
     }
 
+    // Shard placement of a tenant (Super Admin Only)
+    @GetMapping("/{id}/shard")
+    @PreAuthorize("hasRole('ROLE_super_admin')")
+    public ApiResponse<?> getShard(@PathVariable String id) {
+        ShardDirectory.Placement placement = shardDirectory.placement(id);
+        return ApiResponse.success("Tenant placement", Map.of(
+                "tenantId", id,
+                "shard", placement.shardId(),
+                "status", placement.status().name().toLowerCase()));
+    }
+
+    // Move a tenant to another shard online (Super Admin Only); runs in the background
+    @PostMapping("/{id}/shard")
+    @PreAuthorize("hasRole('ROLE_super_admin')")
+    public ApiResponse<?> moveShard(@PathVariable String id, @RequestParam String target) {
+        tenantShardMover.startMove(id, target);
+        return ApiResponse.success("Tenant move started", Map.of("tenantId", id, "target", target));
+    }
+
+    // Export the tenant's whole dataset into a binary snapshot file (Super Admin Only)
+    @PostMapping("/{id}/snapshot")
+    @PreAuthorize("hasRole('ROLE_super_admin')")
+    public ApiResponse<?> exportSnapshot(@PathVariable String id) {
+        return ApiResponse.success("Tenant snapshot exported", tenantSnapshotService.export(id));
+    }
+
+    // Import a snapshot file; importing the same file again resumes a failed import (Super Admin Only)
+    @PostMapping("/snapshots/import")
+    @PreAuthorize("hasRole('ROLE_super_admin')")
+    public ApiResponse<?> importSnapshot(@RequestParam String file) {
+        return ApiResponse.success("Tenant snapshot imported", tenantSnapshotService.importSnapshot(file));
+    }
+
     // Helper to extract role without [ROLE_] prefix for service logic
     private String getRoleFromContext() {
         return SecurityContextHolder.getContext().getAuthentication()
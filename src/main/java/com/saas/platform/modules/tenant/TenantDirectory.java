@@ -0,0 +1,144 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.sharding.ShardScatterGather;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory subdomain / id -> tenant lookup so request routing and login never query the tenants table.
+ * Loaded at startup, updated by the services that write tenants, and refreshed periodically
+ * to pick up changes made outside this instance.
+ */
+@Component
+public class TenantDirectory {
+
+    // generation: when the entry was registered or loaded, on this instance's refresh counter
+    public record Entry(String id, String subdomain, String status, String subscriptionPlan,
+                        int maxUsers, int maxProjects, long generation) {
+
+        static Entry of(Tenant tenant, long generation) {
+            return new Entry(tenant.getId(), tenant.getSubdomain(), tenant.getStatus(), tenant.getSubscriptionPlan(),
+                    tenant.getMaxUsers(), tenant.getMaxProjects(), generation);
+        }
+    }
+
+    private final TenantRepository tenantRepository;
+    private final ShardScatterGather shardScatterGather;
+    private final Map<String, Entry> bySubdomain = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    // Orders registrations against refreshes; the clock cannot, two of them can share a millisecond
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private volatile long lastRefreshMillis;
+
+    public TenantDirectory(TenantRepository tenantRepository, ShardScatterGather shardScatterGather,
+                           MeterRegistry meterRegistry) {
+        this.tenantRepository = tenantRepository;
+        this.shardScatterGather = shardScatterGather;
+        this.hits = Counter.builder("tenant.directory.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("tenant.directory.lookups").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("tenant.directory.size", byId, Map::size).register(meterRegistry);
+        Gauge.builder("tenant.directory.staleness", this, TenantDirectory::stalenessSeconds)
+                .baseUnit("seconds")
+                .description("Time since the directory was last reloaded from the database")
+                .register(meterRegistry);
+    }
+
+    public Optional<Entry> findBySubdomain(String subdomain) {
+        return record(subdomain == null ? null : bySubdomain.get(subdomain));
+    }
+
+    public Optional<Entry> findById(String tenantId) {
+        return record(tenantId == null ? null : byId.get(tenantId));
+    }
+
+    public boolean containsSubdomain(String subdomain) {
+        return findBySubdomain(subdomain).isPresent();
+    }
+
+    /**
+     * Publishes a created or updated tenant. Inside a transaction the entry only becomes
+     * visible after commit, so a rolled-back registration never resolves.
+     */
+    public void register(Tenant tenant) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(Entry.of(tenant, generation.incrementAndGet()));
+                }
+            });
+        } else {
+            put(Entry.of(tenant, generation.incrementAndGet()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${tenant.directory.refresh-ms:60000}",
+               initialDelayString = "${tenant.directory.refresh-ms:60000}")
+    public void refresh() {
+        long started = generation.incrementAndGet();
+        List<Tenant> tenants = shardScatterGather.queryAll(tenantRepository::findAll);
+
+        // Rows read by the reload never replace what was registered while it was running (a later generation)
+        Set<String> liveIds = new HashSet<>();
+        for (Tenant tenant : tenants) {
+            liveIds.add(tenant.getId());
+            put(Entry.of(tenant, started));
+        }
+
+        // Drop tenants deleted elsewhere, but keep anything registered while the reload was running
+        byId.values().removeIf(entry -> {
+            boolean gone = !liveIds.contains(entry.id()) && entry.generation() < started;
+            if (gone) {
+                bySubdomain.remove(entry.subdomain(), entry);
+            }
+            return gone;
+        });
+
+        lastRefreshMillis = System.currentTimeMillis();
+    }
+
+    // Synchronized so the generation check and both maps change together; lookups stay lock-free
+    private synchronized void put(Entry entry) {
+        Entry current = byId.get(entry.id());
+        if (current != null && current.generation() > entry.generation()) {
+            return;
+        }
+        Entry previous = byId.put(entry.id(), entry);
+        if (previous != null && !previous.subdomain().equals(entry.subdomain())) {
+            bySubdomain.remove(previous.subdomain(), previous);
+        }
+        bySubdomain.put(entry.subdomain(), entry);
+    }
+
+    private Optional<Entry> record(Entry entry) {
+        (entry != null ? hits : misses).increment();
+        return Optional.ofNullable(entry);
+    }
+
+    private double stalenessSeconds() {
+        return lastRefreshMillis == 0 ? -1 : (System.currentTimeMillis() - lastRefreshMillis) / 1000.0;
+    }
+}
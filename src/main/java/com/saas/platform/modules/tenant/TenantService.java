@@ -3,15 +3,19 @@ package com.saas.platform.modules.tenant;
 import com.saas.platform.core.common.ApiResponse;
 import com.saas.platform.core.exception.TenantNotFoundException;
 import com.saas.platform.core.middleware.AuditLogger;
-import com.saas.platform.modules.user.UserRepository;
-import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.core.sharding.ShardScatterGather;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,11 +23,13 @@ import java.util.Map;
 public class TenantService {
 
     private final TenantRepository tenantRepository;
-    private final UserRepository userRepository;
-    private final ProjectRepository projectRepository;
+    private final TenantDirectory tenantDirectory;
+    private final QuotaLedger quotaLedger;
     private final AuditLogger auditLogger;
+    private final ShardScatterGather shardScatterGather;
 
     // API 5: Get Tenant Details with Ownership Validation
+    @Transactional(readOnly = true)
     public ApiResponse<?> getTenantById(String id, String currentUserId, String currentUserTenantId, String userRole) {
         // Business Logic: Prevent users from seeing other tenants unless Super Admin
         if (!id.equals(currentUserTenantId) && !"super_admin".equals(userRole)) {
@@ -33,10 +39,10 @@ public class TenantService {
         Tenant tenant = tenantRepository.findById(id)
                 .orElseThrow(() -> new TenantNotFoundException("Tenant not found with ID: " + id));
 
-        // Requirement: Include statistics
+        // Requirement: Include statistics (served from the quota ledger, no COUNT queries)
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalUsers", userRepository.countByTenantId(id));
-        stats.put("totalProjects", projectRepository.countByTenantId(id));
+        stats.put("totalUsers", quotaLedger.usage(id, QuotaLedger.Resource.USERS));
+        stats.put("totalProjects", quotaLedger.usage(id, QuotaLedger.Resource.PROJECTS));
 
         Map<String, Object> data = new HashMap<>();
         data.put("tenant", tenant);
@@ -77,6 +83,7 @@ public class TenantService {
         }
 
         Tenant savedTenant = tenantRepository.save(tenant);
+        tenantDirectory.register(savedTenant);
         
         // Requirement 6: Audit log the update
         auditLogger.log("UPDATE_TENANT", "Tenant ID " + id + " updated by role: " + userRole);
@@ -85,9 +92,22 @@ public class TenantService {
     }
 
     // API 7: List All Tenants with Pagination (Super Admin Only)
+    // Tenants live on their own shards: each shard returns its first page * limit rows in a fixed order,
+    // and the requested page is cut from the merge.
+    @Transactional(readOnly = true)
     public ApiResponse<?> getAllTenants(int page, int limit) {
-        Pageable pageable = PageRequest.of(page - 1, limit);
-        return ApiResponse.success("Tenants fetched", tenantRepository.findAll(pageable));
+        Pageable pageable = PageRequest.of(page - 1, limit, Sort.by("createdAt", "id"));
+        Pageable head = PageRequest.of(0, page * limit, pageable.getSort());
+        Comparator<Tenant> order = Comparator.comparing(Tenant::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Tenant::getId);
+
+        List<Page<Tenant>> shardPages = shardScatterGather.query(() -> tenantRepository.findAll(head));
+        List<Tenant> merged = shardPages.stream().flatMap(p -> p.getContent().stream()).sorted(order).toList();
+        long total = shardPages.stream().mapToLong(Page::getTotalElements).sum();
+
+        int from = Math.min((int) pageable.getOffset(), merged.size());
+        List<Tenant> content = merged.subList(from, Math.min(from + limit, merged.size()));
+        return ApiResponse.success("Tenants fetched", new PageImpl<>(content, pageable, total));
     }
 
     private void updatePlanLimits(Tenant tenant, String plan) {
@@ -0,0 +1,301 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.sharding.ShardContext;
+import com.saas.platform.core.sharding.ShardDirectory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves a tenant to another shard while it keeps working:
+ *   1. MOVING  - bulk copy of every row to the target; reads and writes continue on the source
+ *   2. FROZEN  - writes are rejected (TenantInterceptor) and in-flight ones drained, then only rows
+ *                changed since the bulk copy started are copied again and rows deleted meanwhile removed
+ *   3. ACTIVE on the target - audit entries still buffered for the source are topped up, then the
+ *                tenant is deleted from the source
+ * Writes are only unavailable for the short final copy. Copies are upserts, so a failed move can simply be retried.
+ * Every read and delete is done in keyset batches of {@link #BATCH_SIZE}, so memory and the size of each
+ * statement stay the same however large the tenant is.
+ */
+@Component
+public class TenantShardMover {
+
+    // FK order: parents first. Key columns are the keyset order of the bulk copy.
+    record Table(String name, String tenantColumn, List<String> keyColumns, String changedColumn) {}
+
+    static final List<Table> TABLES = List.of(
+            new Table("tenants", "id", List.of("id"), "updated_at"),
+            new Table("users", "tenant_id", List.of("id"), "updated_at"),
+            new Table("projects", "tenant_id", List.of("id"), "updated_at"),
+            new Table("tasks", "tenant_id", List.of("id"), "updated_at"),
+            new Table("audit_logs", "tenant_id", List.of("timestamp", "id"), "timestamp"));
+
+    private static final int BATCH_SIZE = 500;
+    // Margin for rows whose updated_at was taken slightly before the copy started
+    private static final long CLOCK_SKEW_MS = 5000;
+    private static final long DRAIN_TIMEOUT_MS = 30000;
+
+    // Generated columns (tasks.priority_rank, tasks.due_key) are computed by MySQL and cannot be written
+    private static final String COLUMNS_SQL =
+            "SELECT COLUMN_NAME FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+            "AND EXTRA NOT LIKE '%GENERATED%' ORDER BY ORDINAL_POSITION";
+
+    private final ShardDirectory shardDirectory;
+    private final TenantDirectory tenantDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final AsyncTaskExecutor executor;
+    private final Set<String> moving = ConcurrentHashMap.newKeySet();
+
+    public TenantShardMover(ShardDirectory shardDirectory, TenantDirectory tenantDirectory, JdbcTemplate jdbcTemplate,
+                            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor) {
+        this.shardDirectory = shardDirectory;
+        this.tenantDirectory = tenantDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = applicationTaskExecutor;
+    }
+
+    /**
+     * Validates the request and runs the move in the background.
+     */
+    public void startMove(String tenantId, String targetShard) {
+        if (!shardDirectory.isSharded()) {
+            throw new BadRequestException("Sharding is not enabled");
+        }
+        if (!shardDirectory.shardIds().contains(targetShard)) {
+            throw new BadRequestException("Unknown shard: " + targetShard);
+        }
+        if (tenantDirectory.findById(tenantId).isEmpty()) {
+            throw new BadRequestException("Unknown tenant: " + tenantId);
+        }
+        String sourceShard = shardDirectory.shardFor(tenantId);
+        if (sourceShard.equals(targetShard)) {
+            throw new BadRequestException("Tenant is already on shard " + targetShard);
+        }
+        if (!moving.add(tenantId)) {
+            throw new BadRequestException("Tenant is already being moved");
+        }
+        executor.execute(() -> {
+            try {
+                move(tenantId, sourceShard, targetShard);
+            } finally {
+                moving.remove(tenantId);
+            }
+        });
+    }
+
+    private void move(String tenantId, String source, String target) {
+        long started = System.currentTimeMillis();
+        Timestamp frozenSince;
+        try {
+            shardDirectory.update(tenantId, source, ShardDirectory.Status.MOVING);
+            Timestamp since = now(source);
+
+            Map<String, List<String>> columns = new HashMap<>();
+            for (Table table : TABLES) {
+                columns.put(table.name(), columns(table, source));
+            }
+
+            int copied = 0;
+            for (Table table : TABLES) {
+                copied += copy(table, columns.get(table.name()), tenantId, null, source, target);
+            }
+
+            frozenSince = now(source);
+            shardDirectory.update(tenantId, source, ShardDirectory.Status.FROZEN);
+            // Other instances pick the freeze up on their next directory refresh
+            Thread.sleep(shardDirectory.refreshIntervalMs() * 2);
+            if (!shardDirectory.awaitWritesDrained(tenantId, DRAIN_TIMEOUT_MS)) {
+                throw new IllegalStateException("Writes of the tenant did not drain");
+            }
+
+            for (Table table : TABLES) {
+                copied += copy(table, columns.get(table.name()), tenantId, since, source, target);
+            }
+            for (int i = TABLES.size() - 1; i >= 0; i--) {
+                if (!TABLES.get(i).name().equals("audit_logs")) { // append-only
+                    removeDeleted(TABLES.get(i), tenantId, source, target);
+                }
+            }
+
+            shardDirectory.update(tenantId, target, ShardDirectory.Status.ACTIVE);
+            System.out.println("Tenant " + tenantId + " moved from shard " + source + " to " + target
+                    + " (" + copied + " rows, " + (System.currentTimeMillis() - started) + " ms)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(tenantId, source, target, e);
+            return;
+        } catch (RuntimeException e) {
+            abort(tenantId, source, target, e);
+            return;
+        }
+
+        cleanUpSource(tenantId, frozenSince, source, target);
+    }
+
+    // Audit events buffered or routed by stale instances may still land on the source for a moment;
+    // only entries written since the freeze can be missing on the target
+    private void cleanUpSource(String tenantId, Timestamp frozenSince, String source, String target) {
+        try {
+            Thread.sleep(shardDirectory.refreshIntervalMs() * 2);
+            Table auditLogs = TABLES.get(TABLES.size() - 1);
+            copy(auditLogs, columns(auditLogs, source), tenantId, frozenSince, source, target);
+            deleteTenant(tenantId, source);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            System.err.println("Tenant " + tenantId + " moved, but cleaning up shard " + source + " failed: " + e.getMessage());
+        }
+    }
+
+    private void abort(String tenantId, String source, String target, Exception cause) {
+        System.err.println("Moving tenant " + tenantId + " to shard " + target + " failed: " + cause.getMessage());
+        try {
+            shardDirectory.update(tenantId, source, ShardDirectory.Status.ACTIVE);
+            deleteTenant(tenantId, target);
+        } catch (RuntimeException e) {
+            System.err.println("Could not roll back the move of tenant " + tenantId + ": " + e.getMessage());
+        }
+    }
+
+    private List<String> columns(Table table, String shard) {
+        return ShardContext.callOn(shard, () -> jdbcTemplate.queryForList(COLUMNS_SQL, String.class, table.name()));
+    }
+
+    // Source database time, less a margin for rows whose timestamp was taken slightly earlier
+    private Timestamp now(String shard) {
+        return ShardContext.callOn(shard, () -> jdbcTemplate.queryForObject(
+                "SELECT NOW() - INTERVAL " + CLOCK_SKEW_MS / 1000 + " SECOND", Timestamp.class));
+    }
+
+    // Every row of the tenant, or with a since only those changed since then, in keyset batches
+    private int copy(Table table, List<String> columns, String tenantId, Timestamp since, String source, String target) {
+        String first = selectFirst(table, columns, since != null);
+        String next = selectNext(table, columns, since != null);
+
+        int copied = 0;
+        List<Map<String, Object>> rows = ShardContext.callOn(source,
+                () -> jdbcTemplate.queryForList(first, since == null ? new Object[] {tenantId} : new Object[] {tenantId, since}));
+        while (!rows.isEmpty()) {
+            upsert(table, columns, rows, target);
+            copied += rows.size();
+            if (rows.size() < BATCH_SIZE) {
+                break;
+            }
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            List<Object> args = new ArrayList<>();
+            args.add(tenantId);
+            if (since != null) {
+                args.add(since);
+            }
+            table.keyColumns().forEach(column -> args.add(last.get(column)));
+            rows = ShardContext.callOn(source, () -> jdbcTemplate.queryForList(next, args.toArray()));
+        }
+        return copied;
+    }
+
+    // Walks the target's ids in batches and asks the source which of them still exist
+    private void removeDeleted(Table table, String tenantId, String source, String target) {
+        String after = null;
+        while (true) {
+            Object[] args = after == null ? new Object[] {tenantId} : new Object[] {tenantId, after};
+            List<String> ids = ShardContext.callOn(target,
+                    () -> jdbcTemplate.queryForList(selectIds(table, args.length > 1), String.class, args));
+            if (ids.isEmpty()) {
+                return;
+            }
+            List<Object> liveArgs = new ArrayList<>();
+            liveArgs.add(tenantId);
+            liveArgs.addAll(ids);
+            Set<String> live = new HashSet<>(ShardContext.callOn(source,
+                    () -> jdbcTemplate.queryForList(selectLive(table, ids.size()), String.class, liveArgs.toArray())));
+            List<Object[]> gone = ids.stream().filter(id -> !live.contains(id)).map(id -> new Object[] {id}).toList();
+            if (!gone.isEmpty()) {
+                ShardContext.runOn(target, () -> jdbcTemplate.batchUpdate(
+                        "DELETE FROM " + table.name() + " WHERE id = UUID_TO_BIN(?)", gone));
+            }
+            if (ids.size() < BATCH_SIZE) {
+                return;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    // Children first, one autocommitted batch per statement, so no statement locks or logs the whole tenant
+    private void deleteTenant(String tenantId, String shard) {
+        for (int i = TABLES.size() - 1; i >= 0; i--) {
+            String sql = deleteBatch(TABLES.get(i));
+            ShardContext.runOn(shard, () -> {
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update(sql, tenantId);
+                } while (deleted == BATCH_SIZE);
+            });
+        }
+    }
+
+    private void upsert(Table table, List<String> columns, List<Map<String, Object>> rows, String target) {
+        String sql = upsertSql(table, columns);
+        List<Object[]> args = rows.stream().map(row -> columns.stream().map(row::get).toArray()).toList();
+        ShardContext.runOn(target, () -> jdbcTemplate.batchUpdate(sql, args));
+    }
+
+    // First batch of a copy; with since, only rows changed since the given time (delta copy)
+    static String selectFirst(Table table, List<String> columns, boolean since) {
+        return "SELECT " + String.join(", ", columns) + " FROM " + table.name() + tenantRows(table, since)
+                + " ORDER BY " + String.join(", ", table.keyColumns()) + " LIMIT " + BATCH_SIZE;
+    }
+
+    // Following batches: keyset after the last key of the previous one
+    static String selectNext(Table table, List<String> columns, boolean since) {
+        String keys = String.join(", ", table.keyColumns());
+        return "SELECT " + String.join(", ", columns) + " FROM " + table.name() + tenantRows(table, since)
+                + " AND (" + keys + ") > (" + placeholders(table.keyColumns().size()) + ") ORDER BY "
+                + keys + " LIMIT " + BATCH_SIZE;
+    }
+
+    private static String tenantRows(Table table, boolean since) {
+        return " WHERE " + table.tenantColumn() + " = UUID_TO_BIN(?)" + (since ? " AND " + table.changedColumn() + " >= ?" : "");
+    }
+
+    // A batch of the target's ids for removeDeleted, after the last id of the previous one
+    static String selectIds(Table table, boolean after) {
+        return "SELECT BIN_TO_UUID(id) FROM " + table.name() + " WHERE " + table.tenantColumn() + " = UUID_TO_BIN(?)"
+                + (after ? " AND id > UUID_TO_BIN(?)" : "") + " ORDER BY id LIMIT " + BATCH_SIZE;
+    }
+
+    // Which of the given ids still exist on the source
+    static String selectLive(Table table, int ids) {
+        return "SELECT BIN_TO_UUID(id) FROM " + table.name() + " WHERE " + table.tenantColumn() + " = UUID_TO_BIN(?)"
+                + " AND id IN (" + String.join(", ", Collections.nCopies(ids, "UUID_TO_BIN(?)")) + ")";
+    }
+
+    static String deleteBatch(Table table) {
+        return "DELETE FROM " + table.name() + " WHERE " + table.tenantColumn() + " = UUID_TO_BIN(?) LIMIT " + BATCH_SIZE;
+    }
+
+    static String upsertSql(Table table, List<String> columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table.name())
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append(placeholders(columns.size())).append(") AS new ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i)).append(" = new.").append(columns.get(i));
+        }
+        return sql.toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,459 @@
+package com.saas.platform.modules.tenant;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary file holding every row of one tenant, table by table.
+ *
+ * Layout: [header] [section]* [index] [footer]
+ *   header  - MAGIC, format version, tenant id, subdomain, export time
+ *   section - the rows of one table as a run of blocks; each block is
+ *             row count, raw size, compressed size, CRC32C of the compressed bytes, Deflate-compressed rows
+ *   index   - per section: table, column names, offset, length, row count, block count
+ *   footer  - index offset (long), index length (int), CRC32C of the index (int), MAGIC (int)
+ *
+ * Values are self-describing (a tag byte per value), so the format does not depend on the schema version.
+ * Blocks are checksummed individually, which lets an import verify the whole file before touching the
+ * database and resume at any block. Written to a temp file and moved into place once complete.
+ */
+final class TenantSnapshot {
+
+    static final int BLOCK_ROWS = 1000;
+
+    private static final int MAGIC = 0x54534e31; // "TSN1"
+    private static final int FORMAT = 1;
+    private static final int BLOCK_HEADER_BYTES = 4 + 4 + 4 + 4;
+    private static final int FOOTER_BYTES = 8 + 4 + 4 + 4;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte STRING = 2;
+    private static final byte BYTES = 3;
+    private static final byte DATETIME = 4;
+    private static final byte DATE = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte DECIMAL = 7;
+    private static final byte BOOLEAN = 8;
+
+    record Header(String tenantId, String subdomain, long exportedAtMillis) {}
+
+    record Section(String table, List<String> columns, long offset, long length, long rows, int blocks) {}
+
+    interface BlockHandler {
+        void handle(int block, List<Object[]> rows) throws IOException;
+    }
+
+    private TenantSnapshot() {
+    }
+
+    static Writer create(Path target, String tenantId, String subdomain) throws IOException {
+        return new Writer(target, tenantId, subdomain);
+    }
+
+    static Reader open(Path file) throws IOException {
+        return new Reader(file);
+    }
+
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final CRC32C crc = new CRC32C();
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream blockOut = new DataOutputStream(block);
+        private final List<Section> sections = new ArrayList<>();
+        private byte[] compressed = new byte[64 * 1024];
+
+        private String table;
+        private List<String> columns;
+        private long sectionOffset;
+        private long sectionRows;
+        private int sectionBlocks;
+        private int blockRows;
+        private long position;
+        private boolean committed;
+
+        private Writer(Path target, String tenantId, String subdomain) throws IOException {
+            this.target = target;
+            Files.createDirectories(target.getParent());
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(header);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            writeString(out, tenantId);
+            writeString(out, subdomain);
+            out.writeLong(System.currentTimeMillis());
+            write(ByteBuffer.wrap(header.toByteArray()));
+        }
+
+        void startSection(String table, List<String> columns) throws IOException {
+            if (this.table != null) {
+                endSection();
+            }
+            this.table = table;
+            this.columns = List.copyOf(columns);
+            this.sectionOffset = position;
+            this.sectionRows = 0;
+            this.sectionBlocks = 0;
+        }
+
+        /** One value per column of the current section, in column order. */
+        void append(Object[] row) throws IOException {
+            for (Object value : row) {
+                writeValue(blockOut, value);
+            }
+            sectionRows++;
+            if (++blockRows == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        void endSection() throws IOException {
+            if (table == null) return;
+            if (blockRows > 0) {
+                flushBlock();
+            }
+            sections.add(new Section(table, columns, sectionOffset, position - sectionOffset, sectionRows, sectionBlocks));
+            table = null;
+        }
+
+        /** Writes the index and footer and atomically publishes the file. Returns the file size. */
+        long commit() throws IOException {
+            endSection();
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(index);
+            out.writeInt(sections.size());
+            for (Section section : sections) {
+                writeString(out, section.table());
+                out.writeInt(section.columns().size());
+                for (String column : section.columns()) {
+                    writeString(out, column);
+                }
+                out.writeLong(section.offset());
+                out.writeLong(section.length());
+                out.writeLong(section.rows());
+                out.writeInt(section.blocks());
+            }
+            byte[] bytes = index.toByteArray();
+            crc.reset();
+            crc.update(bytes);
+
+            ByteBuffer tail = ByteBuffer.allocate(bytes.length + FOOTER_BYTES);
+            tail.put(bytes).putLong(position).putInt(bytes.length).putInt((int) crc.getValue()).putInt(MAGIC).flip();
+            write(tail);
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return position;
+        }
+
+        private void flushBlock() throws IOException {
+            blockOut.flush();
+            int raw = block.size();
+            deflater.reset();
+            deflater.setInput(block.toByteArray());
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+            crc.reset();
+            crc.update(compressed, 0, length);
+
+            ByteBuffer out = ByteBuffer.allocate(BLOCK_HEADER_BYTES + length);
+            out.putInt(blockRows).putInt(raw).putInt(length).putInt((int) crc.getValue()).put(compressed, 0, length).flip();
+            write(out);
+
+            sectionBlocks++;
+            blockRows = 0;
+            block.reset();
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            position += buffer.remaining();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /** Positional reads only, so sections can be read from several threads at once. */
+    static final class Reader implements Closeable {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final Header header;
+        private final List<Section> sections = new ArrayList<>();
+
+        private Reader(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < FOOTER_BYTES) {
+                    throw new IOException("Not a tenant snapshot: " + file);
+                }
+                ByteBuffer footer = read(size - FOOTER_BYTES, FOOTER_BYTES);
+                long indexOffset = footer.getLong();
+                int indexLength = footer.getInt();
+                int indexCrc = footer.getInt();
+                if (footer.getInt() != MAGIC || indexOffset + indexLength != size - FOOTER_BYTES) {
+                    throw new IOException("Not a tenant snapshot: " + file);
+                }
+                byte[] index = bytes(read(indexOffset, indexLength));
+                if (crc(index, index.length) != indexCrc) {
+                    throw new IOException("Corrupt snapshot index: " + file);
+                }
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+                int count = in.readInt();
+                for (int s = 0; s < count; s++) {
+                    String table = readString(in);
+                    int columnCount = in.readInt();
+                    List<String> columns = new ArrayList<>(columnCount);
+                    for (int c = 0; c < columnCount; c++) {
+                        columns.add(readString(in));
+                    }
+                    sections.add(new Section(table, columns, in.readLong(), in.readLong(), in.readLong(), in.readInt()));
+                }
+
+                long headerLength = sections.isEmpty() ? indexOffset : sections.get(0).offset();
+                DataInputStream head = new DataInputStream(new ByteArrayInputStream(bytes(read(0, (int) headerLength))));
+                if (head.readInt() != MAGIC || head.readInt() != FORMAT) {
+                    throw new IOException("Unsupported snapshot format: " + file);
+                }
+                this.header = new Header(readString(head), readString(head), head.readLong());
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        Header header() {
+            return header;
+        }
+
+        List<Section> sections() {
+            return sections;
+        }
+
+        /** Checks every block checksum without decompressing anything. */
+        void verify() throws IOException {
+            for (Section section : sections) {
+                long offset = section.offset();
+                for (int b = 0; b < section.blocks(); b++) {
+                    ByteBuffer head = read(offset, BLOCK_HEADER_BYTES);
+                    head.position(8);
+                    int compressed = head.getInt();
+                    int expected = head.getInt();
+                    if (crc(bytes(read(offset + BLOCK_HEADER_BYTES, compressed)), compressed) != expected) {
+                        throw new IOException("Corrupt block " + b + " of " + section.table() + " in " + file);
+                    }
+                    offset += BLOCK_HEADER_BYTES + compressed;
+                }
+                if (offset != section.offset() + section.length()) {
+                    throw new IOException("Truncated section " + section.table() + " in " + file);
+                }
+            }
+        }
+
+        /** Decodes the blocks of a section in order, skipping the first fromBlock blocks. */
+        void forEachBlock(Section section, int fromBlock, BlockHandler handler) throws IOException {
+            int columns = section.columns().size();
+            Inflater inflater = new Inflater();
+            try {
+                long offset = section.offset();
+                for (int b = 0; b < section.blocks(); b++) {
+                    ByteBuffer head = read(offset, BLOCK_HEADER_BYTES);
+                    int rows = head.getInt();
+                    int raw = head.getInt();
+                    int compressed = head.getInt();
+                    int expected = head.getInt();
+                    if (b >= fromBlock) {
+                        byte[] input = bytes(read(offset + BLOCK_HEADER_BYTES, compressed));
+                        if (crc(input, compressed) != expected) {
+                            throw new IOException("Corrupt block " + b + " of " + section.table() + " in " + file);
+                        }
+                        DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(inflater, input, raw)));
+                        List<Object[]> decoded = new ArrayList<>(rows);
+                        for (int r = 0; r < rows; r++) {
+                            Object[] row = new Object[columns];
+                            for (int c = 0; c < columns; c++) {
+                                row[c] = readValue(in);
+                            }
+                            decoded.add(row);
+                        }
+                        handler.handle(b, decoded);
+                    }
+                    offset += BLOCK_HEADER_BYTES + compressed;
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private ByteBuffer read(long position, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of snapshot: " + file);
+                }
+            }
+            return buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] input, int rawLength) throws IOException {
+        inflater.reset();
+        inflater.setInput(input);
+        byte[] out = new byte[rawLength];
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                n += inflater.inflate(out, n, rawLength - n);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt snapshot block", e);
+        }
+        return out;
+    }
+
+    // JDBC values as returned by Connector/J for our column types; anything else is kept as its string form
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof byte[] bytes) {
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            out.writeByte(LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof LocalDateTime || value instanceof Timestamp) {
+            // Naive UTC, like the DATETIME columns themselves
+            LocalDateTime dateTime = value instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
+            out.writeByte(DATETIME);
+            out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(dateTime.getNano());
+        } else if (value instanceof LocalDate || value instanceof java.sql.Date) {
+            LocalDate date = value instanceof java.sql.Date d ? d.toLocalDate() : (LocalDate) value;
+            out.writeByte(DATE);
+            out.writeLong(date.toEpochDay());
+        } else if (value instanceof BigDecimal decimal) {
+            out.writeByte(DECIMAL);
+            writeString(out, decimal.toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            out.writeByte(STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case LONG -> in.readLong();
+            case STRING -> readString(in);
+            case BYTES -> {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield bytes;
+            }
+            case DATETIME -> LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            case DATE -> LocalDate.ofEpochDay(in.readLong());
+            case DOUBLE -> in.readDouble();
+            case DECIMAL -> new BigDecimal(readString(in));
+            case BOOLEAN -> in.readBoolean();
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
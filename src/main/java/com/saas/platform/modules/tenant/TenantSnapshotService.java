@@ -0,0 +1,287 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardDirectory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Exports a tenant's whole dataset into one {@link TenantSnapshot} file and imports it back,
+ * e.g. into another environment or shard.
+ *
+ * Export reads every table inside one REPEATABLE READ transaction, so the file is a consistent
+ * point-in-time copy, streaming rows (Connector/J cursor) straight into the file.
+ *
+ * Import verifies every checksum first, then loads the tables in FK phases (tenants; users, projects,
+ * audit_logs; tasks), tables of a phase in parallel, one batched upsert transaction per block.
+ * Completed blocks are recorded next to the snapshot ({file}.progress), so a failed import is resumed
+ * by simply importing the same file again.
+ */
+@Component
+public class TenantSnapshotService {
+
+    // Tables of a phase only depend on tables of earlier phases
+    private static final List<List<String>> PHASES = List.of(
+            List.of("tenants"),
+            List.of("users", "projects", "audit_logs"),
+            List.of("tasks"));
+
+    private static final Map<String, String> TENANT_COLUMN = Map.of(
+            "tenants", "id", "users", "tenant_id", "projects", "tenant_id",
+            "audit_logs", "tenant_id", "tasks", "tenant_id");
+
+    private static final String SUFFIX = ".tsnap";
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9._-]+\\" + SUFFIX);
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // Generated columns are computed by MySQL and cannot be inserted
+    private static final String COLUMNS_SQL =
+            "SELECT COLUMN_NAME FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+            "AND EXTRA NOT LIKE '%GENERATED%' ORDER BY ORDINAL_POSITION";
+
+    public record Result(String file, String tenantId, Map<String, Long> rows, long bytes, long millis) {}
+
+    private final TenantDirectory tenantDirectory;
+    private final ShardDirectory shardDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final AsyncTaskExecutor executor;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${tenant.snapshot.dir:./data/snapshots}")
+    private Path root;
+
+    public TenantSnapshotService(TenantDirectory tenantDirectory, ShardDirectory shardDirectory, JdbcTemplate jdbcTemplate,
+                                 @Qualifier("streamingJdbcTemplate") JdbcTemplate streamingJdbc,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor) {
+        this.tenantDirectory = tenantDirectory;
+        this.shardDirectory = shardDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbc = streamingJdbc;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.executor = applicationTaskExecutor;
+    }
+
+    public Result export(String tenantId) {
+        TenantDirectory.Entry tenant = tenantDirectory.findById(tenantId)
+                .orElseThrow(() -> new BadRequestException("Unknown tenant: " + tenantId));
+        String name = tenantId + "-" + STAMP.format(LocalDateTime.now()) + SUFFIX;
+        Path file = root.resolve(name);
+        long started = System.currentTimeMillis();
+
+        exclusive(tenantId);
+        try (TenantContext.Scope ignored = TenantContext.bind(tenantId);
+             TenantSnapshot.Writer writer = TenantSnapshot.create(file, tenantId, tenant.subdomain())) {
+            Map<String, Long> rows = new LinkedHashMap<>();
+            // One consistent read view across all tables (started by the first SELECT of the transaction)
+            snapshotTransaction.executeWithoutResult(tx -> {
+                for (List<String> phase : PHASES) {
+                    for (String table : phase) {
+                        rows.put(table, exportTable(writer, table, tenantId));
+                    }
+                }
+            });
+            long bytes = writer.commit();
+            long millis = System.currentTimeMillis() - started;
+            System.out.println("Exported tenant " + tenantId + " to " + file + " (" + bytes + " bytes, " + millis + " ms)");
+            return new Result(name, tenantId, rows, bytes, millis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            running.remove(tenantId);
+        }
+    }
+
+    /**
+     * Loads a snapshot from the snapshot directory. The tenant must not exist here yet, unless this
+     * resumes an earlier import of the same file.
+     */
+    public Result importSnapshot(String name) {
+        Path file = snapshotFile(name);
+        Path progressFile = file.resolveSibling(name + ".progress");
+        long started = System.currentTimeMillis();
+
+        try (TenantSnapshot.Reader reader = TenantSnapshot.open(file)) {
+            TenantSnapshot.Header header = reader.header();
+            String tenantId = header.tenantId();
+            boolean resuming = Files.exists(progressFile);
+            if (!resuming && tenantDirectory.findById(tenantId).isPresent()) {
+                throw new IllegalStateException("Tenant " + tenantId + " already exists");
+            }
+            tenantDirectory.findBySubdomain(header.subdomain())
+                    .filter(other -> !other.id().equals(tenantId))
+                    .ifPresent(other -> {
+                        throw new IllegalStateException("Subdomain " + header.subdomain() + " is taken by another tenant");
+                    });
+
+            exclusive(tenantId);
+            try {
+                reader.verify();
+                if (shardDirectory.isSharded() && !resuming) {
+                    shardDirectory.assign(tenantId);
+                }
+                Map<String, Integer> progress = readProgress(progressFile);
+                // Marks the import as started before the first row lands, so a retry counts as a resume
+                writeProgress(progressFile, progress);
+                Map<String, Long> rows = new LinkedHashMap<>();
+                for (List<String> phase : PHASES) {
+                    List<Future<Long>> loads = new ArrayList<>();
+                    for (String table : phase) {
+                        TenantSnapshot.Section section = reader.sections().stream()
+                                .filter(s -> s.table().equals(table)).findFirst().orElse(null);
+                        if (section == null) continue;
+                        rows.put(table, section.rows());
+                        loads.add(executor.submit(() -> TenantContext.callWhere(tenantId,
+                                () -> importSection(reader, section, progress, progressFile))));
+                    }
+                    awaitAll(loads);
+                }
+                Files.deleteIfExists(progressFile);
+                tenantDirectory.refresh();
+                long millis = System.currentTimeMillis() - started;
+                System.out.println("Imported tenant " + tenantId + " from " + file + " (" + millis + " ms)");
+                return new Result(name, tenantId, rows, Files.size(file), millis);
+            } finally {
+                running.remove(tenantId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long exportTable(TenantSnapshot.Writer writer, String table, String tenantId) {
+        List<String> columns = jdbcTemplate.queryForList(COLUMNS_SQL, String.class, table);
+        try {
+            writer.startSection(table, columns);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long[] count = {0};
+        streamingJdbc.query("SELECT " + String.join(", ", columns) + " FROM " + table
+                + " WHERE " + TENANT_COLUMN.get(table) + " = UUID_TO_BIN(?)", rs -> {
+            Object[] row = new Object[columns.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            try {
+                writer.append(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }, tenantId);
+        return count[0];
+    }
+
+    // Upserts, so a block that committed just before a crash can be loaded again on resume
+    private long importSection(TenantSnapshot.Reader reader, TenantSnapshot.Section section,
+                               Map<String, Integer> progress, Path progressFile) throws IOException {
+        List<String> columns = section.columns();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(section.table())
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append(String.join(", ", Collections.nCopies(columns.size(), "?")))
+                .append(") AS new ON DUPLICATE KEY UPDATE ");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columns.get(i)).append(" = new.").append(columns.get(i));
+        }
+
+        long[] loaded = {0};
+        reader.forEachBlock(section, progress.getOrDefault(section.table(), 0), (block, rows) -> {
+            writeTransaction.executeWithoutResult(tx -> jdbcTemplate.batchUpdate(sql.toString(), rows));
+            loaded[0] += rows.size();
+            progress.put(section.table(), block + 1);
+            writeProgress(progressFile, progress);
+        });
+        return loaded[0];
+    }
+
+    private void exclusive(String tenantId) {
+        if (!running.add(tenantId)) {
+            throw new IllegalStateException("A snapshot of tenant " + tenantId + " is already running");
+        }
+    }
+
+    private Path snapshotFile(String name) {
+        if (name == null || !FILE_NAME.matcher(name).matches()) {
+            throw new BadRequestException("Invalid snapshot name: " + name);
+        }
+        Path file = root.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new BadRequestException("Snapshot not found: " + name);
+        }
+        return file;
+    }
+
+    // table=blocks per line
+    private static Map<String, Integer> readProgress(Path progressFile) throws IOException {
+        Map<String, Integer> progress = new ConcurrentHashMap<>();
+        if (Files.exists(progressFile)) {
+            for (String line : Files.readAllLines(progressFile)) {
+                int eq = line.indexOf('=');
+                if (eq > 0) {
+                    progress.put(line.substring(0, eq), Integer.parseInt(line.substring(eq + 1).trim()));
+                }
+            }
+        }
+        return progress;
+    }
+
+    private static synchronized void writeProgress(Path progressFile, Map<String, Integer> progress) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        progress.forEach((table, blocks) -> lines.append(table).append('=').append(blocks).append('\n'));
+        Path temp = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+        Files.writeString(temp, lines);
+        Files.move(temp, progressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Waits for every table of the phase, even after one failed, so nothing still reads the file afterwards
+    private static void awaitAll(List<Future<Long>> loads) {
+        Throwable failure = null;
+        for (Future<Long> load : loads) {
+            try {
+                load.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                loads.forEach(other -> other.cancel(true));
+                throw new IllegalStateException("Interrupted while importing", e);
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Import failed, import the same file again to resume: "
+                    + failure.getMessage(), failure);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.saas.platform.modules.user;
 
+import com.saas.platform.core.common.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -11,9 +12,11 @@ import java.time.LocalDateTime;
 @Data
 public class User {
     @Id
+    @Convert(converter = UuidBinaryConverter.class)
     private String id; // UUID
 
     @Column(name = "tenant_id")
+    @Convert(converter = UuidBinaryConverter.class)
     private String tenantId; // NULL for super_admin
 
     @Column(nullable = false)
@@ -1,7 +1,10 @@
 package com.saas.platform.modules.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,15 @@ public interface UserRepository extends JpaRepository<User, String> {
     // For Multi-tenant Login validation
     Optional<User> findByEmailAndTenantId(String email, String tenantId);
     
+    // Bulk task validation: which of these ids are users of the tenant (one IN query)
+    @Query("SELECT u.id FROM User u WHERE u.tenantId = :tenantId AND u.id IN :ids")
+    List<String> findIdsByTenantIdAndIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<String> ids);
+
+    // Id of the caller behind a JWT subject: their user in the tenant, else the super admin (no tenant)
+    @Query("SELECT u.id FROM User u WHERE u.email = :email AND (u.tenantId = :tenantId OR u.tenantId IS NULL) " +
+            "ORDER BY u.tenantId NULLS LAST")
+    List<String> findIdsByEmailForTenant(@Param("email") String email, @Param("tenantId") String tenantId);
+
     // API 9: List Tenant Users
     List<User> findAllByTenantId(String tenantId);
     
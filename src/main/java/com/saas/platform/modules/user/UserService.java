@@ -1,27 +1,31 @@
 package com.saas.platform.modules.user;
 
 import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.common.Ids;
 import com.saas.platform.core.middleware.AuditLogger;
-import com.saas.platform.modules.tenant.Tenant;
-import com.saas.platform.modules.tenant.TenantRepository;
+import com.saas.platform.core.security.UserStateCache;
+import com.saas.platform.modules.tenant.QuotaLedger;
+import com.saas.platform.modules.tenant.TenantDirectory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
-    private final TenantRepository tenantRepository;
+    private final TenantDirectory tenantDirectory;
+    private final QuotaLedger quotaLedger;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogger auditLogger;
+    private final UserStateCache userStateCache;
 
     // API 9: List Tenant Users
+    @Transactional(readOnly = true)
     public List<User> getTenantUsers(String tenantId) {
         return userRepository.findAllByTenantId(tenantId);
     }
@@ -29,18 +33,19 @@ public class UserService {
     // API 8: Add User to Tenant
     @Transactional
     public ApiResponse<?> addUser(String tenantId, User userRequest, String adminId) {
-        Tenant tenant = tenantRepository.findById(tenantId)
+        TenantDirectory.Entry tenant = tenantDirectory.findById(tenantId)
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
-        
-        if (userRepository.countByTenantId(tenantId) >= tenant.getMaxUsers()) {
-            return ApiResponse.error("User limit reached for your plan (" + tenant.getSubscriptionPlan() + ")");
-        }
 
         if (userRepository.existsByEmailAndTenantId(userRequest.getEmail(), tenantId)) {
             return ApiResponse.error("Email already exists in this organization");
         }
 
-        userRequest.setId(UUID.randomUUID().toString());
+        // Reserved last: an error response above commits the transaction, which would keep the slot
+        if (!quotaLedger.tryReserve(tenantId, QuotaLedger.Resource.USERS, tenant.maxUsers())) {
+            return ApiResponse.error("User limit reached for your plan (" + tenant.subscriptionPlan() + ")");
+        }
+
+        userRequest.setId(Ids.next());
         userRequest.setTenantId(tenantId);
         
         // Use provided password or default
@@ -52,6 +57,8 @@ public class UserService {
         userRequest.setIsActive(true);
         
         User savedUser = userRepository.save(userRequest);
+        // Clears any negative entry left by a previously deleted account with the same email
+        userStateCache.invalidate(tenantId, savedUser.getEmail());
         auditLogger.log("CREATE_USER", "New user " + savedUser.getEmail() + " added by: " + adminId);
         
         return ApiResponse.success("User added successfully", savedUser);
@@ -77,6 +84,8 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(existingUser);
+        // Role changes must take effect on the user's very next request
+        userStateCache.invalidate(savedUser.getTenantId(), savedUser.getEmail());
         auditLogger.log("UPDATE_USER", "User " + userId + " updated by " + adminId);
         
         return ApiResponse.success("User updated successfully", savedUser);
@@ -99,6 +108,8 @@ public class UserService {
         }
 
         userRepository.delete(user);
+        quotaLedger.release(user.getTenantId(), QuotaLedger.Resource.USERS);
+        userStateCache.invalidate(user.getTenantId(), user.getEmail());
         auditLogger.log("DELETE_USER", "User ID " + userId + " deleted by: " + adminId);
         
         return ApiResponse.success("User deleted successfully", null);
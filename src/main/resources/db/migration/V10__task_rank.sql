@@ -0,0 +1,16 @@
+-- Manual task order (drag and drop on the board): a fractional key per task, compared byte by byte.
+-- A move writes a key between its new neighbours' keys, so it rewrites one row; keys that grew too long
+-- are compacted by TaskRanks in the background. ("rank" itself is a reserved word in MySQL 8.)
+ALTER TABLE tasks ADD COLUMN rank_key VARCHAR(64) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+-- Start from the board's priority order. Keys are odd base-36 numbers of fixed width: ascending within
+-- a project, never ending in '0', and with a free key between any two neighbours. updated_at is kept.
+UPDATE tasks t
+JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY tenant_id, project_id ORDER BY priority_rank, due_key, id) AS rn
+      FROM tasks) r ON r.id = t.id
+SET t.rank_key = LPAD(CONV(2 * r.rn - 1, 10, 36), 6, '0'),
+    t.updated_at = t.updated_at;
+
+-- Board columns ordered by rank, and a project's tasks ordered by rank (GET .../tasks?sort=rank)
+CREATE INDEX idx_task_rank ON tasks (tenant_id, project_id, status, rank_key, id);
+CREATE INDEX idx_task_project_rank ON tasks (tenant_id, project_id, rank_key, id);
@@ -0,0 +1,15 @@
+-- Maintained task counters: project listings read these instead of running COUNT(*) per project.
+-- Kept in step by TaskService in the same transaction as task writes; ProjectCounterReconciler repairs drift.
+ALTER TABLE projects
+    ADD COLUMN task_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN completed_task_count INT NOT NULL DEFAULT 0;
+
+-- Backfill from existing tasks
+UPDATE projects p
+LEFT JOIN (
+    SELECT project_id, COUNT(*) AS total, SUM(LOWER(status) = 'completed') AS completed
+    FROM tasks
+    GROUP BY project_id
+) c ON c.project_id = p.id
+SET p.task_count = COALESCE(c.total, 0),
+    p.completed_task_count = COALESCE(c.completed, 0);
@@ -0,0 +1,23 @@
+-- Keyset pagination indexes for the task and project list endpoints.
+-- Every index leads with tenant_id and ends with the (sort key, id) pair used by the cursor,
+-- so each filter + page is an index range scan with no filesort.
+
+-- Tasks: default sort (created_at, id), optionally narrowed by project / status / priority / assignee
+CREATE INDEX idx_task_tenant_created ON tasks (tenant_id, created_at, id);
+CREATE INDEX idx_task_tenant_project_created ON tasks (tenant_id, project_id, created_at, id);
+CREATE INDEX idx_task_tenant_status_created ON tasks (tenant_id, status, created_at, id);
+CREATE INDEX idx_task_tenant_priority_created ON tasks (tenant_id, priority, created_at, id);
+CREATE INDEX idx_task_tenant_assignee_created ON tasks (tenant_id, assigned_to, created_at, id);
+-- Tasks: due-date range filters and sort=dueDate
+CREATE INDEX idx_task_tenant_due ON tasks (tenant_id, due_date, id);
+
+-- Superseded by idx_task_tenant_project_created (same leading columns)
+DROP INDEX idx_task_tenant_project ON tasks;
+
+-- Projects: sort=createdAt / sort=name, optionally filtered by status
+CREATE INDEX idx_project_tenant_created ON projects (tenant_id, created_at, id);
+CREATE INDEX idx_project_tenant_status_created ON projects (tenant_id, status, created_at, id);
+CREATE INDEX idx_project_tenant_name ON projects (tenant_id, name, id);
+
+-- Superseded by idx_project_tenant_created
+DROP INDEX idx_tenant_project ON projects;
@@ -0,0 +1,4 @@
+-- Audit log queries filter by tenant and time range and page newest-first on (timestamp, id).
+-- Without these every audit page was a full scan + filesort over the whole history.
+CREATE INDEX idx_audit_tenant_time ON audit_logs (tenant_id, timestamp, id);
+CREATE INDEX idx_audit_tenant_action_time ON audit_logs (tenant_id, action, timestamp, id);
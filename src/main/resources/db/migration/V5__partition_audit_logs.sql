@@ -0,0 +1,15 @@
+-- Monthly range partitions for audit_logs so old months can be archived and dropped
+-- without row-by-row deletes. Every unique key must contain the partitioning column,
+-- hence the (id, timestamp) primary key and the NOT NULL timestamp.
+UPDATE audit_logs SET timestamp = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE timestamp IS NULL;
+
+ALTER TABLE audit_logs
+    MODIFY timestamp DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, timestamp);
+
+-- Starts as a single catch-all partition; AuditPartitionManager splits it into
+-- pYYYYMM partitions on first start and keeps creating them ahead of time.
+ALTER TABLE audit_logs PARTITION BY RANGE (TO_DAYS(timestamp)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,10 @@
+-- Placement of tenants on shards (only read from the main shard; see ShardDirectory).
+-- Tenants without a row live on the main shard.
+CREATE TABLE IF NOT EXISTS tenant_shards (
+    tenant_id VARCHAR(36) PRIMARY KEY,
+    shard_id VARCHAR(64) NOT NULL,
+    -- active | moving (online copy running, writes allowed) | frozen (final copy, writes rejected)
+    status VARCHAR(16) NOT NULL DEFAULT 'active',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_tenant_shards_shard (shard_id)
+);
@@ -0,0 +1,75 @@
+-- Ids become BINARY(16) instead of VARCHAR(36) UUID strings: 16 bytes in the clustered index and in
+-- every secondary index entry (which carries the primary key) instead of up to 144 with utf8mb4.
+-- New ids are time-ordered (Ids / UuidBinaryConverter); existing ids keep their value, only the encoding changes.
+--
+-- Per table: VARCHAR -> VARBINARY(36) keeps the text bytes, UUID_TO_BIN rewrites them in place (no swap
+-- flag, so byte order = string order), then the columns are narrowed to BINARY(16). Index definitions stay
+-- as they are throughout; foreign keys are dropped first and re-created at the end.
+-- Soft references (created_by, assigned_to, user_id) that do not hold a UUID are cleared.
+
+ALTER TABLE users DROP FOREIGN KEY fk_user_tenant;
+ALTER TABLE projects DROP FOREIGN KEY fk_project_tenant;
+ALTER TABLE tasks DROP FOREIGN KEY fk_task_project, DROP FOREIGN KEY fk_task_tenant;
+
+-- tenants
+ALTER TABLE tenants MODIFY id VARBINARY(36) NOT NULL;
+UPDATE tenants SET id = UUID_TO_BIN(id);
+ALTER TABLE tenants MODIFY id BINARY(16) NOT NULL;
+
+-- users
+ALTER TABLE users
+    MODIFY id VARBINARY(36) NOT NULL,
+    MODIFY tenant_id VARBINARY(36) NULL;
+UPDATE users SET id = UUID_TO_BIN(id), tenant_id = UUID_TO_BIN(tenant_id);
+ALTER TABLE users
+    MODIFY id BINARY(16) NOT NULL,
+    MODIFY tenant_id BINARY(16) NULL;
+
+-- projects
+ALTER TABLE projects
+    MODIFY id VARBINARY(36) NOT NULL,
+    MODIFY tenant_id VARBINARY(36) NOT NULL,
+    MODIFY created_by VARBINARY(36) NULL;
+UPDATE projects SET id = UUID_TO_BIN(id), tenant_id = UUID_TO_BIN(tenant_id),
+                    created_by = IF(IS_UUID(created_by), UUID_TO_BIN(created_by), NULL);
+ALTER TABLE projects
+    MODIFY id BINARY(16) NOT NULL,
+    MODIFY tenant_id BINARY(16) NOT NULL,
+    MODIFY created_by BINARY(16) NULL;
+
+-- tasks
+ALTER TABLE tasks
+    MODIFY id VARBINARY(36) NOT NULL,
+    MODIFY project_id VARBINARY(36) NOT NULL,
+    MODIFY tenant_id VARBINARY(36) NOT NULL,
+    MODIFY assigned_to VARBINARY(36) NULL;
+UPDATE tasks SET id = UUID_TO_BIN(id), project_id = UUID_TO_BIN(project_id), tenant_id = UUID_TO_BIN(tenant_id),
+                 assigned_to = IF(IS_UUID(assigned_to), UUID_TO_BIN(assigned_to), NULL);
+ALTER TABLE tasks
+    MODIFY id BINARY(16) NOT NULL,
+    MODIFY project_id BINARY(16) NOT NULL,
+    MODIFY tenant_id BINARY(16) NOT NULL,
+    MODIFY assigned_to BINARY(16) NULL;
+
+-- audit_logs (partitioned; timestamp does not change, so rows stay in their partition)
+ALTER TABLE audit_logs
+    MODIFY id VARBINARY(36) NOT NULL,
+    MODIFY tenant_id VARBINARY(36) NULL,
+    MODIFY user_id VARBINARY(36) NULL;
+UPDATE audit_logs SET id = UUID_TO_BIN(id), tenant_id = UUID_TO_BIN(tenant_id),
+                      user_id = IF(IS_UUID(user_id), UUID_TO_BIN(user_id), NULL);
+ALTER TABLE audit_logs
+    MODIFY id BINARY(16) NOT NULL,
+    MODIFY tenant_id BINARY(16) NULL,
+    MODIFY user_id BINARY(16) NULL;
+
+-- tenant_shards
+ALTER TABLE tenant_shards MODIFY tenant_id VARBINARY(36) NOT NULL;
+UPDATE tenant_shards SET tenant_id = UUID_TO_BIN(tenant_id);
+ALTER TABLE tenant_shards MODIFY tenant_id BINARY(16) NOT NULL;
+
+ALTER TABLE users ADD CONSTRAINT fk_user_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id) ON DELETE CASCADE;
+ALTER TABLE projects ADD CONSTRAINT fk_project_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id) ON DELETE CASCADE;
+ALTER TABLE tasks
+    ADD CONSTRAINT fk_task_project FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE,
+    ADD CONSTRAINT fk_task_tenant FOREIGN KEY (tenant_id) REFERENCES tenants(id) ON DELETE CASCADE;
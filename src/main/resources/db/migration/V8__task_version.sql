@@ -0,0 +1,3 @@
+-- Optimistic concurrency for tasks: every write bumps the version; status changes and updates
+-- carrying a stale version are rejected with 409 instead of overwriting each other.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,106 @@
+package com.saas.platform.core.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.ApiResponse;
+import com.saas.platform.core.middleware.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+
+    private final TenantVersions versions = new TenantVersions(60_000);
+    private final ResponseCache responseCache = new ResponseCache(versions, new ObjectMapper(),
+            new SimpleMeterRegistry(), 1_000_000, 100_000, 60_000);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void respond_ShouldAnswerAMatchingIfNoneMatchWithoutCallingTheHandler() {
+        TenantContext.setCurrentTenant("t1");
+        ResponseEntity<?> first = responseCache.respond(request(null), this::list);
+        String etag = first.getHeaders().getETag();
+
+        ResponseEntity<?> second = responseCache.respond(request(etag), this::list);
+
+        assertEquals(304, second.getStatusCode().value());
+        assertEquals(etag, second.getHeaders().getETag());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void respond_ShouldServeCachedGzipUntilTheTenantVersionMoves() throws Exception {
+        TenantContext.setCurrentTenant("t1");
+        ResponseEntity<?> first = responseCache.respond(request(null), this::list);
+        ResponseEntity<?> second = responseCache.respond(request(null), this::list);
+
+        assertEquals("gzip", second.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(first.getBody(), second.getBody());
+        assertTrue(gunzip((byte[]) second.getBody()).contains("\"data\":[\"a\",\"b\"]"));
+        assertEquals(1, calls.get());
+
+        versions.bump("t1");
+        ResponseEntity<?> third = responseCache.respond(request(first.getHeaders().getETag()), this::list);
+        assertEquals(200, third.getStatusCode().value());
+        assertNotEquals(first.getHeaders().getETag(), third.getHeaders().getETag());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void respond_ShouldNotCacheErrors() {
+        TenantContext.setCurrentTenant("t1");
+        ApiResponse<?> error = ApiResponse.error("Unauthorized");
+
+        assertSame(error, responseCache.respond(request(null), () -> error).getBody());
+        assertEquals(200, responseCache.respond(request(null), this::list).getStatusCode().value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void matches_ShouldCompareWeaklyAcrossAList() {
+        assertTrue(ResponseCache.matches("\"x\", W/\"abc-1\"", "W/\"abc-1\""));
+        assertTrue(ResponseCache.matches("*", "W/\"abc-1\""));
+        assertFalse(ResponseCache.matches("W/\"abc-2\"", "W/\"abc-1\""));
+        assertFalse(ResponseCache.matches(null, "W/\"abc-1\""));
+    }
+
+    private ApiResponse<?> list() {
+        calls.incrementAndGet();
+        return ApiResponse.success("Listed", List.of("a", "b"));
+    }
+
+    private static MockHttpServletRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+        request.setQueryString("limit=20");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private static String gunzip(byte[] gzip) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
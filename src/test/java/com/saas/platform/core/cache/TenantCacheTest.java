@@ -0,0 +1,87 @@
+package com.saas.platform.core.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TenantCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private TenantCache<String, String> cache(long tenantMaxBytes) {
+        return new TenantCache<>("test", 1_000_000, tenantMaxBytes, Duration.ofMinutes(5), Duration.ofMinutes(5),
+                (key, value) -> value.length(), registry);
+    }
+
+    @Test
+    public void get_ShouldLoadOnceAndServeHitsFromMemory() {
+        TenantCache<String, String> cache = cache(10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("value", cache.get("t1", "k", () -> {
+                loads.incrementAndGet();
+                return "value";
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    public void get_ShouldKeepTenantsApartAndNotCacheNulls() {
+        TenantCache<String, String> cache = cache(10_000);
+
+        cache.get("t1", "k", () -> "one");
+        assertEquals("two", cache.get("t2", "k", () -> "two"));
+        assertNull(cache.get("t1", "missing", () -> null));
+        assertEquals("loaded", cache.get("t1", "missing", () -> "loaded"));
+    }
+
+    @Test
+    public void invalidate_ShouldOnlyDropMatchingEntriesOfTheTenant() {
+        TenantCache<String, String> cache = cache(10_000);
+        cache.get("t1", "a1", () -> "x");
+        cache.get("t1", "b1", () -> "x");
+        cache.get("t2", "a1", () -> "x");
+
+        cache.invalidateIf("t1", key -> key.startsWith("a"));
+
+        assertEquals("new", cache.get("t1", "a1", () -> "new"));
+        assertEquals("x", cache.get("t1", "b1", () -> "new"));
+        assertEquals("x", cache.get("t2", "a1", () -> "new"));
+    }
+
+    @Test
+    public void get_ShouldNotKeepAValueLoadedDuringAnInvalidation() {
+        TenantCache<String, String> cache = cache(10_000);
+        cache.get("t1", "other", () -> "x");
+
+        assertEquals("stale", cache.get("t1", "k", () -> {
+            cache.invalidate("t1", "k"); // the write commits while the read is in flight
+            return "stale";
+        }));
+        assertEquals("fresh", cache.get("t1", "k", () -> "fresh"));
+    }
+
+    @Test
+    public void get_ShouldHoldEachTenantWithinItsBudget() {
+        TenantCache<String, String> cache = cache(100);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get("t1", "k" + i, () -> "0123456789");
+        }
+        cache.get("t2", "k", () -> "0123456789");
+
+        assertTrue(cache.tenantBytes("t1") <= 100);
+        assertEquals(10, cache.tenantBytes("t2"));
+        assertEquals(11, cache.estimatedSize());
+        assertEquals(40.0, registry.get("cache.tenant.evictions").counter().count());
+    }
+}
@@ -0,0 +1,51 @@
+package com.saas.platform.core.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing a primary key on the write path: random v4 strings (SecureRandom, the previous ids)
+ * vs {@link Ids}, from 8 threads so contention on the shared sequence shows up.
+ * The database side (insert rate and index size before/after V7) is {@link PrimaryKeyStorageBenchmark}.
+ * Run after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<deps> com.saas.platform.core.common.IdsBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class IdsBenchmark {
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return Ids.next();
+    }
+
+    @Benchmark
+    public byte[] timeOrderedBinary() {
+        return UuidBinaryConverter.toBytes(Ids.next());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
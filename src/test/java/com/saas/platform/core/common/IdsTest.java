@@ -0,0 +1,79 @@
+package com.saas.platform.core.common;
+
+import com.saas.platform.core.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdsTest {
+
+    @Test
+    public void idsAreVersion7AndCarryTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = Ids.nextUuid();
+        long millis = id.getMostSignificantBits() >>> 16;
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        // May run slightly ahead after a burst borrowed sequence numbers from the next milliseconds
+        assertTrue(millis >= before && millis <= System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    public void idsIncreaseInStringAndBinaryOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) { // several thousand within one millisecond
+            ids.add(Ids.next());
+        }
+        for (int i = 1; i < ids.size(); i++) {
+            String previous = ids.get(i - 1);
+            String current = ids.get(i);
+            assertTrue(previous.compareTo(current) < 0);
+            assertTrue(Arrays.compareUnsigned(UuidBinaryConverter.toBytes(previous), UuidBinaryConverter.toBytes(current)) < 0);
+        }
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    public void converterRoundTripsInUuidToBinLayout() {
+        UuidBinaryConverter converter = new UuidBinaryConverter();
+        String id = "6ccd780c-baba-1026-9564-5b8c656024db";
+
+        byte[] bytes = converter.convertToDatabaseColumn(id);
+        // SELECT HEX(UUID_TO_BIN('6ccd780c-baba-1026-9564-5b8c656024db'))
+        assertEquals("6CCD780CBABA102695645B8C656024DB", toHex(bytes));
+        assertEquals(id, converter.convertToEntityAttribute(bytes));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    public void nonUuidValuesAreRejectedInsteadOfStoredAsRawBytes() {
+        UuidBinaryConverter converter = new UuidBinaryConverter();
+
+        // An email used to be written as its UTF-8 bytes: truncated or zero-padded by BINARY(16)
+        assertThrows(BadRequestException.class, () -> converter.convertToDatabaseColumn("admin@demo.com"));
+        assertThrows(BadRequestException.class, () -> converter.convertToDatabaseColumn("1-2-3-4-5"));
+        assertFalse(UuidBinaryConverter.isUuid("superadmin@system.com"));
+        assertFalse(UuidBinaryConverter.isUuid(null));
+        assertTrue(UuidBinaryConverter.isUuid(Ids.next()));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.toString();
+    }
+}
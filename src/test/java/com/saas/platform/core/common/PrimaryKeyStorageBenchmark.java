@@ -0,0 +1,147 @@
+package com.saas.platform.core.common;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Database side of the V7 key change: loads the same rows into the tasks table as it was before V7
+ * (VARCHAR(36) random v4 ids) and after it (BINARY(16) ids from {@link Ids}), both with the V3 list indexes,
+ * then prints the insert rate and the InnoDB size of every index. Needs a MySQL (or MariaDB) server;
+ * not a JMH benchmark because a single load of a growing table is what is measured.
+ * Run after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<deps> com.saas.platform.core.common.PrimaryKeyStorageBenchmark <jdbc-url> [rows]}
+ */
+public class PrimaryKeyStorageBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String[] STATUSES = {"todo", "in_progress", "review", "completed"};
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+    private static final LocalDate FIRST_DUE_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final String INDEXES =
+            "INDEX idx_task_tenant_created (tenant_id, created_at, id), " +
+            "INDEX idx_task_tenant_project_created (tenant_id, project_id, created_at, id), " +
+            "INDEX idx_task_tenant_status_created (tenant_id, status, created_at, id), " +
+            "INDEX idx_task_tenant_priority_created (tenant_id, priority, created_at, id), " +
+            "INDEX idx_task_tenant_assignee_created (tenant_id, assigned_to, created_at, id), " +
+            "INDEX idx_task_tenant_due (tenant_id, due_date, id)";
+
+    enum Layout {
+        VARCHAR_RANDOM("VARCHAR(36)"),
+        BINARY_TIME_ORDERED("BINARY(16)");
+
+        final String type;
+
+        Layout(String type) {
+            this.type = type;
+        }
+
+        Object id() {
+            return this == VARCHAR_RANDOM ? UUID.randomUUID().toString() : UuidBinaryConverter.toBytes(Ids.next());
+        }
+
+        // Tenants, projects and users keep their existing (random) ids, only their storage changes
+        Object reference(String uuid) {
+            return this == VARCHAR_RANDOM ? uuid : UuidBinaryConverter.toBytes(uuid);
+        }
+
+        String table() {
+            return "tasks_" + name().toLowerCase();
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = args[0];
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        String[] tenants = randomIds(20);
+        String[] projects = randomIds(400);
+        String[] users = randomIds(200);
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            for (Layout layout : Layout.values()) {
+                create(connection, layout);
+                long start = System.nanoTime();
+                load(connection, layout, rows, tenants, projects, users);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%s: %,d rows in %.1f s, %,.0f rows/s%n", layout, rows, seconds, rows / seconds);
+                printIndexSizes(connection, layout);
+            }
+        }
+    }
+
+    private static void create(Connection connection, Layout layout) throws SQLException {
+        String key = layout.type;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + layout.table());
+            statement.execute("CREATE TABLE " + layout.table() + " (" +
+                    "id " + key + " PRIMARY KEY, project_id " + key + " NOT NULL, tenant_id " + key + " NOT NULL, " +
+                    "title VARCHAR(255) NOT NULL, description TEXT, status VARCHAR(50) DEFAULT 'todo', " +
+                    "priority VARCHAR(50) DEFAULT 'medium', assigned_to " + key + ", due_date DATE, " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    INDEXES + ") ENGINE=InnoDB");
+        }
+    }
+
+    private static void load(Connection connection, Layout layout, int rows,
+                             String[] tenants, String[] projects, String[] users) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + layout.table() +
+                " (id, project_id, tenant_id, title, status, priority, assigned_to, due_date, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                int project = random.nextInt(projects.length);
+                insert.setObject(1, layout.id());
+                insert.setObject(2, layout.reference(projects[project]));
+                insert.setObject(3, layout.reference(tenants[project % tenants.length]));
+                insert.setString(4, "Task " + i);
+                insert.setString(5, STATUSES[random.nextInt(STATUSES.length)]);
+                insert.setString(6, PRIORITIES[random.nextInt(PRIORITIES.length)]);
+                insert.setObject(7, layout.reference(users[random.nextInt(users.length)]));
+                insert.setObject(8, random.nextBoolean() ? FIRST_DUE_DATE.plusDays(random.nextInt(365)) : null);
+                insert.setTimestamp(9, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void printIndexSizes(Connection connection, Layout layout) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE TABLE " + layout.table());
+            try (ResultSet sizes = statement.executeQuery(
+                    "SELECT index_name, stat_value * @@innodb_page_size AS bytes FROM mysql.innodb_index_stats " +
+                    "WHERE database_name = DATABASE() AND table_name = '" + layout.table() + "' AND stat_name = 'size' " +
+                    "ORDER BY index_name")) {
+                long total = 0;
+                while (sizes.next()) {
+                    long bytes = sizes.getLong("bytes");
+                    total += bytes;
+                    System.out.printf("  %-36s %,10.1f MiB%n", sizes.getString("index_name"), bytes / 1048576.0);
+                }
+                System.out.printf("  %-36s %,10.1f MiB%n", "total", total / 1048576.0);
+            }
+        }
+    }
+
+    private static String[] randomIds(int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+        return ids;
+    }
+}
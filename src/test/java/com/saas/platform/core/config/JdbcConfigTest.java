@@ -0,0 +1,36 @@
+package com.saas.platform.core.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class JdbcConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class))
+            .withUserConfiguration(JdbcConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:jdbc-config", "spring.jdbc.template.query-timeout=7s");
+
+    @Test
+    public void jdbcTemplate_ShouldStayTheDefaultWithBootSettingsNextToTheStreamingOne() {
+        contextRunner.run(context -> {
+            JdbcTemplate primary = context.getBean(JdbcTemplate.class);
+            JdbcTemplate streaming = context.getBean("streamingJdbcTemplate", JdbcTemplate.class);
+
+            assertSame(context.getBean("jdbcTemplate"), primary);
+            assertEquals(7, primary.getQueryTimeout());
+            assertEquals(-1, primary.getFetchSize());
+            assertEquals(Integer.MIN_VALUE, streaming.getFetchSize());
+            assertSame(primary.getDataSource(), streaming.getDataSource());
+            // Boot's NamedParameterJdbcTemplate wraps the primary one
+            assertSame(primary, context.getBean(NamedParameterJdbcTemplate.class).getJdbcTemplate());
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.saas.platform.core.config;
+
+import com.saas.platform.core.middleware.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void setUp() {
+        lagMonitor = mock(ReplicaLagMonitor.class);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(database("primary"), database("replica"),
+                lagMonitor, 60_000, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        // Wired like ReplicaDataSourceConfig
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TenantContext.setCurrentTenant("t1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldGoToTheReplica() {
+        assertEquals("replica", readOnly.execute(tx -> server()));
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldGoToThePrimaryAfterARecentWriteOfTheTenant() {
+        assertEquals("primary", readWrite.execute(tx -> server()));
+
+        assertEquals("primary", readOnly.execute(tx -> server()));
+
+        TenantContext.setCurrentTenant("t2");
+        assertEquals("replica", readOnly.execute(tx -> server()));
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldStayOnTheReplicaAfterARolledBackWrite() {
+        readWrite.executeWithoutResult(tx -> {
+            server();
+            tx.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(tx -> server()));
+    }
+
+    @Test
+    public void readsOutsideATransaction_ShouldGoToThePrimaryWithoutPinningTheTenant() {
+        assertEquals("primary", server());
+
+        assertEquals("replica", readOnly.execute(tx -> server()));
+    }
+
+    @Test
+    public void readOnlyTransaction_ShouldFallBackToThePrimaryWhileTheReplicaLags() {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        assertEquals("primary", readOnly.execute(tx -> server()));
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    // One in-memory database per role; each knows its own name
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE server (name VARCHAR(16))");
+        jdbc.update("INSERT INTO server VALUES (?)", name);
+        return dataSource;
+    }
+}
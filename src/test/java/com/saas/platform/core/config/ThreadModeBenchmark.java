@@ -0,0 +1,120 @@
+package com.saas.platform.core.config;
+
+import com.saas.platform.core.middleware.TenantContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform vs virtual request threads when the database is the bottleneck.
+ * Each operation pushes a burst of simulated requests through the executor. A request binds its tenant,
+ * waits for one of POOL_SIZE connections (the Hikari pool) and holds it for QUERY_MILLIS.
+ * The pool and the query are simulated (a fair Semaphore and a sleep), so the numbers compare the thread
+ * modes under a saturated pool; they say nothing about MySQL itself.
+ * The score is the time to drain a burst (inverse throughput); p50/p99 request latency, measured from
+ * burst start so queueing is included, is printed after each trial from the measurement iterations only.
+ * Run after {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<deps> com.saas.platform.core.config.ThreadModeBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int POOL_SIZE = 10;       // Hikari maximum-pool-size default
+    private static final int TOMCAT_THREADS = 200; // server.tomcat.threads.max default
+    private static final long QUERY_MILLIS = 2;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000", "10000"})
+    public int burst;
+
+    private ExecutorService executor;
+    private Semaphore connections;
+    private final List<long[]> latencies = new ArrayList<>();
+    private boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = mode.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_THREADS);
+        connections = new Semaphore(POOL_SIZE, true);
+        latencies.clear();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        measuring = iteration.getType() == IterationType.MEASUREMENT;
+    }
+
+    @Benchmark
+    public void saturatedBurst() throws InterruptedException {
+        long[] burstLatencies = new long[burst];
+        CountDownLatch done = new CountDownLatch(burst);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < burst; i++) {
+            int request = i;
+            executor.execute(() -> TenantContext.runWhere("tenant-" + (request % 100), () -> {
+                connections.acquireUninterruptibly();
+                try {
+                    Thread.sleep(QUERY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    connections.release();
+                }
+                burstLatencies[request] = System.nanoTime() - start;
+                done.countDown();
+            }));
+        }
+        done.await();
+        if (measuring) {
+            latencies.add(burstLatencies);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        if (all.length > 0) {
+            System.out.printf("%n[%s, burst=%d] p50=%.1f ms p99=%.1f ms%n", mode, burst,
+                    all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ThreadModeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.saas.platform.core.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveConcurrencyFilterTest {
+
+    private static final FilterChain START_ASYNC = (request, response) -> request.startAsync();
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdaptiveConcurrencyFilter(meterRegistry, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "initialLimit", 10);
+        ReflectionTestUtils.setField(filter, "minLimit", 10);
+        ReflectionTestUtils.setField(filter, "maxLimit", 10);
+        ReflectionTestUtils.setField(filter, "windowMs", 100L);
+        filter.init();
+    }
+
+    @Test
+    public void doFilter_ShouldReleaseASynchronousRequestWhenTheChainReturns() throws Exception {
+        filter.doFilter(get("/api/projects/p1"), new MockHttpServletResponse(), (request, response) -> {
+            assertEquals(1, inFlight());
+        });
+
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    public void doFilter_ShouldHoldAStreamedExportUntilItsResponseCompletes() throws Exception {
+        MockHttpServletRequest request = get("/api/tasks/export");
+
+        filter.doFilter(request, new MockHttpServletResponse(), START_ASYNC);
+
+        assertEquals(1, inFlight());
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    public void doFilter_ShouldShedRequestsWhileStreamsHoldTheLimit() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(get("/api/tasks/export"), new MockHttpServletResponse(), START_ASYNC);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("/api/projects/p1"), response, (request, r) -> {});
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    public void doFilter_ShouldNotCountChangeFeedStreams() throws Exception {
+        filter.doFilter(get("/api/changes"), new MockHttpServletResponse(), START_ASYNC);
+
+        assertEquals(0, inFlight());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("concurrency.inflight").gauge().value();
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
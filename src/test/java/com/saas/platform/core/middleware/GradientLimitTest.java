@@ -0,0 +1,53 @@
+package com.saas.platform.core.middleware;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GradientLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void limit_ShouldDropWhenLatencyRisesAndRecoverAfterwards() {
+        GradientLimit limit = new GradientLimit(50, 10, 200, WINDOW);
+        long now = System.nanoTime();
+
+        now = feed(limit, now, 100, TimeUnit.MILLISECONDS.toNanos(5));
+        int healthy = limit.limit();
+        assertTrue(healthy > 50);
+
+        now = feed(limit, now, 30, TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(limit.limit() < healthy / 2);
+
+        feed(limit, now, 100, TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(limit.limit() > healthy / 2);
+    }
+
+    @Test
+    public void classify_ShouldRankLoginAndWritesAboveLists() {
+        assertEquals(AdaptiveConcurrencyFilter.Priority.CRITICAL,
+                AdaptiveConcurrencyFilter.classify(new MockHttpServletRequest("POST", "/api/auth/login")));
+        assertEquals(AdaptiveConcurrencyFilter.Priority.CRITICAL,
+                AdaptiveConcurrencyFilter.classify(new MockHttpServletRequest("PATCH", "/api/tasks/t1/status")));
+        assertEquals(AdaptiveConcurrencyFilter.Priority.NORMAL,
+                AdaptiveConcurrencyFilter.classify(new MockHttpServletRequest("GET", "/api/projects/p1")));
+        assertEquals(AdaptiveConcurrencyFilter.Priority.BULK,
+                AdaptiveConcurrencyFilter.classify(new MockHttpServletRequest("GET", "/api/projects")));
+        assertEquals(AdaptiveConcurrencyFilter.Priority.BULK,
+                AdaptiveConcurrencyFilter.classify(new MockHttpServletRequest("GET", "/api/projects/p1/tasks")));
+    }
+
+    // One sample per window, each closing the previous window
+    private static long feed(GradientLimit limit, long now, int windows, long rtt) {
+        for (int i = 0; i < windows; i++) {
+            now += WINDOW;
+            limit.onSample(rtt, now);
+        }
+        return now;
+    }
+}
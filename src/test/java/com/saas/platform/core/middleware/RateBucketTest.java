@@ -0,0 +1,38 @@
+package com.saas.platform.core.middleware;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void acquire_ShouldAllowBurstThenReject() {
+        RateBucket bucket = new RateBucket(10, 5);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.acquire(now, 0));
+        }
+        long rejected = bucket.acquire(now, 0);
+        assertTrue(rejected < 0);
+        assertEquals(SECOND / 10, -rejected); // next token after one emission interval
+    }
+
+    @Test
+    public void acquire_ShouldQueueWithinMaxWaitAndRefillOverTime() {
+        RateBucket bucket = new RateBucket(10, 1);
+        long now = 1_000 * SECOND;
+
+        assertEquals(0, bucket.acquire(now, 0));
+        assertEquals(SECOND / 10, bucket.acquire(now, SECOND / 5)); // waits for its slot
+        assertTrue(bucket.acquire(now, SECOND / 10) < 0);           // would need 200 ms
+
+        assertEquals(0, bucket.acquire(now + SECOND, 0));           // refilled
+    }
+}
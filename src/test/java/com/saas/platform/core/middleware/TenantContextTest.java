@@ -0,0 +1,49 @@
+package com.saas.platform.core.middleware;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TenantContextTest {
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void bind_ShouldRestorePreviousTenantWhenClosed() {
+        try (TenantContext.Scope outer = TenantContext.bind("tenant-a")) {
+            try (TenantContext.Scope inner = TenantContext.bind("tenant-b")) {
+                assertEquals("tenant-b", TenantContext.getCurrentTenant());
+            }
+            assertEquals("tenant-a", TenantContext.getCurrentTenant());
+        }
+        assertNull(TenantContext.getCurrentTenant());
+    }
+
+    @Test
+    public void runWhere_ShouldRestoreOnException() {
+        TenantContext.setCurrentTenant("tenant-a");
+        try {
+            TenantContext.runWhere("tenant-b", () -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException expected) {
+            // restored below
+        }
+        assertEquals("tenant-a", TenantContext.getCurrentTenant());
+    }
+
+    @Test
+    public void bind_ShouldNotLeakIntoOtherThreads() throws Exception {
+        try (TenantContext.Scope ignored = TenantContext.bind("tenant-a")) {
+            String[] seen = new String[1];
+            Thread thread = Thread.ofVirtual().start(() -> seen[0] = TenantContext.getCurrentTenant());
+            thread.join();
+            assertNull(seen[0]);
+        }
+    }
+}
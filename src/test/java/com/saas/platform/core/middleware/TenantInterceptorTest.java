@@ -0,0 +1,71 @@
+package com.saas.platform.core.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.sharding.ShardDirectory;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TenantInterceptorTest {
+
+    private TenantInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        TenantDirectory tenantDirectory = mock(TenantDirectory.class);
+        when(tenantDirectory.findBySubdomain("acme")).thenReturn(Optional.of(
+                new TenantDirectory.Entry("t1", "acme", "active", "free", 5, 5, 0)));
+        interceptor = new TenantInterceptor(tenantDirectory, mock(ShardDirectory.class), new ObjectMapper());
+        request = new MockHttpServletRequest("GET", "/api/tasks/export");
+        request.setServerName("acme.saas.com");
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void afterCompletion_ShouldUnbindTheSubdomainTenant() throws Exception {
+        interceptor.preHandle(request, response, null);
+        assertEquals("t1", TenantContext.getCurrentTenant());
+
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertNull(TenantContext.getCurrentTenant());
+    }
+
+    @Test
+    public void asyncRequest_ShouldUnbindOnTheThreadOfEachDispatch() throws Exception {
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertNull(TenantContext.getCurrentTenant());
+
+        // The async dispatch that completes the response runs on another container thread
+        String leftBound = CompletableFuture.supplyAsync(() -> {
+            try {
+                interceptor.preHandle(request, response, null);
+                interceptor.afterCompletion(request, response, null, null);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return TenantContext.getCurrentTenant();
+        }).get();
+
+        assertNull(leftBound);
+    }
+}
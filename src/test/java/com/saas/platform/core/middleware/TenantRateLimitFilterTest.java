@@ -0,0 +1,77 @@
+package com.saas.platform.core.middleware;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TenantRateLimitFilterTest {
+
+    private TenantDirectory tenantDirectory;
+    private SimpleMeterRegistry meterRegistry;
+    private TenantRateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        tenantDirectory = mock(TenantDirectory.class);
+        plan("free");
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new TenantRateLimitFilter(tenantDirectory, meterRegistry, new ObjectMapper());
+        TenantContext.setCurrentTenant("t1");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void doFilter_ShouldRejectWritesBeyondTheFreeBurstAndCountThem() throws Exception {
+        // Free plan: write burst of 10, no waiting allowed (max-wait-ms unset)
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, post().getStatus());
+        }
+        MockHttpServletResponse rejected = post();
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("tenant.ratelimit.rejected").tag("kind", "write").counter().count());
+        assertEquals(10, meterRegistry.get("tenant.ratelimit.wait").tag("kind", "write").timer().count());
+    }
+
+    @Test
+    public void doFilter_ShouldStartFullBucketsWhenThePlanChanges() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            post();
+        }
+        assertEquals(429, post().getStatus());
+
+        plan("pro");
+
+        assertEquals(200, post().getStatus());
+        // Same meters across the plan change
+        assertEquals(1, meterRegistry.find("tenant.ratelimit.rejected").tag("kind", "write").counters().size());
+    }
+
+    private MockHttpServletResponse post() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(new MockHttpServletRequest("POST", "/api/tasks"), response, new MockFilterChain());
+        return response;
+    }
+
+    private void plan(String plan) {
+        when(tenantDirectory.findById("t1")).thenReturn(Optional.of(
+                new TenantDirectory.Entry("t1", "acme", "active", plan, 5, 5, 0)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.saas.platform.core.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit vs miss cost of {@link JwtService#verify}.
+ * Run from the IDE, or after {@code mvn test-compile} with the test classpath:
+ * {@code java -cp target/test-classes:target/classes:<deps> com.saas.platform.core.security.JwtServiceBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", JwtServiceTest.SECRET);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", 10000);
+        jwtService.init();
+        token = jwtService.generateToken("admin@demo.com", "tenant-1", "tenant_admin");
+        jwtService.verify(token);
+    }
+
+    // Repeat request from the same session
+    @Benchmark
+    public JwtPrincipal verifyCacheHit() {
+        return jwtService.verify(token);
+    }
+
+    // First request with a token: HMAC check + claim parsing
+    @Benchmark
+    public JwtPrincipal verifyCacheMiss() {
+        return jwtService.parse(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.saas.platform.core.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtServiceTest {
+
+    // 256-bit test key, Base64 encoded
+    static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1qd3Qtc2VydmljZS10ZXN0cy0xMjM0NTY3OA==";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxEntries", 100);
+        jwtService.init();
+    }
+
+    @Test
+    public void verify_ShouldExtractAllClaimsInOnePass() {
+        String token = jwtService.generateToken("admin@demo.com", "tenant-1", "tenant_admin");
+
+        JwtPrincipal principal = jwtService.verify(token);
+
+        assertEquals("admin@demo.com", principal.subject());
+        assertEquals("tenant-1", principal.tenantId());
+        assertEquals("tenant_admin", principal.role());
+    }
+
+    @Test
+    public void verify_ShouldServeRepeatTokensFromCache() {
+        String token = jwtService.generateToken("user1@demo.com", "tenant-1", "user");
+
+        assertSame(jwtService.verify(token), jwtService.verify(token));
+    }
+
+    @Test
+    public void verify_ShouldRejectTamperedTokens() {
+        String token = jwtService.generateToken("user1@demo.com", "tenant-1", "user");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+}
@@ -0,0 +1,101 @@
+package com.saas.platform.core.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShardDirectoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardDirectory directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(mock(DataSource.class),
+                Map.of("s1", mock(DataSource.class)));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.isWrapperFor(ShardRoutingDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(ShardRoutingDataSource.class)).thenReturn(routing);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        directory = new ShardDirectory(dataSource, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    public void refresh_ShouldLoadPlacementsAndSkipUnknownShards() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(
+                row("t1", "s1", "active"),
+                row("t2", "s1", "frozen"),
+                row("t3", "gone", "active")));
+
+        directory.refresh();
+
+        assertTrue(directory.isSharded());
+        assertEquals(Set.of("main", "s1"), directory.shardIds());
+        assertEquals("s1", directory.shardFor("t1"));
+        assertFalse(directory.isWriteFrozen("t1"));
+        assertTrue(directory.isWriteFrozen("t2"));
+        assertEquals(ShardDirectory.MAIN, directory.shardFor("t3"));
+        assertEquals(ShardDirectory.MAIN, directory.shardFor("unplaced"));
+        assertEquals(ShardDirectory.MAIN, directory.shardFor(null));
+    }
+
+    @Test
+    public void refresh_ShouldDropPlacementsRemovedFromTheTable() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(row("t1", "s1", "active")));
+        directory.refresh();
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of());
+
+        directory.refresh();
+
+        assertEquals(ShardDirectory.MAIN, directory.shardFor("t1"));
+    }
+
+    @Test
+    public void refresh_ShouldKeepPlacementsUpdatedWhileTheQueryRuns() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(row("t1", "main", "active")));
+        directory.refresh();
+        // The move commits t1 -> s1 and registers t2 after the SELECT read the table
+        when(jdbcTemplate.queryForList(anyString())).thenAnswer(invocation -> {
+            directory.update("t1", "s1", ShardDirectory.Status.ACTIVE);
+            directory.update("t2", "s1", ShardDirectory.Status.ACTIVE);
+            return List.of(row("t1", "main", "active"));
+        });
+
+        directory.refresh();
+
+        assertEquals("s1", directory.shardFor("t1"));
+        assertEquals("s1", directory.shardFor("t2"));
+    }
+
+    @Test
+    public void assign_ShouldPlaceNewTenantsOnTheLeastLoadedShard() {
+        when(jdbcTemplate.queryForList(anyString())).thenReturn(List.of(row("t1", "main", "active")));
+        directory.refresh();
+
+        assertEquals("s1", directory.assign("t2"));
+        assertEquals("s1", directory.shardFor("t2"));
+        // main: t1, s1: t2 - a tie goes to the first shard id
+        assertEquals("main", directory.assign("t3"));
+    }
+
+    private static Map<String, Object> row(String tenantId, String shardId, String status) {
+        return Map.of("tenant_id", tenantId, "shard_id", shardId, "status", status);
+    }
+}
@@ -0,0 +1,78 @@
+package com.saas.platform.core.sharding;
+
+import com.saas.platform.core.middleware.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ShardRoutingDataSourceTest {
+
+    private ShardRoutingDataSource routing;
+
+    @BeforeEach
+    public void setUp() {
+        routing = new ShardRoutingDataSource(mock(DataSource.class), Map.of("s1", mock(DataSource.class)));
+        routing.setPlacement(tenantId -> "t1".equals(tenantId) ? "s1" : ShardRoutingDataSource.MAIN);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void lookupKey_ShouldPreferExplicitShardThenTenantPlacementThenMain() {
+        assertEquals(ShardRoutingDataSource.MAIN, routing.determineCurrentLookupKey());
+
+        TenantContext.setCurrentTenant("t1");
+        assertEquals("s1", routing.determineCurrentLookupKey());
+
+        // ShardContext unbinds the tenant inside and wins over any placement
+        assertEquals(ShardRoutingDataSource.MAIN,
+                ShardContext.callOn(ShardRoutingDataSource.MAIN, routing::determineCurrentLookupKey));
+        assertEquals("s1", routing.determineCurrentLookupKey());
+
+        TenantContext.setCurrentTenant("t2");
+        assertEquals(ShardRoutingDataSource.MAIN, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void awaitWritesDrained_ShouldWaitForOpenReadWriteTransactionsOfTheTenant() throws Exception {
+        TenantContext.setCurrentTenant("t1");
+        TransactionSynchronizationManager.initSynchronization();
+        routing.determineCurrentLookupKey();
+
+        assertFalse(routing.awaitWritesDrained("t1", 30));
+        assertTrue(routing.awaitWritesDrained("t2", 30));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(routing.awaitWritesDrained("t1", 30));
+    }
+
+    @Test
+    public void awaitWritesDrained_ShouldNotCountReadOnlyTransactions() throws Exception {
+        TenantContext.setCurrentTenant("t1");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routing.determineCurrentLookupKey();
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        assertTrue(routing.awaitWritesDrained("t1", 30));
+    }
+}
@@ -0,0 +1,83 @@
+package com.saas.platform.core.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ShardScatterGatherTest {
+
+    // Later shards answer first, so the result order has to come from the shard order
+    private static final Map<String, Long> DELAY_MS = Map.of("main", 60L, "s1", 30L, "s2", 0L);
+
+    private ShardDirectory shardDirectory;
+    private ShardScatterGather scatterGather;
+
+    @BeforeEach
+    public void setUp() {
+        shardDirectory = mock(ShardDirectory.class);
+        when(shardDirectory.isSharded()).thenReturn(true);
+        when(shardDirectory.shardIds()).thenReturn(new LinkedHashSet<>(List.of("main", "s1", "s2")));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        scatterGather = new ShardScatterGather(shardDirectory, new SimpleAsyncTaskExecutor(), transactionManager);
+    }
+
+    @Test
+    public void query_ShouldReturnOneResultPerShardInShardOrder() {
+        List<String> shards = scatterGather.query(() -> {
+            String shard = ShardContext.getCurrentShard();
+            sleep(DELAY_MS.get(shard));
+            return shard;
+        });
+
+        assertEquals(List.of("main", "s1", "s2"), shards);
+    }
+
+    @Test
+    public void queryMerged_ShouldSortAcrossShardsAndKeepTheFirstRows() {
+        Map<String, List<Integer>> rows = Map.of("main", List.of(1, 7), "s1", List.of(2, 3), "s2", List.of(5, 9));
+
+        List<Integer> merged = scatterGather.queryMerged(() -> rows.get(ShardContext.getCurrentShard()),
+                Comparator.naturalOrder(), 4);
+
+        assertEquals(List.of(1, 2, 3, 5), merged);
+    }
+
+    @Test
+    public void forEachShard_ShouldBindEachShardInTurn() {
+        List<String> seen = new ArrayList<>();
+
+        scatterGather.forEachShard(shardId -> seen.add(shardId + "=" + ShardContext.getCurrentShard()));
+
+        assertEquals(List.of("main=main", "s1=s1", "s2=s2"), seen);
+    }
+
+    @Test
+    public void query_ShouldRunOnceWithoutShardBindingWhenNotSharded() {
+        when(shardDirectory.isSharded()).thenReturn(false);
+
+        assertEquals(List.of("unbound"), scatterGather.query(() ->
+                ShardContext.getCurrentShard() == null ? "unbound" : ShardContext.getCurrentShard()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
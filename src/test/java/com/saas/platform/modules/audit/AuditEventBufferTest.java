@@ -0,0 +1,72 @@
+package com.saas.platform.modules.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditEventBufferTest {
+
+    @Test
+    public void offer_ShouldRejectWhenFull() {
+        AuditEventBuffer buffer = new AuditEventBuffer(4);
+
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertTrue(buffer.offer(event(i)));
+        }
+        assertFalse(buffer.offer(event(99)));
+
+        List<AuditEvent> drained = new ArrayList<>();
+        assertEquals(buffer.capacity(), buffer.drainTo(drained, 100));
+        assertTrue(buffer.offer(event(100)));
+    }
+
+    @Test
+    public void drainTo_ShouldDeliverEveryEventFromConcurrentProducers() throws Exception {
+        AuditEventBuffer buffer = new AuditEventBuffer(1024);
+        int producers = 8;
+        int perProducer = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(event(base + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            buffer.drainTo(batch, 256);
+            batch.forEach(e -> seen.add(e.details()));
+            batch.clear();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertEquals(producers * perProducer, seen.size());
+        assertEquals(0, buffer.size());
+    }
+
+    private static AuditEvent event(int n) {
+        return new AuditEvent("tenant-1", "TEST", String.valueOf(n), LocalDateTime.now());
+    }
+}
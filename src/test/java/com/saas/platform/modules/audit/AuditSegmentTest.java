@@ -0,0 +1,87 @@
+package com.saas.platform.modules.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 23, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void read_ShouldReturnAllRowsNewestFirst() throws Exception {
+        Path file = writeSegment(1000);
+
+        List<AuditLog> rows = AuditSegment.read(file, "t1", null, null, row -> true, Integer.MAX_VALUE);
+
+        assertEquals(1000, rows.size());
+        assertEquals("id-999", rows.get(0).getId());
+        assertEquals(START.minusSeconds(999), rows.get(999).getTimestamp());
+        assertEquals("t1", rows.get(0).getTenantId());
+        assertNull(rows.get(0).getDetails());
+        assertEquals("details 0", rows.get(1000 - 1).getDetails());
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    public void read_ShouldHonourRangeAndMax() throws Exception {
+        Path file = writeSegment(1000);
+
+        // [START - 600s, START - 100s) spans several blocks
+        List<AuditLog> rows = AuditSegment.read(file, "t1", START.minusSeconds(600), START.minusSeconds(100),
+                row -> true, Integer.MAX_VALUE);
+        assertEquals(500, rows.size());
+        assertEquals(START.minusSeconds(101), rows.get(0).getTimestamp());
+        assertEquals(START.minusSeconds(600), rows.get(499).getTimestamp());
+
+        List<AuditLog> limited = AuditSegment.read(file, "t1", null, null,
+                row -> row.getAction().equals("EVEN"), 10);
+        assertEquals(10, limited.size());
+        assertTrue(limited.stream().allMatch(row -> row.getAction().equals("EVEN")));
+    }
+
+    @Test
+    public void read_ShouldRejectFilesThatAreNotSegments() throws Exception {
+        Path file = writeSegment(10);
+        Path truncated = dir.resolve("truncated.seg");
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(file), 8));
+        Path garbage = dir.resolve("garbage.seg");
+        Files.write(garbage, new byte[64]);
+
+        assertThrows(IOException.class, () -> AuditSegment.read(truncated, "t1", null, null, row -> true, 10));
+        assertThrows(IOException.class, () -> AuditSegment.read(garbage, "t1", null, null, row -> true, 10));
+    }
+
+    // id-i is stamped START - (n - 1 - i) seconds; written newest first like the export query
+    private Path writeSegment(int n) throws Exception {
+        Path file = dir.resolve("t1").resolve("2025-01.seg");
+        try (AuditSegment.Writer writer = AuditSegment.create(file)) {
+            for (int i = n - 1; i >= 0; i--) {
+                AuditLog row = new AuditLog();
+                row.setId("id-" + i);
+                row.setTenantId("t1");
+                row.setAction(i % 2 == 0 ? "EVEN" : "ODD");
+                row.setDetails(i % 2 == 0 ? "details " + i : null);
+                row.setTimestamp(START.minusSeconds(n - 1 - i));
+                writer.append(row);
+            }
+            writer.commit();
+        }
+        return file;
+    }
+}
@@ -3,9 +3,14 @@ package com.saas.platform.modules.auth;
 import com.saas.platform.core.common.ApiResponse;
 import com.saas.platform.core.config.SecurityConfig;
 import com.saas.platform.core.middleware.TenantFilter;
+import com.saas.platform.core.middleware.TenantRateLimitFilter;
 import com.saas.platform.core.security.JwtAuthFilter;
 import com.saas.platform.core.security.JwtService;
+import com.saas.platform.core.security.UserStateCache;
+import com.saas.platform.core.sharding.ShardDirectory;
+import com.saas.platform.modules.tenant.TenantDirectory;
 import com.saas.platform.modules.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -25,7 +30,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthController.class)
-@Import({SecurityConfig.class, JwtAuthFilter.class, TenantFilter.class})
+@Import({SecurityConfig.class, JwtAuthFilter.class, TenantFilter.class, TenantRateLimitFilter.class})
 public class AuthControllerTest {
 
     @Autowired
@@ -39,6 +44,18 @@ public class AuthControllerTest {
 
     @MockBean
     private UserDetailsService userDetailsService;
+
+    @MockBean
+    private UserStateCache userStateCache;
+
+    @MockBean
+    private TenantDirectory tenantDirectory;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private ShardDirectory shardDirectory;
     
     @Test
     @WithMockUser(username = "test@example.com", roles = "user")
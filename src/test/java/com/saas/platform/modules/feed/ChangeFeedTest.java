@@ -0,0 +1,80 @@
+package com.saas.platform.modules.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChangeFeedTest {
+
+    private final ChangeFeed feed = new ChangeFeed(new ObjectMapper(), new SimpleMeterRegistry(), 3, 60_000, 16, 60_000);
+
+    @Test
+    public void replay_ShouldReturnTheTenantsEventsAfterTheLastId() {
+        feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":1}");
+        feed.publish("t2", ChangeFeed.CHANGE, "{\"other\":true}");
+        feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":2}");
+        feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":3}");
+
+        String first = feed.replay("t1", idBefore(feed, 1)).get(0).id();
+        List<ChangeFeed.Event> events = feed.replay("t1", first);
+
+        assertEquals(List.of("{\"n\":2}", "{\"n\":3}"), events.stream().map(ChangeFeed.Event::data).toList());
+        assertTrue(feed.replay("t1", events.get(1).id()).isEmpty());
+        assertTrue(feed.replay("t1", null).isEmpty());
+    }
+
+    @Test
+    public void replay_ShouldResetOnceTheWindowNoLongerReachesBack() {
+        feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":1}");
+        String first = feed.replay("t1", idBefore(feed, 1)).get(0).id();
+        for (int i = 2; i <= 4; i++) {
+            feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":" + i + "}");
+        }
+
+        // Window of 3 now holds 2..4; event 1 was evicted, so everything after it is still there
+        assertEquals(3, feed.replay("t1", first).size());
+        feed.publish("t1", ChangeFeed.CHANGE, "{\"n\":5}");
+        assertEquals(ChangeFeed.RESET, feed.replay("t1", first).get(0).name());
+    }
+
+    @Test
+    public void replay_ShouldResetForIdsOfAnotherInstance() {
+        feed.publish("t1", ChangeFeed.CHANGE, "{}");
+
+        List<ChangeFeed.Event> events = feed.replay("t1", "otherepoch-1");
+
+        assertEquals(1, events.size());
+        assertEquals(ChangeFeed.RESET, events.get(0).name());
+    }
+
+    @Test
+    public void subscribe_ShouldResetInsteadOfReplayingMoreThanTheSubscriberBufferHolds() {
+        ChangeFeed small = new ChangeFeed(new ObjectMapper(), new SimpleMeterRegistry(), 8, 60_000, 4, 60_000);
+        String before = idBefore(small, 1);
+        for (int i = 1; i <= 3; i++) {
+            small.publish("t1", ChangeFeed.CHANGE, "{\"n\":" + i + "}");
+        }
+        // Heartbeat plus three events fill the buffer of 4 exactly
+        assertEquals(3, small.replay("t1", before).size());
+
+        small.publish("t1", ChangeFeed.CHANGE, "{\"n\":4}");
+        List<ChangeFeed.Event> events = small.replay("t1", before);
+        assertEquals(1, events.size());
+        assertEquals(ChangeFeed.RESET, events.get(0).name());
+
+        // The reconnect is registered rather than closed as too slow while subscribing
+        small.subscribe("t1", before);
+        assertEquals(1, small.subscribers());
+    }
+
+    // An id of this instance from before the first event
+    private static String idBefore(ChangeFeed feed, int seq) {
+        String reset = feed.replay("t0", "unknown-0").get(0).id();
+        return reset.substring(0, reset.lastIndexOf('-') + 1) + (seq - 1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.saas.platform.modules.project;
+
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.common.UuidBinaryConverter;
+import com.saas.platform.core.middleware.AuditLogger;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import com.saas.platform.modules.tenant.QuotaLedger;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import com.saas.platform.modules.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProjectServiceTest {
+
+    private static final String TENANT = "0190f5a4-0000-7000-8000-000000000001";
+    private static final String USER = "0190f5a4-0000-7000-8000-000000000002";
+
+    private ProjectRepository projectRepository;
+    private UserRepository userRepository;
+    private ProjectService projectService;
+
+    @BeforeEach
+    public void setUp() {
+        projectRepository = mock(ProjectRepository.class);
+        userRepository = mock(UserRepository.class);
+        TenantDirectory tenantDirectory = mock(TenantDirectory.class);
+        when(tenantDirectory.findById(TENANT)).thenReturn(Optional.of(
+                new TenantDirectory.Entry(TENANT, "acme", "active", "pro", 25, 15, 0)));
+        QuotaLedger quotaLedger = mock(QuotaLedger.class);
+        when(quotaLedger.tryReserve(eq(TENANT), eq(QuotaLedger.Resource.PROJECTS), anyInt())).thenReturn(true);
+        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        projectService = new ProjectService(projectRepository, tenantDirectory, userRepository, quotaLedger,
+                mock(AuditLogger.class), mock(ShardScatterGather.class), mock(JsonRowStreamer.class),
+                mock(ApplicationEventPublisher.class), mock(ProjectReadCache.class));
+        TenantContext.setCurrentTenant(TENANT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void createProject_ShouldStoreTheCallersUserIdNotTheirEmail() {
+        when(userRepository.findIdsByEmailForTenant("superadmin@system.com", TENANT)).thenReturn(List.of(USER));
+
+        projectService.createProject(newProject(), "superadmin@system.com");
+
+        Project saved = savedProject();
+        assertEquals(USER, saved.getCreatedBy());
+        // What the BINARY(16) column receives
+        assertEquals(USER, UuidBinaryConverter.fromBytes(new UuidBinaryConverter().convertToDatabaseColumn(saved.getCreatedBy())));
+    }
+
+    @Test
+    public void createProject_ShouldLeaveCreatedByEmptyWhenTheCallerHasNoUserRow() {
+        when(userRepository.findIdsByEmailForTenant("gone@acme.test", TENANT)).thenReturn(List.of());
+
+        projectService.createProject(newProject(), "gone@acme.test");
+
+        assertNull(savedProject().getCreatedBy());
+    }
+
+    private Project savedProject() {
+        ArgumentCaptor<Project> project = ArgumentCaptor.forClass(Project.class);
+        verify(projectRepository).save(project.capture());
+        return project.getValue();
+    }
+
+    private static Project newProject() {
+        Project project = new Project();
+        project.setName("Launch");
+        return project;
+    }
+}
@@ -0,0 +1,82 @@
+package com.saas.platform.modules.search;
+
+import com.saas.platform.core.common.EntityChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TenantIndexTest {
+
+    private static final EntityChange.Kind PROJECT = EntityChange.Kind.PROJECT;
+    private static final EntityChange.Kind TASK = EntityChange.Kind.TASK;
+
+    @Test
+    public void search_ShouldRankExactTitleMatchesFirst() {
+        TenantIndex index = new TenantIndex();
+        index.put(TASK, "t1", "p1", "Fix login bug", "Users cannot sign in");
+        index.put(TASK, "t2", "p1", "Refactor auth", "The login form is slow");
+        index.put(TASK, "t3", "p1", "Update relogin flow", null);
+        index.put(PROJECT, "p1", null, "Website", "Public site and login");
+
+        TenantIndex.Result result = index.search("login", null, 0, 10);
+
+        assertEquals(4, result.total());
+        assertEquals("t1", result.hits().get(0).id()); // exact word in the title
+        assertEquals(4, result.hits().get(0).score());
+        // substring in a title scores like an exact word in a description; ties newest first
+        assertEquals(List.of("p1", "t3", "t2"), ids(result).subList(1, 4));
+    }
+
+    @Test
+    public void search_ShouldRequireEveryWordAndFilterByKind() {
+        TenantIndex index = new TenantIndex();
+        index.put(TASK, "t1", "p1", "Fix login bug", null);
+        index.put(TASK, "t2", "p1", "Fix payment bug", null);
+        index.put(PROJECT, "p1", null, "Bug bash", null);
+
+        assertEquals(List.of("t1"), ids(index.search("bug LOGIN", null, 0, 10)));
+        assertEquals(List.of("p1"), ids(index.search("bug", PROJECT, 0, 10)));
+        assertEquals(0, index.search("refund", null, 0, 10).total());
+    }
+
+    @Test
+    public void put_ShouldReplaceAndRemoveShouldDropProjectTasks() {
+        TenantIndex index = new TenantIndex();
+        index.put(PROJECT, "p1", null, "Mobile app", null);
+        index.put(TASK, "t1", "p1", "Crash on start", null);
+        index.put(TASK, "t2", "p2", "Crash on exit", null);
+
+        index.put(TASK, "t2", "p2", "Slow exit", null);
+        assertEquals(List.of("t1"), ids(index.search("crash", null, 0, 10)));
+
+        index.remove(PROJECT, "p1");
+        assertEquals(0, index.search("crash", null, 0, 10).total());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void search_ShouldPageAndSurviveCompaction() {
+        TenantIndex index = new TenantIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.put(TASK, "t" + i, "p1", "Task number " + i, "backlog item");
+        }
+        for (int i = 0; i < 4000; i++) {
+            index.remove(TASK, "t" + i);
+        }
+
+        assertEquals(1000, index.size());
+        TenantIndex.Result first = index.search("backlog", TASK, 0, 100);
+        TenantIndex.Result second = index.search("backlog", TASK, 100, 100);
+        assertEquals(1000, first.total());
+        assertEquals("t4999", first.hits().get(0).id());
+        assertEquals("t4899", second.hits().get(0).id());
+        assertTrue(index.search("4321", null, 0, 10).hits().stream().allMatch(hit -> hit.id().equals("t4321")));
+    }
+
+    private static List<String> ids(TenantIndex.Result result) {
+        return result.hits().stream().map(TenantIndex.Hit::id).toList();
+    }
+}
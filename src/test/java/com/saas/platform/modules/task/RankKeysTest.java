@@ -0,0 +1,72 @@
+package com.saas.platform.modules.task;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RankKeysTest {
+
+    @Test
+    public void between_ShouldSortStrictlyBetweenItsBounds() {
+        assertBetween(null, null);
+        assertBetween(null, "1");
+        assertBetween("a", "b");
+        assertBetween("a", "a1");
+        assertBetween("a", "a01");
+        assertBetween("z", null);
+        assertBetween("zzz", null);
+        assertBetween("0001", "0003");
+    }
+
+    @Test
+    public void between_ShouldKeepFindingRoomForRandomMoves() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>(RankKeys.spread(10));
+        for (int i = 0; i < 2000; i++) {
+            int at = random.nextInt(keys.size() + 1);
+            String key = RankKeys.between(at == 0 ? null : keys.get(at - 1), at == keys.size() ? null : keys.get(at));
+            keys.add(at, key);
+        }
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void between_ShouldRejectBoundsOutOfOrder() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+    }
+
+    @Test
+    public void spread_ShouldGiveAscendingKeysOfOneWidthWithRoomBetween() {
+        List<String> keys = RankKeys.spread(5000);
+
+        assertEquals(5000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+            assertEquals(keys.get(0).length(), keys.get(i).length());
+            // A handful of moves into the same gap stay at the same width
+            String lower = keys.get(i - 1);
+            for (int move = 0; move < 5; move++) {
+                lower = RankKeys.between(lower, keys.get(i));
+            }
+            assertTrue(lower.length() <= keys.get(i).length());
+        }
+        assertTrue(keys.get(0).length() <= 4);
+    }
+
+    private static void assertBetween(String lower, String upper) {
+        String key = RankKeys.between(lower, upper);
+        assertTrue(lower == null || lower.compareTo(key) < 0, key + " <= " + lower);
+        assertTrue(upper == null || key.compareTo(upper) < 0, key + " >= " + upper);
+        assertFalse(key.endsWith("0"), key);
+    }
+}
@@ -0,0 +1,180 @@
+package com.saas.platform.modules.task;
+
+import com.saas.platform.core.common.CursorPage;
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.exception.ResourceNotFoundException;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.modules.project.Project;
+import com.saas.platform.modules.project.ProjectReadCache;
+import com.saas.platform.modules.project.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the board SQL against H2 in MySQL mode: tasks as in V7-V10 (binary ids, the V9 generated sort keys,
+ * rank_key) and UUID_TO_BIN / BIN_TO_UUID as Java aliases.
+ */
+public class TaskBoardServiceTest {
+
+    private static final String TENANT = id(1000);
+    private static final String OTHER_TENANT = id(2000);
+    private static final String PROJECT = id(100);
+
+    private JdbcTemplate jdbc;
+    private ProjectReadCache readCache;
+    private TaskBoardService boardService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:board-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+        jdbc.execute("CREATE ALIAS UUID_TO_BIN FOR \"" + TaskBoardServiceTest.class.getName() + ".uuidToBin\"");
+        jdbc.execute("CREATE ALIAS BIN_TO_UUID FOR \"" + TaskBoardServiceTest.class.getName() + ".binToUuid\"");
+        jdbc.execute("CREATE TABLE tasks (" +
+                "id BINARY(16) PRIMARY KEY, project_id BINARY(16) NOT NULL, tenant_id BINARY(16) NOT NULL, " +
+                "title VARCHAR(255) NOT NULL, description TEXT, status VARCHAR(50), priority VARCHAR(50), " +
+                "assigned_to BINARY(16), due_date DATE, created_at TIMESTAMP, updated_at TIMESTAMP, " +
+                "version BIGINT NOT NULL DEFAULT 0, rank_key VARCHAR(64), " +
+                "priority_rank TINYINT GENERATED ALWAYS AS " +
+                "(CASE LOWER(priority) WHEN 'high' THEN 0 WHEN 'medium' THEN 1 WHEN 'low' THEN 2 ELSE 3 END), " +
+                "due_key DATE GENERATED ALWAYS AS (IFNULL(due_date, DATE '9999-12-31')))");
+
+        readCache = mock(ProjectReadCache.class);
+        when(readCache.project(eq(TENANT), eq(PROJECT), any())).thenReturn(new Project());
+        boardService = new TaskBoardService(jdbc, mock(ProjectRepository.class), readCache);
+        TenantContext.setCurrentTenant(TENANT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void getBoard_ShouldOrderEachBucketByPriorityThenDueDateWithUndatedLast() {
+        insert(1, TENANT, "todo", "low", LocalDate.of(2025, 1, 1), "a");
+        insert(2, TENANT, "todo", "high", null, "b");
+        insert(3, TENANT, "todo", "high", LocalDate.of(2025, 1, 5), "c");
+        insert(4, TENANT, "todo", "medium", LocalDate.of(2025, 1, 1), "d");
+        insert(5, TENANT, "todo", null, null, "e");
+
+        TaskBoardService.Bucket todo = boardService.getBoard(PROJECT, null, null).buckets().get(0);
+
+        assertEquals("todo", todo.status());
+        assertEquals(List.of(id(3), id(2), id(4), id(1), id(5)), ids(todo.tasks()));
+        assertEquals(5, todo.count());
+        assertNull(todo.nextCursor());
+    }
+
+    @Test
+    public void getBoard_ShouldLimitEachBucketAndKeepEmptyBucketsInPlace() {
+        for (int i = 1; i <= 3; i++) {
+            insert(i, TENANT, "todo", "medium", null, "k" + i);
+        }
+        insert(4, TENANT, "in_progress", "high", null, "k4");
+        insert(5, TENANT, "archived", "high", null, "k5");
+        insert(6, OTHER_TENANT, "todo", "high", null, "k6");
+
+        List<TaskBoardService.Bucket> buckets = boardService.getBoard(PROJECT, "priority", 2).buckets();
+
+        assertEquals(TaskBoardService.BUCKETS, buckets.stream().map(TaskBoardService.Bucket::status).toList());
+        assertEquals(3, buckets.get(0).count());
+        assertEquals(List.of(id(1), id(2)), ids(buckets.get(0).tasks()));
+        assertNotNull(buckets.get(0).nextCursor());
+        assertEquals(1, buckets.get(1).count());
+        assertNull(buckets.get(1).nextCursor());
+        assertEquals(0, buckets.get(2).count());
+        assertEquals(List.of(), buckets.get(2).tasks());
+        assertNull(buckets.get(2).nextCursor());
+    }
+
+    @Test
+    public void getBucket_ShouldContinueAfterTheBoardCursorInTheSameOrder() {
+        insert(1, TENANT, "todo", "low", null, "a");
+        insert(2, TENANT, "todo", "high", null, "b");
+        insert(3, TENANT, "todo", "medium", LocalDate.of(2025, 3, 1), "c");
+        insert(4, TENANT, "todo", "medium", null, "d");
+        String cursor = boardService.getBoard(PROJECT, null, 1).buckets().get(0).nextCursor();
+
+        CursorPage<Task> page = boardService.getBucket(PROJECT, "todo", cursor, 2);
+        assertEquals(List.of(id(3), id(4)), ids(page.items()));
+
+        CursorPage<Task> last = boardService.getBucket(PROJECT, "todo", page.nextCursor(), 2);
+        assertEquals(List.of(id(1)), ids(last.items()));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    public void getBoard_ShouldFollowTheManualOrderWithOrderRank() {
+        insert(1, TENANT, "todo", "high", null, "m");
+        insert(2, TENANT, "todo", "low", null, "b");
+        insert(3, TENANT, "todo", "medium", null, "f");
+
+        TaskBoardService.Bucket todo = boardService.getBoard(PROJECT, "rank", 2).buckets().get(0);
+        assertEquals(List.of(id(2), id(3)), ids(todo.tasks()));
+
+        CursorPage<Task> rest = boardService.getBucket(PROJECT, "todo", todo.nextCursor(), 2);
+        assertEquals(List.of(id(1)), ids(rest.items()));
+    }
+
+    @Test
+    public void getBucket_ShouldRejectCursorsOfAnotherBucket() {
+        insert(1, TENANT, "todo", "high", null, "a");
+        insert(2, TENANT, "todo", "high", null, "b");
+        String cursor = boardService.getBoard(PROJECT, null, 1).buckets().get(0).nextCursor();
+
+        assertThrows(BadRequestException.class, () -> boardService.getBucket(PROJECT, "completed", cursor, 2));
+        assertThrows(BadRequestException.class, () -> boardService.getBoard(PROJECT, "title", 2));
+    }
+
+    @Test
+    public void getBoard_ShouldNotShowAnotherTenantsProject() {
+        TenantContext.setCurrentTenant(OTHER_TENANT);
+
+        assertThrows(ResourceNotFoundException.class, () -> boardService.getBoard(PROJECT, null, null));
+    }
+
+    private void insert(int n, String tenantId, String status, String priority, LocalDate dueDate, String rank) {
+        jdbc.update("INSERT INTO tasks (id, project_id, tenant_id, title, status, priority, due_date, rank_key) " +
+                        "VALUES (UUID_TO_BIN(?), UUID_TO_BIN(?), UUID_TO_BIN(?), ?, ?, ?, ?, ?)",
+                id(n), PROJECT, tenantId, "Task " + n, status, priority, dueDate, rank);
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    // Ids that sort like the numbers they carry
+    private static String id(int n) {
+        return new UUID(0, n).toString();
+    }
+
+    public static byte[] uuidToBin(String uuid) {
+        if (uuid == null) return null;
+        UUID value = UUID.fromString(uuid);
+        return ByteBuffer.allocate(16).putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits()).array();
+    }
+
+    public static String binToUuid(byte[] bin) {
+        if (bin == null) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(bin);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
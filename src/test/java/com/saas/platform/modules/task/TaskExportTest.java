@@ -0,0 +1,195 @@
+package com.saas.platform.modules.task;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.cache.ResponseCache;
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.config.SecurityConfig;
+import com.saas.platform.core.middleware.AuditLogger;
+import com.saas.platform.core.middleware.TenantFilter;
+import com.saas.platform.core.middleware.TenantRateLimitFilter;
+import com.saas.platform.core.security.JwtAuthFilter;
+import com.saas.platform.core.security.JwtPrincipal;
+import com.saas.platform.core.security.JwtService;
+import com.saas.platform.core.security.UserStateCache;
+import com.saas.platform.core.sharding.ShardDirectory;
+import com.saas.platform.core.sharding.ShardScatterGather;
+import com.saas.platform.modules.project.ProjectReadCache;
+import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.modules.tenant.TenantDirectory;
+import com.saas.platform.modules.user.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks/export through the security chain: the StreamingResponseBody runs on an MVC async thread
+ * and the response completes in an ASYNC dispatch, which carries no authentication of its own and is let
+ * through by SecurityConfig's dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll().
+ * The rows come from the real JsonRowStreamer and TaskService SQL on H2 (MySQL mode).
+ */
+@WebMvcTest(TaskController.class)
+@Import({SecurityConfig.class, JwtAuthFilter.class, TenantFilter.class, TenantRateLimitFilter.class,
+        TaskExportTest.Metrics.class})
+public class TaskExportTest {
+
+    private static final String TENANT = new UUID(0, 1000).toString();
+    private static final String OTHER_TENANT = new UUID(0, 2000).toString();
+    private static final String PROJECT = new UUID(0, 100).toString();
+
+    @TestConfiguration
+    static class Metrics {
+        // Real meters: the rate limiter records every admitted request
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private TaskService taskService;
+
+    @MockBean
+    private TaskBoardService taskBoardService;
+
+    @MockBean
+    private ResponseCache responseCache;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @MockBean
+    private UserStateCache userStateCache;
+
+    @MockBean
+    private TenantDirectory tenantDirectory;
+
+    @MockBean
+    private ShardDirectory shardDirectory;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:export-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE ALIAS UUID_TO_BIN FOR \"" + TaskBoardServiceTest.class.getName() + ".uuidToBin\"");
+        jdbc.execute("CREATE ALIAS BIN_TO_UUID FOR \"" + TaskBoardServiceTest.class.getName() + ".binToUuid\"");
+        jdbc.execute("CREATE TABLE tasks (" +
+                "id BINARY(16) PRIMARY KEY, project_id BINARY(16) NOT NULL, tenant_id BINARY(16) NOT NULL, " +
+                "title VARCHAR(255) NOT NULL, description TEXT, status VARCHAR(50), priority VARCHAR(50), " +
+                "assigned_to BINARY(16), due_date DATE, created_at TIMESTAMP, updated_at TIMESTAMP, " +
+                "version BIGINT NOT NULL DEFAULT 0, rank_key VARCHAR(64))");
+        for (int i = 1; i <= 3; i++) {
+            insert(jdbc, i, TENANT, "Task \"" + i + "\"");
+        }
+        insert(jdbc, 4, OTHER_TENANT, "Not yours");
+
+        // Streaming without Connector/J's MIN_VALUE fetch size, which H2 rejects
+        JsonRowStreamer rowStreamer = new JsonRowStreamer(objectMapper, jdbc,
+                new DataSourceTransactionManager(dataSource), mock(ShardScatterGather.class));
+        TaskService realService = new TaskService(mock(TaskRepository.class), mock(ProjectRepository.class),
+                mock(UserRepository.class), mock(AuditLogger.class), mock(EntityManager.class), mock(Validator.class),
+                rowStreamer, mock(ApplicationEventPublisher.class), mock(ProjectReadCache.class), mock(TaskRanks.class));
+        when(taskService.streamTasks(any(), any(), any())).thenAnswer(invocation ->
+                realService.streamTasks(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        when(jwtService.verify("member-token")).thenReturn(
+                new JwtPrincipal("member@acme.test", TENANT, "user", Long.MAX_VALUE));
+        when(userStateCache.isAuthorized(any())).thenReturn(true);
+    }
+
+    @Test
+    public void exportTasks_ShouldStreamTheTenantsRowsAsOneJsonDocument() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/export").header("Authorization", "Bearer member-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode document = objectMapper.readTree(body);
+        assertEquals(true, document.get("success").asBoolean());
+        assertEquals("Tenant tasks retrieved", document.get("message").asText());
+        List<String> titles = new ArrayList<>();
+        for (JsonNode row : document.get("data")) {
+            assertEquals(TENANT, row.get("tenantId").asText());
+            titles.add(row.get("title").asText());
+        }
+        assertEquals(List.of("Task \"1\"", "Task \"2\"", "Task \"3\""), titles);
+    }
+
+    @Test
+    public void exportTasks_ShouldWriteOneObjectPerLineForNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/export").param("format", "ndjson")
+                        .header("Authorization", "Bearer member-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(JsonRowStreamer.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertEquals(TENANT, objectMapper.readTree(line).get("tenantId").asText());
+        }
+    }
+
+    @Test
+    public void exportTasks_ShouldRequireAuthenticationBeforeAnythingIsStreamed() throws Exception {
+        mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    private static void insert(JdbcTemplate jdbc, int n, String tenantId, String title) {
+        jdbc.update("INSERT INTO tasks (id, project_id, tenant_id, title, status, created_at) " +
+                        "VALUES (UUID_TO_BIN(?), UUID_TO_BIN(?), UUID_TO_BIN(?), ?, 'todo', ?)",
+                new UUID(0, n).toString(), PROJECT, tenantId, title, Timestamp.valueOf(LocalDateTime.of(2025, 1, n, 9, 0)));
+    }
+}
@@ -0,0 +1,234 @@
+package com.saas.platform.modules.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.platform.core.common.EntityChange;
+import com.saas.platform.core.common.JsonRowStreamer;
+import com.saas.platform.core.exception.ResourceNotFoundException;
+import com.saas.platform.core.middleware.AuditLogger;
+import com.saas.platform.core.middleware.TenantContext;
+import com.saas.platform.modules.project.ProjectReadCache;
+import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.modules.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class TaskServiceTest {
+
+    private static final String TENANT = "t1";
+    private static final String TASK = "task-1";
+
+    private TaskRepository taskRepository;
+    private ProjectRepository projectRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private EntityManager entityManager;
+    private TaskService taskService;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        projectRepository = mock(ProjectRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        entityManager = mock(EntityManager.class);
+        TaskRanks taskRanks = mock(TaskRanks.class);
+        when(taskRanks.appender(anyString(), anyInt())).thenReturn(mock(TaskRanks.Appender.class));
+        taskService = new TaskService(taskRepository, projectRepository, mock(UserRepository.class),
+                mock(AuditLogger.class), entityManager, Validation.buildDefaultValidatorFactory().getValidator(),
+                mock(JsonRowStreamer.class), eventPublisher, mock(ProjectReadCache.class), taskRanks);
+        ReflectionTestUtils.setField(taskService, "bulkMaxItems", 5000);
+        ReflectionTestUtils.setField(taskService, "jdbcBatchSize", 500);
+        TenantContext.setCurrentTenant(TENANT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void updateTaskStatus_ShouldWriteInOneStatementWithoutReadingTheTask() {
+        when(taskRepository.updateStatus(TASK, TENANT, "in_progress", 3L, false)).thenReturn(1);
+
+        var response = taskService.updateTaskStatus(TASK, "in_progress", 3L);
+
+        verify(taskRepository).updateStatus(TASK, TENANT, "in_progress", 3L, false);
+        verifyNoMoreInteractions(taskRepository, projectRepository);
+        assertEquals(Map.of("id", TASK, "status", "in_progress", "version", 4L), response.getData());
+        EntityChange change = publishedChange();
+        assertEquals(EntityChange.Action.STATUS_CHANGED, change.action());
+        // Not known without a read: listeners invalidate the tenant
+        assertNull(change.projectId());
+    }
+
+    @Test
+    public void updateTaskStatus_ShouldPassTheNewCompletedStateForTheCounter() {
+        // 2 rows matched: the task and, since the completed state flipped, its project
+        when(taskRepository.updateStatus(TASK, TENANT, "COMPLETED", null, true)).thenReturn(2);
+
+        taskService.updateTaskStatus(TASK, "COMPLETED", null);
+
+        verify(taskRepository).updateStatus(TASK, TENANT, "COMPLETED", null, true);
+        verifyNoMoreInteractions(taskRepository, projectRepository);
+        assertNull(publishedChange().projectId());
+    }
+
+    @Test
+    public void updateTaskStatus_ShouldReportAStaleVersionAsAConflictNotAsMissing() {
+        when(taskRepository.existsByIdAndTenantId(TASK, TENANT)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> taskService.updateTaskStatus(TASK, "todo", 2L));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    public void updateTaskStatus_ShouldReportAMissingTaskAsNotFound() {
+        when(taskRepository.existsByIdAndTenantId(TASK, TENANT)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTaskStatus(TASK, "todo", 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createTasks_ShouldRejectInvalidItemsAndCreateTheRest() throws Exception {
+        // p-other belongs to another tenant, so the ownership query does not return it
+        when(projectRepository.findIdsByTenantIdAndIdIn(eq(TENANT), any(Collection.class))).thenReturn(List.of("p1"));
+        List<Task> items = List.of(
+                newTask("p1", "Write the spec", "todo"),
+                newTask(null, "No project", "todo"),
+                newTask("p-other", "Someone else's", "todo"),
+                newTask("p1", "  ", "todo"),
+                newTask("p1", "Ship it", "completed"));
+
+        var response = taskService.createTasks(items);
+
+        List<TaskService.BulkItemResult> results = (List<TaskService.BulkItemResult>) response.getData();
+        assertTrue(response.isSuccess());
+        assertEquals("2 of 5 tasks created", response.getMessage());
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+        }
+        assertCreated(results.get(0));
+        assertRejected(results.get(1), "Project not found");
+        assertRejected(results.get(2), "Project not found");
+        assertFalse(results.get(3).success());
+        assertTrue(results.get(3).error().contains("Task title is required"));
+        assertCreated(results.get(4));
+        verify(entityManager, times(2)).persist(any(Task.class));
+        verify(projectRepository).adjustTaskCounts("p1", 2, 1);
+        // Wire shape of a rejected item
+        assertEquals("{\"index\":1,\"id\":null,\"success\":false,\"error\":\"Project not found\"}",
+                new ObjectMapper().writeValueAsString(results.get(1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void createTasks_ShouldAdjustTheCountersOncePerProject() {
+        when(projectRepository.findIdsByTenantIdAndIdIn(eq(TENANT), any(Collection.class))).thenReturn(List.of("p1", "p2"));
+
+        taskService.createTasks(List.of(
+                newTask("p1", "First task", "completed"),
+                newTask("p2", "Second task", "todo"),
+                newTask("p1", "Third task", "todo"),
+                newTask("p2", "Fourth task", "COMPLETED")));
+
+        verify(projectRepository).adjustTaskCounts("p1", 2, 1);
+        verify(projectRepository).adjustTaskCounts("p2", 2, 1);
+        verify(projectRepository, times(2)).adjustTaskCounts(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void updateTaskStatuses_ShouldRejectPerItemAndNetTheCompletedDeltasPerProject() {
+        when(taskRepository.findAllByTenantIdAndIdIn(eq(TENANT), any(Collection.class))).thenReturn(new ArrayList<>(List.of(
+                stored("a", "p1", "todo"), stored("b", "p1", "completed"),
+                stored("c", "p2", "todo"), stored("d", "p2", "todo"))));
+
+        var response = taskService.updateTaskStatuses(List.of(
+                change("a", "completed"),
+                change("b", "todo"),       // p1: +1 -1, no counter update
+                change("c", "completed"),  // p2: +1
+                change("missing", "todo"),
+                change("d", " ")));
+
+        List<TaskService.BulkItemResult> results = (List<TaskService.BulkItemResult>) response.getData();
+        assertEquals("3 of 5 task statuses updated", response.getMessage());
+        assertRejected(results.get(3), "Task not found");
+        assertEquals("missing", results.get(3).id());
+        assertRejected(results.get(4), "Status is required");
+        assertEquals("d", results.get(4).id());
+        verify(projectRepository).adjustTaskCounts("p2", 0, 1);
+        verify(projectRepository, never()).adjustTaskCounts(eq("p1"), anyLong(), anyLong());
+        verify(entityManager).flush();
+    }
+
+    private static void assertCreated(TaskService.BulkItemResult result) {
+        assertTrue(result.success());
+        assertNotNull(result.id());
+        assertNull(result.error());
+    }
+
+    private static void assertRejected(TaskService.BulkItemResult result, String error) {
+        assertFalse(result.success());
+        assertEquals(error, result.error());
+    }
+
+    private static Task newTask(String projectId, String title, String status) {
+        Task task = new Task();
+        task.setProjectId(projectId);
+        task.setTitle(title);
+        task.setStatus(status);
+        return task;
+    }
+
+    private static Task stored(String id, String projectId, String status) {
+        Task task = newTask(projectId, "Task " + id, status);
+        task.setId(id);
+        task.setTenantId(TENANT);
+        return task;
+    }
+
+    private static Task change(String id, String status) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+
+    private EntityChange publishedChange() {
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue() instanceof EntityChange);
+        return (EntityChange) event.getValue();
+    }
+}
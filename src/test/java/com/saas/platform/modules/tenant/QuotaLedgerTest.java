@@ -0,0 +1,100 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.modules.project.ProjectRepository;
+import com.saas.platform.modules.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QuotaLedgerTest {
+
+    private UserRepository userRepository;
+    private QuotaLedger ledger;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.countByTenantId("t1")).thenReturn(3L);
+        ledger = new QuotaLedger(userRepository, mock(ProjectRepository.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void tryReserve_ShouldStopAtLimitIncludingInFlightCreates() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 5));
+        assertTrue(ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 5));
+        assertFalse(ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 5));
+        assertEquals(3, ledger.usage("t1", QuotaLedger.Resource.USERS));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(5, ledger.usage("t1", QuotaLedger.Resource.USERS));
+    }
+
+    @Test
+    public void tryReserve_ShouldGiveSlotBackOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 4));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(3, ledger.usage("t1", QuotaLedger.Resource.USERS));
+        assertTrue(ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 4));
+    }
+
+    @Test
+    public void release_ShouldFreeSlotAfterCommit() {
+        ledger.usage("t1", QuotaLedger.Resource.USERS);
+
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.release("t1", QuotaLedger.Resource.USERS);
+        assertEquals(3, ledger.usage("t1", QuotaLedger.Resource.USERS));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(2, ledger.usage("t1", QuotaLedger.Resource.USERS));
+    }
+
+    @Test
+    public void tryReserve_ShouldNeverOvershootUnderContention() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> {
+                if (ledger.tryReserve("t1", QuotaLedger.Resource.USERS, 50)) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(47, granted.get());
+        assertEquals(50, ledger.usage("t1", QuotaLedger.Resource.USERS));
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            sync.afterCompletion(status);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,70 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.sharding.ShardScatterGather;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TenantDirectoryTest {
+
+    private ShardScatterGather shardScatterGather;
+    private TenantDirectory directory;
+
+    @BeforeEach
+    public void setUp() {
+        shardScatterGather = mock(ShardScatterGather.class);
+        directory = new TenantDirectory(mock(TenantRepository.class), shardScatterGather, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void refresh_ShouldLoadTenantsAndDropDeletedOnes() {
+        directory.register(tenant("t1", "acme", "pro"));
+        directory.register(tenant("t2", "globex", "free"));
+        when(shardScatterGather.queryAll(any())).thenReturn(List.of(tenant("t1", "acme", "free")));
+
+        directory.refresh();
+
+        assertEquals("free", directory.findById("t1").orElseThrow().subscriptionPlan());
+        assertTrue(directory.findById("t2").isEmpty());
+        assertFalse(directory.containsSubdomain("globex"));
+    }
+
+    @Test
+    public void refresh_ShouldKeepTenantsRegisteredWhileTheQueryRuns() {
+        directory.register(tenant("t1", "acme", "free"));
+        // The query returns rows read before these registrations committed; nothing lets the clock advance
+        when(shardScatterGather.queryAll(any())).thenAnswer(invocation -> {
+            directory.register(tenant("t1", "acme-corp", "pro"));
+            directory.register(tenant("t2", "globex", "free"));
+            return List.of(tenant("t1", "acme", "free"));
+        });
+
+        directory.refresh();
+
+        TenantDirectory.Entry t1 = directory.findById("t1").orElseThrow();
+        assertEquals("pro", t1.subscriptionPlan());
+        assertEquals(t1, directory.findBySubdomain("acme-corp").orElseThrow());
+        assertFalse(directory.containsSubdomain("acme"));
+        assertTrue(directory.findById("t2").isPresent());
+    }
+
+    private static Tenant tenant(String id, String subdomain, String plan) {
+        Tenant tenant = new Tenant();
+        tenant.setId(id);
+        tenant.setSubdomain(subdomain);
+        tenant.setStatus("active");
+        tenant.setSubscriptionPlan(plan);
+        tenant.setMaxUsers(5);
+        tenant.setMaxProjects(5);
+        return tenant;
+    }
+}
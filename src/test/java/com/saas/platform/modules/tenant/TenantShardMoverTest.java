@@ -0,0 +1,134 @@
+package com.saas.platform.modules.tenant;
+
+import com.saas.platform.core.exception.BadRequestException;
+import com.saas.platform.core.sharding.ShardDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TenantShardMoverTest {
+
+    private static final TenantShardMover.Table TASKS = table("tasks");
+    private static final TenantShardMover.Table AUDIT_LOGS = table("audit_logs");
+
+    private ShardDirectory shardDirectory;
+    private JdbcTemplate jdbcTemplate;
+    private TenantShardMover mover;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        shardDirectory = mock(ShardDirectory.class);
+        when(shardDirectory.isSharded()).thenReturn(true);
+        when(shardDirectory.shardIds()).thenReturn(Set.of("main", "s1"));
+        when(shardDirectory.shardFor("t1")).thenReturn("main");
+        when(shardDirectory.refreshIntervalMs()).thenReturn(0L);
+        TenantDirectory tenantDirectory = mock(TenantDirectory.class);
+        when(tenantDirectory.findById("t1")).thenReturn(Optional.of(
+                new TenantDirectory.Entry("t1", "acme", "active", "free", 5, 5, 0)));
+        // Runs the move on the calling thread; JdbcTemplate answers every query with no rows
+        jdbcTemplate = mock(JdbcTemplate.class);
+        mover = new TenantShardMover(shardDirectory, tenantDirectory, jdbcTemplate,
+                new TaskExecutorAdapter(Runnable::run));
+    }
+
+    @Test
+    public void selectFirstAndNext_ShouldPageAlongTheKeyColumns() {
+        assertEquals("SELECT id, tenant_id, title FROM tasks WHERE tenant_id = UUID_TO_BIN(?) ORDER BY id LIMIT 500",
+                TenantShardMover.selectFirst(TASKS, List.of("id", "tenant_id", "title"), false));
+        assertEquals("SELECT id, timestamp FROM audit_logs WHERE tenant_id = UUID_TO_BIN(?) " +
+                        "AND (timestamp, id) > (?, ?) ORDER BY timestamp, id LIMIT 500",
+                TenantShardMover.selectNext(AUDIT_LOGS, List.of("id", "timestamp"), false));
+    }
+
+    @Test
+    public void selectFirstAndNext_ShouldFilterOnTheChangedColumnWithASince() {
+        assertEquals("SELECT id, title FROM tasks WHERE tenant_id = UUID_TO_BIN(?) AND updated_at >= ? " +
+                        "ORDER BY id LIMIT 500",
+                TenantShardMover.selectFirst(TASKS, List.of("id", "title"), true));
+        assertEquals("SELECT id, timestamp FROM audit_logs WHERE tenant_id = UUID_TO_BIN(?) AND timestamp >= ? " +
+                        "AND (timestamp, id) > (?, ?) ORDER BY timestamp, id LIMIT 500",
+                TenantShardMover.selectNext(AUDIT_LOGS, List.of("id", "timestamp"), true));
+    }
+
+    @Test
+    public void selectIdsAndLive_ShouldCheckDeletionsOneBatchAtATime() {
+        assertEquals("SELECT BIN_TO_UUID(id) FROM tasks WHERE tenant_id = UUID_TO_BIN(?) " +
+                        "AND id > UUID_TO_BIN(?) ORDER BY id LIMIT 500",
+                TenantShardMover.selectIds(TASKS, true));
+        assertEquals("SELECT BIN_TO_UUID(id) FROM tasks WHERE tenant_id = UUID_TO_BIN(?) " +
+                        "AND id IN (UUID_TO_BIN(?), UUID_TO_BIN(?))",
+                TenantShardMover.selectLive(TASKS, 2));
+    }
+
+    @Test
+    public void upsertSql_ShouldWriteExactlyTheSelectedColumns() {
+        assertEquals("INSERT INTO tasks (id, title, rank_key) VALUES (?, ?, ?) AS new ON DUPLICATE KEY UPDATE " +
+                        "id = new.id, title = new.title, rank_key = new.rank_key",
+                TenantShardMover.upsertSql(TASKS, List.of("id", "title", "rank_key")));
+    }
+
+    @Test
+    public void startMove_ShouldFreezeDrainThenSwitchToTheTarget() throws Exception {
+        when(shardDirectory.awaitWritesDrained(eq("t1"), anyLong())).thenReturn(true);
+
+        mover.startMove("t1", "s1");
+
+        InOrder phases = inOrder(shardDirectory);
+        phases.verify(shardDirectory).update("t1", "main", ShardDirectory.Status.MOVING);
+        phases.verify(shardDirectory).update("t1", "main", ShardDirectory.Status.FROZEN);
+        phases.verify(shardDirectory).awaitWritesDrained(eq("t1"), anyLong());
+        phases.verify(shardDirectory).update("t1", "s1", ShardDirectory.Status.ACTIVE);
+    }
+
+    @Test
+    public void startMove_ShouldDeleteTheSourceCopyInBatchesUntilOneComesBackShort() throws Exception {
+        when(shardDirectory.awaitWritesDrained(eq("t1"), anyLong())).thenReturn(true);
+        String deleteAuditLogs = TenantShardMover.deleteBatch(AUDIT_LOGS);
+        when(jdbcTemplate.update(deleteAuditLogs, "t1")).thenReturn(500, 500, 12);
+
+        mover.startMove("t1", "s1");
+
+        assertEquals("DELETE FROM audit_logs WHERE tenant_id = UUID_TO_BIN(?) LIMIT 500", deleteAuditLogs);
+        verify(jdbcTemplate, times(3)).update(deleteAuditLogs, "t1");
+        verify(jdbcTemplate).update("DELETE FROM tenants WHERE id = UUID_TO_BIN(?) LIMIT 500", "t1");
+    }
+
+    @Test
+    public void startMove_ShouldStayOnTheSourceWhenWritesDoNotDrain() throws Exception {
+        when(shardDirectory.awaitWritesDrained(eq("t1"), anyLong())).thenReturn(false);
+
+        mover.startMove("t1", "s1");
+
+        InOrder phases = inOrder(shardDirectory);
+        phases.verify(shardDirectory).update("t1", "main", ShardDirectory.Status.FROZEN);
+        phases.verify(shardDirectory).update("t1", "main", ShardDirectory.Status.ACTIVE);
+        verify(shardDirectory, never()).update("t1", "s1", ShardDirectory.Status.ACTIVE);
+    }
+
+    @Test
+    public void startMove_ShouldRejectTheCurrentShardAndUnknownShards() {
+        assertThrows(BadRequestException.class, () -> mover.startMove("t1", "main"));
+        assertThrows(BadRequestException.class, () -> mover.startMove("t1", "s9"));
+    }
+
+    private static TenantShardMover.Table table(String name) {
+        return TenantShardMover.TABLES.stream().filter(table -> table.name().equals(name)).findFirst().orElseThrow();
+    }
+}
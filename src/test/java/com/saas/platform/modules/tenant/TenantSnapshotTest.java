@@ -0,0 +1,100 @@
+package com.saas.platform.modules.tenant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TenantSnapshotTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 23, 0, 0, 123_000_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void read_ShouldReturnEverySectionAsWritten() throws Exception {
+        Path file = writeSnapshot(2500);
+
+        try (TenantSnapshot.Reader reader = TenantSnapshot.open(file)) {
+            reader.verify();
+            assertEquals("t1", reader.header().tenantId());
+            assertEquals("acme", reader.header().subdomain());
+            assertEquals(2, reader.sections().size());
+
+            TenantSnapshot.Section tasks = reader.sections().get(1);
+            assertEquals("tasks", tasks.table());
+            assertEquals(List.of("id", "title", "due_date", "created_at", "version"), tasks.columns());
+            assertEquals(2500, tasks.rows());
+            assertEquals(3, tasks.blocks());
+
+            List<Object[]> rows = new ArrayList<>();
+            reader.forEachBlock(tasks, 0, (block, decoded) -> rows.addAll(decoded));
+            assertEquals(2500, rows.size());
+            Object[] last = rows.get(2499);
+            assertArrayEquals("id-2499".getBytes(), (byte[]) last[0]);
+            assertNull(last[1]);
+            assertEquals(LocalDate.of(2025, 1, 1), last[2]);
+            assertEquals(START.plusSeconds(2499), last[3]);
+            assertEquals(2499L, last[4]);
+        }
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    public void forEachBlock_ShouldResumeAtTheGivenBlock() throws Exception {
+        Path file = writeSnapshot(2500);
+
+        try (TenantSnapshot.Reader reader = TenantSnapshot.open(file)) {
+            List<Integer> blocks = new ArrayList<>();
+            List<Object[]> rows = new ArrayList<>();
+            reader.forEachBlock(reader.sections().get(1), 2, (block, decoded) -> {
+                blocks.add(block);
+                rows.addAll(decoded);
+            });
+            assertEquals(List.of(2), blocks);
+            assertEquals(500, rows.size());
+            assertArrayEquals("id-2000".getBytes(), (byte[]) rows.get(0)[0]);
+        }
+    }
+
+    @Test
+    public void verify_ShouldDetectACorruptBlock() throws Exception {
+        Path file = writeSnapshot(2500);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        try (TenantSnapshot.Reader reader = TenantSnapshot.open(file)) {
+            assertThrows(IOException.class, reader::verify);
+        }
+    }
+
+    // tasks row i: id "id-i", title null for odd i, created START + i seconds, version i
+    private Path writeSnapshot(int tasks) throws Exception {
+        Path file = dir.resolve("t1.tsnap");
+        try (TenantSnapshot.Writer writer = TenantSnapshot.create(file, "t1", "acme")) {
+            writer.startSection("tenants", List.of("id", "name"));
+            writer.append(new Object[] {"t1".getBytes(), "Acme"});
+            writer.startSection("tasks", List.of("id", "title", "due_date", "created_at", "version"));
+            for (int i = 0; i < tasks; i++) {
+                writer.append(new Object[] {("id-" + i).getBytes(), i % 2 == 0 ? "Task " + i : null,
+                        LocalDate.of(2025, 1, 1), START.plusSeconds(i), (long) i});
+            }
+            writer.commit();
+        }
+        return file;
+    }
+}